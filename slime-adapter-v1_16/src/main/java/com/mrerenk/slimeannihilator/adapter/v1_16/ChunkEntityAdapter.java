@@ -0,0 +1,46 @@
+package com.mrerenk.slimeannihilator.adapter.v1_16;
+
+import com.mrerenk.slimeannihilator.common.adapter.EntityAdapter;
+import com.mrerenk.slimeannihilator.common.adapter.EntityLoadHandler;
+import java.util.Arrays;
+import org.bukkit.Chunk;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+
+/**
+ * Entity handling for servers up to 1.16, where entities are stored in and
+ * loaded with their chunk
+ */
+public final class ChunkEntityAdapter implements EntityAdapter {
+
+    @Override
+    public String getName() {
+        return "1.16 and older (entities load with chunks)";
+    }
+
+    @Override
+    public boolean areEntitiesLoaded(Chunk chunk) {
+        return chunk.isLoaded();
+    }
+
+    @Override
+    public Listener newEntityLoadListener(EntityLoadHandler handler) {
+        return new Listener() {
+            @EventHandler(priority = EventPriority.MONITOR)
+            public void onChunkLoad(ChunkLoadEvent event) {
+                // A chunk generated just now has no saved entities, and
+                // those spawned while generating it went through the spawn
+                // listener
+                if (!event.isNewChunk()) {
+                    Chunk chunk = event.getChunk();
+                    handler.entitiesLoaded(
+                        chunk,
+                        Arrays.asList(chunk.getEntities())
+                    );
+                }
+            }
+        };
+    }
+}
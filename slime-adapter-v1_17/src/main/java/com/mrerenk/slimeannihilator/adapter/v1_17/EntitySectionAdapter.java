@@ -0,0 +1,39 @@
+package com.mrerenk.slimeannihilator.adapter.v1_17;
+
+import com.mrerenk.slimeannihilator.common.adapter.EntityAdapter;
+import com.mrerenk.slimeannihilator.common.adapter.EntityLoadHandler;
+import org.bukkit.Chunk;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.EntitiesLoadEvent;
+
+/**
+ * Entity handling for 1.17 and newer, where entities are stored in entity
+ * sections that load separately from, and usually after, their chunk. The
+ * load event hands over the loaded entities itself, so nothing has to ask
+ * the chunk for them; doing so for a chunk whose entities are not loaded
+ * yet would make the server load them on the spot.
+ */
+public final class EntitySectionAdapter implements EntityAdapter {
+
+    @Override
+    public String getName() {
+        return "1.17 and newer (entity sections)";
+    }
+
+    @Override
+    public boolean areEntitiesLoaded(Chunk chunk) {
+        return chunk.isEntitiesLoaded();
+    }
+
+    @Override
+    public Listener newEntityLoadListener(EntityLoadHandler handler) {
+        return new Listener() {
+            @EventHandler(priority = EventPriority.MONITOR)
+            public void onEntitiesLoad(EntitiesLoadEvent event) {
+                handler.entitiesLoaded(event.getChunk(), event.getEntities());
+            }
+        };
+    }
+}
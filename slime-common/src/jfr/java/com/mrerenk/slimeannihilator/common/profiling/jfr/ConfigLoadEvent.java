@@ -0,0 +1,29 @@
+package com.mrerenk.slimeannihilator.common.profiling.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("slimeannihilator.ConfigLoad")
+@Label("Config Load")
+@Description("Reading config.yml and applying the changes")
+@Category({ "SlimeAnnihilator", "Config" })
+@StackTrace(false)
+final class ConfigLoadEvent extends Event {
+
+    @Label("Changed Settings")
+    int changedSettings;
+
+    @Label("Changed Worlds")
+    int changedWorlds;
+
+    @Label("Global Change")
+    @Description("Whether the change invalidated every world's caches")
+    boolean global;
+
+    @Label("Revision")
+    int revision;
+}
@@ -0,0 +1,17 @@
+package com.mrerenk.slimeannihilator.common.profiling.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("slimeannihilator.ConfigSave")
+@Label("Config Save")
+@Category({ "SlimeAnnihilator", "Config" })
+@StackTrace(false)
+final class ConfigSaveEvent extends Event {
+
+    @Label("Saved")
+    boolean saved;
+}
@@ -0,0 +1,185 @@
+package com.mrerenk.slimeannihilator.common.profiling.jfr;
+
+import com.mrerenk.slimeannihilator.common.config.ConfigChange;
+import com.mrerenk.slimeannihilator.common.profiling.Profiler;
+import com.mrerenk.slimeannihilator.common.rules.SpawnVerdict;
+import jdk.jfr.EventType;
+import org.bukkit.World;
+import org.bukkit.entity.EntityType;
+import org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason;
+
+/**
+ * Emits the plugin's work as Java Flight Recorder events. Loaded by name
+ * from {@link com.mrerenk.slimeannihilator.common.profiling.Profiling}, so
+ * nothing outside this package refers to jdk.jfr. While an event type is
+ * not enabled in any recording, its begin method returns null without
+ * allocating.
+ */
+public final class JfrProfiler implements Profiler {
+
+    private final EventType spawnDecision = EventType.getEventType(
+        SpawnDecisionEvent.class
+    );
+    private final EventType worldScan = EventType.getEventType(
+        WorldScanEvent.class
+    );
+    private final EventType removal = EventType.getEventType(
+        RemovalEvent.class
+    );
+    private final EventType configLoad = EventType.getEventType(
+        ConfigLoadEvent.class
+    );
+    private final EventType configSave = EventType.getEventType(
+        ConfigSaveEvent.class
+    );
+
+    @Override
+    public Object beginSpawnDecision() {
+        if (!spawnDecision.isEnabled()) {
+            return null;
+        }
+        SpawnDecisionEvent event = new SpawnDecisionEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endSpawnDecision(
+        Object handle,
+        World world,
+        EntityType type,
+        SpawnReason reason,
+        SpawnVerdict verdict
+    ) {
+        if (!(handle instanceof SpawnDecisionEvent)) {
+            return;
+        }
+        SpawnDecisionEvent event = (SpawnDecisionEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.world = world.getName();
+            event.entityType = type.name();
+            event.reason = reason.name();
+            event.prevented = verdict.isPrevent();
+            event.decidedBy = verdict.getRuleId();
+            event.commit();
+        }
+    }
+
+    @Override
+    public Object beginScan() {
+        if (!worldScan.isEnabled()) {
+            return null;
+        }
+        WorldScanEvent event = new WorldScanEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endScan(
+        Object handle,
+        World world,
+        String scan,
+        int chunks,
+        int entities
+    ) {
+        if (!(handle instanceof WorldScanEvent)) {
+            return;
+        }
+        WorldScanEvent event = (WorldScanEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.world = world.getName();
+            event.scan = scan;
+            event.chunks = chunks;
+            event.entities = entities;
+            event.commit();
+        }
+    }
+
+    @Override
+    public Object beginRemoval() {
+        if (!removal.isEnabled()) {
+            return null;
+        }
+        RemovalEvent event = new RemovalEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endRemoval(
+        Object handle,
+        World world,
+        String trigger,
+        int chunks,
+        int removed
+    ) {
+        if (!(handle instanceof RemovalEvent)) {
+            return;
+        }
+        RemovalEvent event = (RemovalEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.world = world.getName();
+            event.trigger = trigger;
+            event.chunks = chunks;
+            event.removed = removed;
+            event.commit();
+        }
+    }
+
+    @Override
+    public Object beginConfigLoad() {
+        if (!configLoad.isEnabled()) {
+            return null;
+        }
+        ConfigLoadEvent event = new ConfigLoadEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endConfigLoad(
+        Object handle,
+        ConfigChange change,
+        int revision
+    ) {
+        if (!(handle instanceof ConfigLoadEvent)) {
+            return;
+        }
+        ConfigLoadEvent event = (ConfigLoadEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.changedSettings = change.getChangedSettings().size();
+            event.changedWorlds = change.getChangedWorlds().size();
+            event.global = change.isGlobal();
+            event.revision = revision;
+            event.commit();
+        }
+    }
+
+    @Override
+    public Object beginConfigSave() {
+        if (!configSave.isEnabled()) {
+            return null;
+        }
+        ConfigSaveEvent event = new ConfigSaveEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endConfigSave(Object handle, boolean saved) {
+        if (!(handle instanceof ConfigSaveEvent)) {
+            return;
+        }
+        ConfigSaveEvent event = (ConfigSaveEvent) handle;
+        event.end();
+        if (event.shouldCommit()) {
+            event.saved = saved;
+            event.commit();
+        }
+    }
+}
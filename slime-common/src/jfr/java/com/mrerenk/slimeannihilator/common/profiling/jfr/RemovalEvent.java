@@ -0,0 +1,30 @@
+package com.mrerenk.slimeannihilator.common.profiling.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("slimeannihilator.Removal")
+@Label("Removal")
+@Description(
+    "Removal of all managed entities from a world, from start to finish"
+)
+@Category({ "SlimeAnnihilator", "Removals" })
+@StackTrace(false)
+final class RemovalEvent extends Event {
+
+    @Label("World")
+    String world;
+
+    @Label("Trigger")
+    String trigger;
+
+    @Label("Chunks")
+    int chunks;
+
+    @Label("Removed")
+    int removed;
+}
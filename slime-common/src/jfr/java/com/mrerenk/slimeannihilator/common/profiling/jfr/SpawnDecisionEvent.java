@@ -0,0 +1,35 @@
+package com.mrerenk.slimeannihilator.common.profiling.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("slimeannihilator.SpawnDecision")
+@Label("Spawn Decision")
+@Description("The plugin's handling of one spawn event")
+@Category({ "SlimeAnnihilator", "Spawning" })
+@StackTrace(false)
+// Spawns are frequent; by default only slow decisions are kept
+@Threshold("1 ms")
+final class SpawnDecisionEvent extends Event {
+
+    @Label("World")
+    String world;
+
+    @Label("Entity Type")
+    String entityType;
+
+    @Label("Spawn Reason")
+    String reason;
+
+    @Label("Prevented")
+    boolean prevented;
+
+    @Label("Decided By")
+    @Description("The rule or setting that decided the spawn")
+    String decidedBy;
+}
@@ -0,0 +1,30 @@
+package com.mrerenk.slimeannihilator.common.profiling.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("slimeannihilator.WorldScan")
+@Label("World Scan")
+@Description("A main-thread pass over a world's entities or chunks")
+@Category({ "SlimeAnnihilator", "Scans" })
+@StackTrace(false)
+final class WorldScanEvent extends Event {
+
+    @Label("World")
+    String world;
+
+    @Label("Scan")
+    String scan;
+
+    @Label("Chunks")
+    @Description("Chunks visited, or 0 for scans over the entity list")
+    int chunks;
+
+    @Label("Entities")
+    @Description("Managed entities found or removed")
+    int entities;
+}
@@ -0,0 +1,111 @@
+package com.mrerenk.slimeannihilator.common;
+
+import com.mrerenk.slimeannihilator.common.adapter.EntityLoadHandler;
+import com.mrerenk.slimeannihilator.common.chunk.ChunkContextCache;
+import com.mrerenk.slimeannihilator.common.stacking.SlimeStacker;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason;
+
+/**
+ * Removes managed entities from flat worlds as they are loaded from disk.
+ * Auto-remove at world load only reaches the entities loaded at that point:
+ * chunks loaded later bring back the entities saved in them, and from 1.17
+ * even chunks already loaded get their entities some time after. The
+ * server's entity adapter reports the loads with the cheapest event the
+ * version has.
+ *
+ * <p>Only entities the world's policy would not let spawn are removed, so
+ * worlds with spawning enabled through /slimes enable keep their slimes,
+ * as do entities from allowed spawn reasons (such as eggs when
+ * prevent-egg-spawning is off) and stacks. Paper remembers why an entity
+ * spawned across restarts; on other servers entities loaded from disk are
+ * judged as natural spawns.
+ */
+public class LoadedEntityCleaner implements EntityLoadHandler {
+
+    private static final String TRIGGER = "entity-load";
+    private static final boolean SPAWN_REASONS = hasSpawnReasons();
+
+    private final SlimeManager slimeManager;
+    private final SlimeStacker slimeStacker;
+
+    public LoadedEntityCleaner(
+        SlimeManager slimeManager,
+        SlimeStacker slimeStacker
+    ) {
+        this.slimeManager = slimeManager;
+        this.slimeStacker = slimeStacker;
+    }
+
+    private static boolean hasSpawnReasons() {
+        try {
+            Entity.class.getMethod("getEntitySpawnReason");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void entitiesLoaded(Chunk chunk, List<Entity> entities) {
+        if (
+            entities.isEmpty() ||
+            !slimeManager.getConfig().isAutoRemoveOnLoad()
+        ) {
+            return;
+        }
+        World world = chunk.getWorld();
+        if (
+            slimeManager.isWorldExempt(world) ||
+            slimeManager.getConfig().isWorldSpawningEnabled(world.getName()) ||
+            !slimeManager.isFlatWorld(world)
+        ) {
+            return;
+        }
+        List<Entity> prevented = preventedEntities(entities);
+        if (prevented.isEmpty()) {
+            return;
+        }
+        long[] chunkKeys = {
+            ChunkContextCache.chunkKey(chunk.getX(), chunk.getZ()),
+        };
+        if (!slimeManager.callPreRemove(world, TRIGGER, chunkKeys)) {
+            return;
+        }
+        int removed = slimeManager.removeManagedEntities(prevented);
+        slimeManager.getMetrics().recordRemovals(world, removed);
+        slimeManager.callRemovedBatch(world, TRIGGER, 1, removed);
+    }
+
+    /**
+     * Gets the managed entities, other than stacks, that the world's policy
+     * would not have let spawn
+     */
+    private List<Entity> preventedEntities(List<Entity> entities) {
+        List<Entity> prevented = null;
+        for (Entity entity : entities) {
+            if (
+                slimeManager.isManaged(entity.getType()) &&
+                slimeStacker.getStackSize(entity) <= 1 &&
+                !slimeManager.isSpawnAllowed(entity, spawnReason(entity))
+            ) {
+                if (prevented == null) {
+                    prevented = new ArrayList<>();
+                }
+                prevented.add(entity);
+            }
+        }
+        return prevented != null ? prevented : Collections.emptyList();
+    }
+
+    private static SpawnReason spawnReason(Entity entity) {
+        return SPAWN_REASONS
+            ? entity.getEntitySpawnReason()
+            : SpawnReason.NATURAL;
+    }
+}
@@ -1,28 +1,98 @@
 package com.mrerenk.slimeannihilator.common;
 
+import com.mrerenk.slimeannihilator.common.api.PreSlimeRemoveEvent;
+import com.mrerenk.slimeannihilator.common.api.SlimeRemovedBatchEvent;
+import com.mrerenk.slimeannihilator.common.chunk.ChunkContextCache;
+import com.mrerenk.slimeannihilator.common.chunk.SlimeChunkHotspots;
+import com.mrerenk.slimeannihilator.common.chunk.SlimeChunkIndex;
+import com.mrerenk.slimeannihilator.common.chunk.SlimeChunkMap;
 import com.mrerenk.slimeannihilator.common.config.SlimeConfig;
+import com.mrerenk.slimeannihilator.common.metrics.SlimeMetrics;
+import com.mrerenk.slimeannihilator.common.profiling.Profiler;
+import com.mrerenk.slimeannihilator.common.profiling.Profiling;
+import com.mrerenk.slimeannihilator.common.rules.CompiledSpawnPolicy;
+import com.mrerenk.slimeannihilator.common.rules.ShadowCounts;
+import com.mrerenk.slimeannihilator.common.rules.SpawnContext;
+import com.mrerenk.slimeannihilator.common.rules.SpawnPolicyCompiler;
+import com.mrerenk.slimeannihilator.common.rules.SpawnVerdict;
+import com.mrerenk.slimeannihilator.common.scheduler.BudgetedJob;
+import com.mrerenk.slimeannihilator.common.scheduler.LoadAwareScheduler;
+import com.mrerenk.slimeannihilator.common.world.ClassificationCache;
+import com.mrerenk.slimeannihilator.common.world.ClassificationCache.Classification;
+import com.mrerenk.slimeannihilator.common.world.SpawnerVerdictCache;
+import com.mrerenk.slimeannihilator.common.world.WorldIndex;
+import com.mrerenk.slimeannihilator.common.world.WorldRegistry;
+import com.mrerenk.slimeannihilator.common.world.WorldState;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collectors;
+import java.util.concurrent.ThreadLocalRandom;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
 import org.bukkit.World;
+import org.bukkit.block.CreatureSpawner;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason;
 import org.bukkit.plugin.Plugin;
 
 public class SlimeManager {
 
+    private static final int HOTSPOT_RADIUS = 8;
+
     private final Plugin plugin;
     private final SlimeConfig config;
+    private final SlimeChunkIndex slimeChunkIndex = new SlimeChunkIndex();
+    private final ChunkContextCache chunkContextCache = new ChunkContextCache(
+        slimeChunkIndex
+    );
+    private final SlimeMetrics metrics = new SlimeMetrics();
+    private final LoadAwareScheduler scheduler;
+    private final WorldRegistry worldRegistry;
+    private final WorldIndex worldIndex;
+    private final ClassificationCache classifications;
+    private final SpawnPolicyCompiler policyCompiler;
+    private final SpawnContext worldContext;
+    // Indexed by EntityType ordinal
+    private boolean[] managedMask = new boolean[EntityType.values().length];
+    private List<EntityType> managedTypes = new ArrayList<>();
+    private int policyRevision = -1;
 
     public SlimeManager(Plugin plugin, SlimeConfig config) {
         this.plugin = plugin;
         this.config = config;
+        this.scheduler = new LoadAwareScheduler(plugin, config);
+        this.worldRegistry = new WorldRegistry(plugin);
+        this.worldIndex = new WorldIndex(plugin);
+        this.classifications = new ClassificationCache(plugin);
+        worldRegistry.addReleaseListener(state -> {
+            chunkContextCache.release(state.getId());
+            metrics.removeWorld(state.getId());
+        });
+        config.addWorldChangeListener(this::invalidateWorld);
+        this.policyCompiler = new SpawnPolicyCompiler(config);
+        this.worldContext = new SpawnContext(chunkContextCache);
     }
 
     /**
-     * Checks if a world is a flat world
+     * Checks if a world is a flat world. The result is kept in the world's
+     * state until the configuration changes.
      */
     public boolean isFlatWorld(World world) {
+        WorldState state = worldRegistry.get(world);
+        Boolean flat = state.getFlat(config.getRevision());
+        if (flat == null) {
+            flat = detectFlatWorld(world);
+            state.setFlat(flat, config.getRevision());
+        }
+        return flat;
+    }
+
+    private boolean detectFlatWorld(World world) {
         // First check if it's manually configured as flat
         if (config.isFlatWorld(world.getName())) {
             debugLog(
@@ -31,7 +101,44 @@ public class SlimeManager {
             return true;
         }
 
-        // Then try automatic detection
+        // Then reuse what automatic detection found on an earlier start,
+        // unless the world's generator changed since
+        long fingerprint = ClassificationCache.fingerprint(world);
+        Classification classification = classifications.get(
+            world,
+            fingerprint
+        );
+        if (classification == null) {
+            classification = autoDetectFlatWorld(world, fingerprint);
+            if (classification == null) {
+                // Detection failed: not flat for now, and tried again next
+                // time instead of remembering the failure
+                return false;
+            }
+            classifications.put(world, classification);
+        } else {
+            debugLog(
+                "World '" +
+                world.getName() +
+                "' classified as " +
+                (classification.isFlat() ? "flat" : "not flat") +
+                " from cache (" +
+                classification.getMethod() +
+                ")"
+            );
+        }
+        return classification.isFlat();
+    }
+
+    /**
+     * Runs automatic flat world detection
+     *
+     * @return the classification, or null if detection failed
+     */
+    private Classification autoDetectFlatWorld(World world, long fingerprint) {
+        // Confidence is in percent: a flat generator is near certain, a
+        // world name only a hint
+        long now = System.currentTimeMillis();
         try {
             // Check generator
             if (world.getGenerator() != null) {
@@ -50,7 +157,13 @@ public class SlimeManager {
                         "' detected as flat via generator: " +
                         generatorName
                     );
-                    return true;
+                    return new Classification(
+                        true,
+                        ClassificationCache.DetectionMethod.GENERATOR,
+                        90,
+                        fingerprint,
+                        now
+                    );
                 }
             }
 
@@ -66,7 +179,13 @@ public class SlimeManager {
                     world.getName() +
                     "' detected as flat via name pattern"
                 );
-                return true;
+                return new Classification(
+                    true,
+                    ClassificationCache.DetectionMethod.NAME,
+                    60,
+                    fingerprint,
+                    now
+                );
             }
         } catch (Exception e) {
             debugLog(
@@ -75,9 +194,31 @@ public class SlimeManager {
                 "' is flat: " +
                 e.getMessage()
             );
+            return null;
         }
 
-        return false;
+        return new Classification(
+            false,
+            ClassificationCache.DetectionMethod.NONE,
+            70,
+            fingerprint,
+            now
+        );
+    }
+
+    /**
+     * Drops what was derived for one world after its listing in the config
+     * changed. Other worlds keep their compiled policies.
+     */
+    private void invalidateWorld(String worldName) {
+        World world = worldIndex.getWorld(worldName);
+        WorldState state = world == null
+            ? null
+            : worldRegistry.find(world.getUID());
+        if (state != null) {
+            state.invalidate();
+            debugLog("Recompiling spawn policies for world '" + worldName + "'");
+        }
     }
 
     /**
@@ -88,153 +229,297 @@ public class SlimeManager {
     }
 
     /**
-     * Removes all slimes from flat worlds (respecting exemptions)
+     * Checks if a chunk is a slime chunk, using the world's cached bitmaps
      */
-    public void removeSlimesFromFlatWorlds() {
-        if (!config.isAutoRemoveOnStartup()) {
-            debugLog("Auto-remove on startup is disabled");
-            return;
+    public boolean isSlimeChunk(World world, int chunkX, int chunkZ) {
+        return slimeChunkIndex.isSlimeChunk(world, chunkX, chunkZ);
+    }
+
+    /**
+     * Gets the loaded chunks a sweep over a world should visit. When
+     * configured, chunks that are not slime chunks are skipped in worlds that
+     * have slime chunks.
+     */
+    public List<Chunk> getSweepChunks(World world) {
+        Chunk[] loaded = world.getLoadedChunks();
+        List<Chunk> chunks = new ArrayList<>(loaded.length);
+        SlimeChunkMap map = config.isStackingSlimeChunksOnly()
+            ? slimeChunkIndex.forWorld(world)
+            : null;
+
+        for (Chunk chunk : loaded) {
+            if (map == null || map.isSlimeChunk(chunk.getX(), chunk.getZ())) {
+                chunks.add(chunk);
+            }
         }
+        return chunks;
+    }
 
-        plugin.getLogger().info("Scanning worlds for flat world detection...");
+    /**
+     * Predicts slime chunk hotspots around a location, or returns null if
+     * the world has no slime chunks
+     */
+    public SlimeChunkHotspots getSlimeChunkHotspots(Location center) {
+        SlimeChunkMap map = slimeChunkIndex.forWorld(center.getWorld());
+        if (map == null) {
+            return null;
+        }
+        return SlimeChunkHotspots.scan(
+            map,
+            center.getBlockX() >> 4,
+            center.getBlockZ() >> 4,
+            HOTSPOT_RADIUS
+        );
+    }
 
-        // Get all worlds and log them
-        List<World> allWorlds = plugin.getServer().getWorlds();
-        List<String> worldNames = allWorlds
-            .stream()
-            .map(World::getName)
-            .collect(java.util.stream.Collectors.toList());
-        plugin
-            .getLogger()
-            .info(
-                "Found " + allWorlds.size() + " worlds to check: " + worldNames
-            );
+    /**
+     * Prepares a world for slime management: classifies it, compiles its
+     * spawn policies and, for flat worlds with auto-remove enabled, queues a
+     * budgeted removal of the managed entities already in it. The returned
+     * future completes once the world is ready.
+     *
+     * @param sinceNanos when the world became known, for logging how long it
+     *     took to get ready
+     */
+    public CompletableFuture<Void> initializeWorld(
+        World world,
+        long sinceNanos
+    ) {
+        boolean exempt = isWorldExempt(world);
+        boolean flat = isFlatWorld(world);
+        for (EntityType type : getManagedTypes()) {
+            getSpawnPolicy(world, type);
+        }
 
-        List<World> flatWorlds = allWorlds
-            .stream()
-            .filter(this::isFlatWorld)
-            .collect(java.util.stream.Collectors.toList());
-
-        List<String> flatWorldNames = flatWorlds
-            .stream()
-            .map(World::getName)
-            .collect(java.util.stream.Collectors.toList());
-        plugin
-            .getLogger()
-            .info(
-                "Detected " +
-                flatWorlds.size() +
-                " flat worlds: " +
-                flatWorldNames
+        CompletableFuture<Void> cleanup;
+        if (flat && !exempt && config.isAutoRemoveOnStartup()) {
+            cleanup = removeAllSlimesAsync(world, "auto-remove").thenAccept(
+                removed -> greetFlatWorld(world, removed)
             );
+        } else {
+            cleanup = CompletableFuture.completedFuture(null);
+        }
 
-        List<World> eligibleWorlds = flatWorlds
-            .stream()
-            .filter(world -> !isWorldExempt(world))
-            .collect(java.util.stream.Collectors.toList());
-
-        List<String> eligibleWorldNames = eligibleWorlds
-            .stream()
-            .map(World::getName)
-            .collect(java.util.stream.Collectors.toList());
-        plugin
-            .getLogger()
-            .info(
-                "Found " +
-                eligibleWorlds.size() +
-                " eligible flat worlds (after exemptions): " +
-                eligibleWorldNames
-            );
+        return cleanup.thenRun(() ->
+            plugin
+                .getLogger()
+                .info(
+                    "World '" +
+                    world.getName() +
+                    "' ready in " +
+                    (System.nanoTime() - sinceNanos) / 1_000_000 +
+                    " ms (" +
+                    (flat ? "flat" : "not flat") +
+                    (exempt ? ", exempt" : "") +
+                    ")"
+                )
+        );
+    }
 
-        if (eligibleWorlds.isEmpty()) {
+    private void greetFlatWorld(World world, int removed) {
+        if (removed > 0) {
             plugin
                 .getLogger()
-                .info("No eligible flat worlds found for slime removal.");
-            return;
+                .info(
+                    "Removed " +
+                    removed +
+                    " slimes from flat world: " +
+                    world.getName()
+                );
+            plugin
+                .getLogger()
+                .info(
+                    "Hello, slimeless flat world '" +
+                    world.getName() +
+                    "'! Your slime problem has been... flattened!"
+                );
+        } else {
+            // Even if no slimes were removed, still greet the flat world
+            plugin
+                .getLogger()
+                .info(
+                    "Hello, already slimeless flat world '" +
+                    world.getName() +
+                    "'! Staying clean and slime-free!"
+                );
         }
-
-        eligibleWorlds.forEach(world -> {
-            int removed = removeAllSlimes(world);
-            if (removed > 0) {
-                plugin
-                    .getLogger()
-                    .info(
-                        "Removed " +
-                        removed +
-                        " slimes from flat world: " +
-                        world.getName()
-                    );
-                plugin
-                    .getLogger()
-                    .info(
-                        "Hello, slimeless flat world '" +
-                        world.getName() +
-                        "'! Your slime problem has been... flattened!"
-                    );
-            } else {
-                // Even if no slimes were removed, still greet the flat world
-                plugin
-                    .getLogger()
-                    .info(
-                        "Hello, already slimeless flat world '" +
-                        world.getName() +
-                        "'! Staying clean and slime-free!"
-                    );
-            }
-        });
-
-        plugin.getLogger().info("Flat world greeting process completed!");
     }
 
     /**
-     * Removes all slimes from a specific world
+     * Removes all managed entities (slimes and any other configured types)
+     * from a specific world in a single pass over its entities, unless a
+     * plugin cancels the PreSlimeRemoveEvent
      */
     public int removeAllSlimes(World world) {
-        List<Entity> entities = world.getEntities();
+        if (!callPreRemove(world, "direct", null)) {
+            return 0;
+        }
+        refreshTypePolicies();
+        Profiler profiler = Profiling.get();
+        Object removal = profiler.beginRemoval();
+        long start = System.nanoTime();
         int removedCount = 0;
 
-        for (Entity entity : entities) {
-            if (entity.getType() == EntityType.SLIME) {
+        for (LivingEntity entity : world.getLivingEntities()) {
+            if (managedMask[entity.getType().ordinal()]) {
                 entity.remove();
                 removedCount++;
             }
         }
+        metrics.recordScan("removal", System.nanoTime() - start);
+        metrics.recordRemovals(world, removedCount);
+        profiler.endRemoval(removal, world, "direct", 0, removedCount);
+        callRemovedBatch(world, "direct", 0, removedCount);
 
         debugLog(
-            "Removed " + removedCount + " slimes from world: " + world.getName()
+            "Removed " +
+            removedCount +
+            " managed entities from world: " +
+            world.getName()
         );
         return removedCount;
     }
 
     /**
-     * Removes all slimes from a specific world asynchronously
+     * Removes all managed entities from a world chunk by chunk, within the
+     * load-aware tick budget, counting them as it goes. Jobs for several
+     * worlds run one after another within the same budget. The future
+     * completes on the main thread with the number removed.
      */
     public CompletableFuture<Integer> removeAllSlimesAsync(World world) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return plugin
-                    .getServer()
-                    .getScheduler()
-                    .callSyncMethod(plugin, () -> removeAllSlimes(world))
-                    .get();
-            } catch (Exception e) {
-                plugin
-                    .getLogger()
-                    .severe("Error removing slimes: " + e.getMessage());
-                return 0;
+        return removeAllSlimesAsync(world, "command");
+    }
+
+    /**
+     * Removes all managed entities from a world within the tick budget
+     *
+     * @param trigger what asked for the removal, reported in profiling
+     *     events
+     */
+    public CompletableFuture<Integer> removeAllSlimesAsync(
+        World world,
+        String trigger
+    ) {
+        RemovalJob job = new RemovalJob(world, null, trigger);
+        scheduler.submit(job);
+        return job.result;
+    }
+
+    /**
+     * Removes the managed entities in some chunks of a world within the tick
+     * budget. Chunks that are not loaded when the job starts are skipped.
+     *
+     * @param chunkKeys chunks as made by ChunkContextCache.chunkKey
+     * @param trigger what asked for the removal, reported in profiling
+     *     events
+     */
+    public CompletableFuture<Integer> removeSlimesInChunksAsync(
+        World world,
+        long[] chunkKeys,
+        String trigger
+    ) {
+        RemovalJob job = new RemovalJob(world, chunkKeys.clone(), trigger);
+        scheduler.submit(job);
+        return job.result;
+    }
+
+    /**
+     * Announces a removal to other plugins with a {@link PreSlimeRemoveEvent}
+     *
+     * @param chunkKeys the chunks the removal is limited to, or null
+     * @return false if a plugin cancelled the removal
+     */
+    public boolean callPreRemove(World world, String trigger, long[] chunkKeys) {
+        PreSlimeRemoveEvent event = new PreSlimeRemoveEvent(
+            world,
+            trigger,
+            chunkKeys
+        );
+        plugin.getServer().getPluginManager().callEvent(event);
+        return !event.isCancelled();
+    }
+
+    /**
+     * Reports a batch of removed entities to other plugins with a
+     * {@link SlimeRemovedBatchEvent}, unless nothing was removed
+     */
+    public void callRemovedBatch(
+        World world,
+        String trigger,
+        int chunks,
+        int removed
+    ) {
+        if (removed > 0) {
+            plugin
+                .getServer()
+                .getPluginManager()
+                .callEvent(
+                    new SlimeRemovedBatchEvent(world, trigger, chunks, removed)
+                );
+        }
+    }
+
+    /**
+     * Removes the managed entities in a loaded chunk
+     *
+     * @return the number removed
+     */
+    public int removeManagedEntities(Chunk chunk) {
+        return removeManagedEntities(Arrays.asList(chunk.getEntities()));
+    }
+
+    /**
+     * Removes the managed entities among some entities
+     *
+     * @return the number removed
+     */
+    public int removeManagedEntities(Collection<? extends Entity> entities) {
+        int removed = 0;
+        for (Entity entity : entities) {
+            if (
+                entity instanceof LivingEntity &&
+                isManaged(entity.getType()) &&
+                entity.isValid()
+            ) {
+                entity.remove();
+                removed++;
             }
-        });
+        }
+        return removed;
     }
 
     /**
-     * Counts slimes in a world
+     * Counts managed entities in a world
      */
     public int countSlimes(World world) {
-        return (int) world
-            .getEntities()
-            .stream()
-            .filter(entity -> entity.getType() == EntityType.SLIME)
-            .count();
+        int total = 0;
+        for (int count : countManagedEntities(world)) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Counts managed entities in a world by type in a single pass
+     *
+     * @return counts indexed by EntityType ordinal
+     */
+    public int[] countManagedEntities(World world) {
+        refreshTypePolicies();
+        Object scan = Profiling.get().beginScan();
+        long start = System.nanoTime();
+        int[] counts = new int[managedMask.length];
+        int found = 0;
+        for (LivingEntity entity : world.getLivingEntities()) {
+            int ordinal = entity.getType().ordinal();
+            if (managedMask[ordinal]) {
+                counts[ordinal]++;
+                found++;
+            }
+        }
+        metrics.recordScan("count", System.nanoTime() - start);
+        Profiling.get().endScan(scan, world, "count", 0, found);
+        return counts;
     }
 
     /**
@@ -274,107 +559,324 @@ public class SlimeManager {
     }
 
     /**
-     * Checks if slime spawning should be prevented based on spawn reason
+     * Creates a reusable context for evaluating spawns at a location
      */
-    public boolean shouldPreventSpawning(
-        World world,
-        org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason reason
-    ) {
-        if (isWorldExempt(world)) {
-            return false;
+    public SpawnContext newSpawnContext() {
+        return new SpawnContext(chunkContextCache);
+    }
+
+    /**
+     * Gets the per-chunk spawn context cache. It has to be registered as a
+     * listener to follow chunk loads and unloads.
+     */
+    public ChunkContextCache getChunkContextCache() {
+        return chunkContextCache;
+    }
+
+    /**
+     * Gets the scheduler that paces cleanup work to server load. It has to be
+     * started by the plugin.
+     */
+    public LoadAwareScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Gets the flat world classifications kept across restarts
+     */
+    public ClassificationCache getClassificationCache() {
+        return classifications;
+    }
+
+    /**
+     * Gets the registry holding the runtime state of each world
+     */
+    public WorldRegistry getWorldRegistry() {
+        return worldRegistry;
+    }
+
+    /**
+     * Gets the index of loaded worlds by UID and name
+     */
+    public WorldIndex getWorldIndex() {
+        return worldIndex;
+    }
+
+    /**
+     * Gets the counters exported by the metrics endpoint
+     */
+    public SlimeMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Checks if spawning and removal of an entity type are managed. This is a
+     * single array lookup, cheap enough to run for every spawn event.
+     */
+    public boolean isManaged(EntityType type) {
+        refreshTypePolicies();
+        return managedMask[type.ordinal()];
+    }
+
+    /**
+     * Gets the managed entity types
+     */
+    public List<EntityType> getManagedTypes() {
+        refreshTypePolicies();
+        return managedTypes;
+    }
+
+    /**
+     * Rebuilds the managed type mask after a configuration change. Compiled
+     * policies in the world states are dropped lazily by their revision.
+     */
+    private void refreshTypePolicies() {
+        if (policyRevision == config.getRevision()) {
+            return;
+        }
+        boolean[] mask = new boolean[EntityType.values().length];
+        List<EntityType> types = new ArrayList<>();
+        for (EntityType type : config.getManagedEntityTypes()) {
+            mask[type.ordinal()] = true;
+            types.add(type);
         }
+        managedMask = mask;
+        managedTypes = types;
+        policyRevision = config.getRevision();
+    }
 
-        // Check if spawning is manually disabled for this world (always takes precedence)
-        if (config.isWorldSpawningDisabled(world.getName())) {
-            debugLog(
-                "Preventing slime spawn in " +
-                world.getName() +
-                " (manually disabled)"
-            );
-            return true;
+    /**
+     * Gets the compiled spawn policy of a managed entity type in a world.
+     * Policies are compiled on first use and recompiled after any
+     * configuration change.
+     *
+     * @return the policy, or null if the type is not managed
+     */
+    public CompiledSpawnPolicy getSpawnPolicy(World world, EntityType type) {
+        refreshTypePolicies();
+        if (!managedMask[type.ordinal()]) {
+            return null;
+        }
+        WorldState state = worldRegistry.get(world);
+        CompiledSpawnPolicy policy = state.getPolicy(type, policyRevision);
+        if (policy == null) {
+            policy = policyCompiler.compile(world, type, isFlatWorld(world));
+            state.putPolicy(type, policy, policyRevision);
         }
+        return policy;
+    }
 
-        // Check if spawning is manually enabled for this world (overrides global flat world setting)
-        if (config.isWorldSpawningEnabled(world.getName())) {
+    /**
+     * Evaluates the spawn policy for a spawn of a managed entity type
+     */
+    public SpawnVerdict evaluateSpawn(
+        EntityType type,
+        SpawnReason reason,
+        SpawnContext context
+    ) {
+        World world = context.getWorld();
+        SpawnVerdict verdict = getSpawnPolicy(world, type).evaluate(
+            reason,
+            context
+        );
+        if (config.isEnableDebugMessages()) {
             debugLog(
-                "Allowing slime spawn in " +
+                (verdict.isPrevent() ? "Preventing " : "Allowing ") +
+                type +
+                " spawn in " +
                 world.getName() +
-                " (manually enabled, overriding global setting)"
+                " (reason: " +
+                reason +
+                ", rule: " +
+                verdict.getRuleId() +
+                " - " +
+                verdict.getExplanation() +
+                ")"
             );
-            return false;
         }
+        return verdict;
+    }
 
-        // Check specific spawn reasons first (these can override flat world restrictions)
-        switch (reason) {
-            case SPAWNER_EGG:
-                if (config.isPreventEggSpawning()) {
-                    debugLog(
-                        "Preventing slime egg spawn in " +
-                        world.getName() +
-                        " (egg spawning disabled)"
-                    );
-                    return true;
-                }
-                // If egg spawning is allowed, don't prevent it even in flat worlds
-                debugLog(
-                    "Allowing slime egg spawn in " +
-                    world.getName() +
-                    " (egg spawning enabled)"
-                );
-                return false;
-            case COMMAND:
-                if (config.isPreventCommandSpawning()) {
-                    debugLog(
-                        "Preventing slime command spawn in " +
-                        world.getName() +
-                        " (command spawning disabled)"
-                    );
-                    return true;
-                }
-                // If command spawning is allowed, don't prevent it even in flat worlds
-                debugLog(
-                    "Allowing slime command spawn in " +
-                    world.getName() +
-                    " (command spawning enabled)"
-                );
-                return false;
-            case CUSTOM:
-                if (config.isPreventCustomSpawning()) {
-                    debugLog(
-                        "Preventing slime custom spawn in " +
-                        world.getName() +
-                        " (custom spawning disabled)"
-                    );
-                    return true;
-                }
-                // If custom spawning is allowed, don't prevent it even in flat worlds
+    /**
+     * Evaluates the spawn policy for a spawn from a spawner block. The
+     * verdict is cached per spawner until the configuration or the world's
+     * listing changes, so a spawner retrying after a cancelled spawn costs a
+     * single lookup. Positional conditions are checked at the spawner block.
+     * While a spawner rule checks slime size or light level, which differ
+     * between spawns, every spawn is evaluated and nothing is cached.
+     *
+     * @param context reset to the spawner block by this call
+     */
+    public SpawnVerdict evaluateSpawnerSpawn(
+        CreatureSpawner spawner,
+        EntityType type,
+        Entity entity,
+        SpawnContext context
+    ) {
+        refreshTypePolicies();
+        Location location = spawner.getLocation();
+        World world = location.getWorld();
+        context.reset(location, entity);
+        CompiledSpawnPolicy policy = getSpawnPolicy(world, type);
+        if (!policy.isCacheable(SpawnReason.SPAWNER)) {
+            return policy.evaluate(SpawnReason.SPAWNER, context);
+        }
+        SpawnerVerdictCache cache = worldRegistry
+            .get(world)
+            .getSpawnerVerdicts(policyRevision);
+        SpawnVerdict verdict = cache.get(
+            context.getBlockX(),
+            context.getBlockY(),
+            context.getBlockZ(),
+            type
+        );
+        if (verdict == null) {
+            verdict = policy.evaluate(SpawnReason.SPAWNER, context);
+            cache.put(
+                context.getBlockX(),
+                context.getBlockY(),
+                context.getBlockZ(),
+                type,
+                verdict
+            );
+            if (config.isEnableDebugMessages()) {
                 debugLog(
-                    "Allowing slime custom spawn in " +
+                    (verdict.isPrevent() ? "Blocking " : "Allowing ") +
+                    type +
+                    " spawner at " +
+                    context.getBlockX() +
+                    "," +
+                    context.getBlockY() +
+                    "," +
+                    context.getBlockZ() +
+                    " in world " +
                     world.getName() +
-                    " (custom spawning enabled)"
+                    ": " +
+                    verdict
                 );
-                return false;
+            }
         }
+        return verdict;
+    }
 
-        // For natural spawning and other reasons, check flat world restrictions
-        if (isFlatWorld(world) && config.isPreventSpawningInFlatWorlds()) {
-            debugLog(
-                "Preventing slime natural spawn in flat world: " +
-                world.getName() +
-                " (reason: " +
-                reason +
-                ")"
+    /**
+     * Evaluates the candidate policy from the shadow section for a spawn the
+     * live policy has just decided and counts whether the two agree. The
+     * candidate is compiled like the live policy and never enforced. Does
+     * nothing while shadow mode is off, and only looks at the configured
+     * fraction of spawns.
+     *
+     * @param context the context the live policy was evaluated with
+     */
+    public void evaluateShadow(
+        EntityType type,
+        SpawnReason reason,
+        SpawnContext context,
+        boolean livePrevent
+    ) {
+        if (!config.isShadowEnabled()) {
+            return;
+        }
+        double sampleRate = config.getShadowSampleRate();
+        if (
+            sampleRate < 1.0 &&
+            ThreadLocalRandom.current().nextDouble() >= sampleRate
+        ) {
+            return;
+        }
+        refreshTypePolicies();
+        World world = context.getWorld();
+        WorldState state = worldRegistry.get(world);
+        CompiledSpawnPolicy policy = state.getShadowPolicy(
+            type,
+            policyRevision
+        );
+        if (policy == null) {
+            policy = policyCompiler.compile(
+                world,
+                type,
+                isFlatWorld(world),
+                config.getShadowRules()
             );
+            state.putShadowPolicy(type, policy, policyRevision);
+        }
+        state
+            .getShadowCounts(config.getShadowRevision())
+            .record(
+                reason,
+                livePrevent,
+                policy.evaluate(reason, context).isPrevent()
+            );
+    }
+
+    /**
+     * Gets the shadow agreement counters of a world
+     */
+    public ShadowCounts getShadowCounts(World world) {
+        return worldRegistry
+            .get(world)
+            .getShadowCounts(config.getShadowRevision());
+    }
+
+    /**
+     * Explains which rule decides a spawn of a managed entity type in a
+     * world. Rules with positional conditions are only considered when a
+     * location is given.
+     */
+    public SpawnVerdict explainSpawn(
+        World world,
+        EntityType type,
+        SpawnReason reason,
+        Location location
+    ) {
+        SpawnContext context = location != null
+            ? worldContext.reset(location, null)
+            : worldContext.resetWithoutLocation(world);
+        return getSpawnPolicy(world, type).evaluate(reason, context);
+    }
+
+    /**
+     * Checks if the spawn policy of an entity's world would let it spawn
+     * where it is now for a spawn reason, including rules on its position
+     * and size. Entities of unmanaged types are always allowed.
+     */
+    public boolean isSpawnAllowed(Entity entity, SpawnReason reason) {
+        CompiledSpawnPolicy policy = getSpawnPolicy(
+            entity.getWorld(),
+            entity.getType()
+        );
+        if (policy == null) {
             return true;
         }
+        SpawnContext context = worldContext.reset(entity.getLocation(), entity);
+        return !policy.evaluate(reason, context).isPrevent();
+    }
 
-        return false;
+    /**
+     * Checks if spawning of a managed entity type should be prevented based
+     * on spawn reason, ignoring rules that depend on the spawn position
+     */
+    public boolean shouldPreventSpawning(
+        World world,
+        EntityType type,
+        SpawnReason reason
+    ) {
+        return explainSpawn(world, type, reason, null).isPrevent();
     }
 
     /**
-     * Gets slime information for a world
+     * Gets slime information for a world, predicting slime chunk hotspots
+     * around its spawn
      */
     public SlimeInfo getSlimeInfo(World world) {
+        return getSlimeInfo(world, world.getSpawnLocation());
+    }
+
+    /**
+     * Gets slime information for a world, predicting slime chunk hotspots
+     * around the given location
+     */
+    public SlimeInfo getSlimeInfo(World world, Location center) {
         int count = countSlimes(world);
         boolean spawningDisabled = isSlimeSpawningDisabled(world);
         boolean isFlat = isFlatWorld(world);
@@ -385,7 +887,8 @@ public class SlimeManager {
             count,
             spawningDisabled,
             isFlat,
-            isExempt
+            isExempt,
+            getSlimeChunkHotspots(center)
         );
     }
 
@@ -423,6 +926,110 @@ public class SlimeManager {
         }
     }
 
+    /**
+     * Removes managed entities one loaded chunk at a time
+     */
+    private class RemovalJob implements BudgetedJob {
+
+        private final World world;
+        // Chunks to clean up, or null for all loaded chunks
+        private final long[] chunkKeys;
+        private final String trigger;
+        private final CompletableFuture<Integer> result =
+            new CompletableFuture<>();
+        // Taken when the job first runs, so queued jobs hold no chunks
+        private ArrayDeque<Chunk> chunks;
+        private int chunkCount;
+        private int removed;
+        private long nanos;
+        // Spans every slice, from the first run to completion
+        private Object removal;
+
+        private RemovalJob(World world, long[] chunkKeys, String trigger) {
+            this.world = world;
+            this.chunkKeys = chunkKeys;
+            this.trigger = trigger;
+        }
+
+        @Override
+        public boolean run(long deadlineNanos) {
+            if (plugin.getServer().getWorld(world.getUID()) == null) {
+                // Unloaded while queued: drop the chunks instead of holding them
+                chunks = null;
+                result.complete(removed);
+                return true;
+            }
+            Profiler profiler = Profiling.get();
+            long start = System.nanoTime();
+            if (chunks == null) {
+                if (!callPreRemove(world, trigger, chunkKeys)) {
+                    result.complete(0);
+                    return true;
+                }
+                removal = profiler.beginRemoval();
+                chunks = chunkKeys == null
+                    ? new ArrayDeque<>(Arrays.asList(world.getLoadedChunks()))
+                    : loadedChunks(chunkKeys);
+                chunkCount = chunks.size();
+            }
+            Object slice = profiler.beginScan();
+            int sliceChunks = 0;
+            int sliceRemoved = removed;
+            while (!chunks.isEmpty() && System.nanoTime() < deadlineNanos) {
+                Chunk chunk = chunks.poll();
+                sliceChunks++;
+                if (chunk.isLoaded()) {
+                    removed += removeManagedEntities(chunk);
+                }
+            }
+            nanos += System.nanoTime() - start;
+            profiler.endScan(
+                slice,
+                world,
+                "removal",
+                sliceChunks,
+                removed - sliceRemoved
+            );
+            callRemovedBatch(world, trigger, sliceChunks, removed - sliceRemoved);
+            if (!chunks.isEmpty()) {
+                return false;
+            }
+
+            metrics.recordScan("removal", nanos);
+            metrics.recordRemovals(world, removed);
+            profiler.endRemoval(removal, world, trigger, chunkCount, removed);
+            debugLog(
+                "Removed " +
+                removed +
+                " managed entities from world: " +
+                world.getName()
+            );
+            result.complete(removed);
+            return true;
+        }
+
+        /**
+         * Completes with the number removed before the scheduler stopped
+         */
+        @Override
+        public void cancel() {
+            chunks = null;
+            result.complete(removed);
+        }
+
+        private ArrayDeque<Chunk> loadedChunks(long[] keys) {
+            ArrayDeque<Chunk> loaded = new ArrayDeque<>(keys.length);
+            for (long key : keys) {
+                int chunkX = (int) (key >> 32);
+                int chunkZ = (int) key;
+                if (world.isChunkLoaded(chunkX, chunkZ)) {
+                    loaded.add(world.getChunkAt(chunkX, chunkZ));
+                }
+            }
+            return loaded;
+        }
+    }
+
     public static class SlimeInfo {
 
         private final String worldName;
@@ -430,19 +1037,22 @@ public class SlimeManager {
         private final boolean spawningDisabled;
         private final boolean isFlat;
         private final boolean isExempt;
+        private final SlimeChunkHotspots hotspots;
 
         public SlimeInfo(
             String worldName,
             int slimeCount,
             boolean spawningDisabled,
             boolean isFlat,
-            boolean isExempt
+            boolean isExempt,
+            SlimeChunkHotspots hotspots
         ) {
             this.worldName = worldName;
             this.slimeCount = slimeCount;
             this.spawningDisabled = spawningDisabled;
             this.isFlat = isFlat;
             this.isExempt = isExempt;
+            this.hotspots = hotspots;
         }
 
         public String getWorldName() {
@@ -464,5 +1074,13 @@ public class SlimeManager {
         public boolean isExempt() {
             return isExempt;
         }
+
+        /**
+         * Gets the predicted slime chunk hotspots, or null if the world has
+         * no slime chunks
+         */
+        public SlimeChunkHotspots getHotspots() {
+            return hotspots;
+        }
     }
 }
@@ -1,22 +1,55 @@
 package com.mrerenk.slimeannihilator.common;
 
+import com.mrerenk.slimeannihilator.common.audit.SpawnAuditLog;
+import com.mrerenk.slimeannihilator.common.profiling.Profiler;
+import com.mrerenk.slimeannihilator.common.profiling.Profiling;
+import com.mrerenk.slimeannihilator.common.rules.SpawnContext;
+import com.mrerenk.slimeannihilator.common.rules.SpawnVerdict;
+import com.mrerenk.slimeannihilator.common.stacking.SlimeStacker;
+import com.mrerenk.slimeannihilator.common.trace.SpawnTraceRecorder;
+import java.util.UUID;
+import org.bukkit.block.CreatureSpawner;
 import org.bukkit.entity.EntityType;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.CreatureSpawnEvent;
+import org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason;
+import org.bukkit.event.entity.SpawnerSpawnEvent;
 
 public class SlimeSpawnListener implements Listener {
 
     private final SlimeManager slimeManager;
+    private final SlimeStacker slimeStacker;
+    private final SpawnAuditLog auditLog;
+    private final SpawnTraceRecorder traceRecorder;
+    private final SpawnContext context;
+    // Entity a spawner was just allowed to spawn; its CreatureSpawnEvent
+    // follows and needs no second decision
+    private UUID allowedSpawnerEntity;
 
-    public SlimeSpawnListener(SlimeManager slimeManager) {
+    public SlimeSpawnListener(
+        SlimeManager slimeManager,
+        SlimeStacker slimeStacker,
+        SpawnAuditLog auditLog,
+        SpawnTraceRecorder traceRecorder
+    ) {
         this.slimeManager = slimeManager;
+        this.slimeStacker = slimeStacker;
+        this.auditLog = auditLog;
+        this.traceRecorder = traceRecorder;
+        this.context = slimeManager.newSpawnContext();
     }
 
     @EventHandler(priority = EventPriority.HIGH)
     public void onCreatureSpawn(CreatureSpawnEvent event) {
-        if (event.getEntityType() != EntityType.SLIME) {
+        EntityType type = event.getEntityType();
+        UUID allowed = null;
+        if (event.getSpawnReason() == SpawnReason.SPAWNER) {
+            allowed = allowedSpawnerEntity;
+            allowedSpawnerEntity = null;
+        }
+        if (!slimeManager.isManaged(type)) {
             return;
         }
 
@@ -24,13 +57,133 @@ public class SlimeSpawnListener implements Listener {
             return;
         }
 
-        if (
-            slimeManager.shouldPreventSpawning(
-                event.getLocation().getWorld(),
-                event.getSpawnReason()
-            )
-        ) {
+        // Stack remainders replace a slime that already existed
+        if (slimeStacker.isUnstacking()) {
+            return;
+        }
+
+        if (event.getEntity().getUniqueId().equals(allowed)) {
+            return;
+        }
+
+        Profiler profiler = Profiling.get();
+        Object decision = profiler.beginSpawnDecision();
+        context.reset(event.getLocation(), event.getEntity());
+        traceRecorder.record(context, type, event.getSpawnReason(), false);
+        SpawnVerdict verdict = slimeManager.evaluateSpawn(
+            type,
+            event.getSpawnReason(),
+            context
+        );
+        auditLog.record(
+            context.getWorld(),
+            context.getChunkX(),
+            context.getChunkZ(),
+            context.getBlockY(),
+            type,
+            event.getSpawnReason(),
+            verdict
+        );
+        slimeManager
+            .getMetrics()
+            .recordSpawnDecision(
+                context.getWorld(),
+                event.getSpawnReason(),
+                verdict.isPrevent()
+            );
+        slimeManager.evaluateShadow(
+            type,
+            event.getSpawnReason(),
+            context,
+            verdict.isPrevent()
+        );
+        profiler.endSpawnDecision(
+            decision,
+            context.getWorld(),
+            type,
+            event.getSpawnReason(),
+            verdict
+        );
+        if (verdict.isPrevent()) {
             event.setCancelled(true);
         }
     }
+
+    /**
+     * Decides spawner spawns before the entity is added, from the verdict
+     * cached for the spawner block
+     */
+    @EventHandler(priority = EventPriority.HIGH)
+    public void onSpawnerSpawn(SpawnerSpawnEvent event) {
+        EntityType type = event.getEntityType();
+        if (!slimeManager.isManaged(type) || event.isCancelled()) {
+            return;
+        }
+        CreatureSpawner spawner = event.getSpawner();
+        if (spawner == null) {
+            return;
+        }
+
+        Profiler profiler = Profiling.get();
+        Object decision = profiler.beginSpawnDecision();
+        SpawnVerdict verdict = slimeManager.evaluateSpawnerSpawn(
+            spawner,
+            type,
+            event.getEntity(),
+            context
+        );
+        traceRecorder.record(context, type, SpawnReason.SPAWNER, true);
+        auditLog.record(
+            context.getWorld(),
+            context.getChunkX(),
+            context.getChunkZ(),
+            context.getBlockY(),
+            type,
+            SpawnReason.SPAWNER,
+            verdict
+        );
+        slimeManager
+            .getMetrics()
+            .recordSpawnDecision(
+                context.getWorld(),
+                SpawnReason.SPAWNER,
+                verdict.isPrevent()
+            );
+        slimeManager.evaluateShadow(
+            type,
+            SpawnReason.SPAWNER,
+            context,
+            verdict.isPrevent()
+        );
+        profiler.endSpawnDecision(
+            decision,
+            context.getWorld(),
+            type,
+            SpawnReason.SPAWNER,
+            verdict
+        );
+
+        if (!verdict.isPrevent()) {
+            allowedSpawnerEntity = event.getEntity().getUniqueId();
+            return;
+        }
+        event.setCancelled(true);
+        if (slimeManager.getConfig().isSpawnersSleepBlocked()) {
+            // Only the current countdown is raised; the spawner's own delay
+            // range is left alone
+            spawner.setDelay(slimeManager.getConfig().getSpawnersSleepTicks());
+            spawner.update();
+        }
+    }
+
+    /**
+     * Forgets the allowed spawner entity if another plugin cancelled its
+     * spawn, so no CreatureSpawnEvent will come for it
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onSpawnerSpawnResult(SpawnerSpawnEvent event) {
+        if (event.isCancelled()) {
+            allowedSpawnerEntity = null;
+        }
+    }
 }
@@ -0,0 +1,55 @@
+package com.mrerenk.slimeannihilator.common;
+
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Initializes each world once as it becomes available: the worlds loaded
+ * when the plugin enables, and any world loaded later (for example by
+ * Multiverse). The work per world is small and any cleanup it queues is
+ * throttled, so startup cost grows with the worlds actually loaded. A world
+ * that is unloaded and loaded again gets a fresh state and is initialized
+ * again. Classifications found by detection are saved once the worlds
+ * loaded at startup are set up, and a few seconds after later loads, so
+ * the next start can skip detection.
+ */
+public class WorldLifecycleListener implements Listener {
+
+    private final Plugin plugin;
+    private final SlimeManager slimeManager;
+
+    public WorldLifecycleListener(Plugin plugin, SlimeManager slimeManager) {
+        this.plugin = plugin;
+        this.slimeManager = slimeManager;
+    }
+
+    /**
+     * Initializes the worlds that are already loaded
+     *
+     * @param enableNanos when the plugin started enabling, so their ready
+     *     time is measured from enable
+     */
+    public void initializeLoadedWorlds(long enableNanos) {
+        for (World world : plugin.getServer().getWorlds()) {
+            initialize(world, enableNanos);
+        }
+        slimeManager.getClassificationCache().save();
+    }
+
+    private void initialize(World world, long sinceNanos) {
+        if (slimeManager.getWorldRegistry().get(world).markInitialized()) {
+            slimeManager.initializeWorld(world, sinceNanos);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        initialize(event.getWorld(), System.nanoTime());
+        // Deferred, so worlds loaded in a burst are written together
+        slimeManager.getClassificationCache().saveLater();
+    }
+}
@@ -0,0 +1,31 @@
+package com.mrerenk.slimeannihilator.common.adapter;
+
+import org.bukkit.Chunk;
+import org.bukkit.event.Listener;
+
+/**
+ * The parts of entity handling that differ between server versions. Up to
+ * 1.16 a chunk's entities load together with the chunk; from 1.17 they are
+ * stored in separate entity sections that load after it, so a loaded chunk
+ * may not have its entities yet. Implementations live in the adapter
+ * modules, each compiled against the API of its version, and are picked at
+ * runtime by {@link EntityAdapters}.
+ */
+public interface EntityAdapter {
+    /**
+     * Gets the server versions the adapter is for, for logging
+     */
+    String getName();
+
+    /**
+     * Checks if the entities of a loaded chunk are loaded, so getting them
+     * does not have to wait for them
+     */
+    boolean areEntitiesLoaded(Chunk chunk);
+
+    /**
+     * Creates a listener that passes the entities loaded from disk to a
+     * handler, using the cheapest event the server has for it
+     */
+    Listener newEntityLoadListener(EntityLoadHandler handler);
+}
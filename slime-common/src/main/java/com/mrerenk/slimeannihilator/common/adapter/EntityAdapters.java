@@ -0,0 +1,52 @@
+package com.mrerenk.slimeannihilator.common.adapter;
+
+/**
+ * Picks the {@link EntityAdapter} for the running server. The adapters are
+ * compiled in their own modules against the API they need, so they are
+ * loaded by name: the first one whose marker class the server has is used.
+ */
+public final class EntityAdapters {
+
+    // Newest first: marker class of the API, then the adapter using it
+    private static final String[][] ADAPTERS = {
+        {
+            "org.bukkit.event.world.EntitiesLoadEvent",
+            "com.mrerenk.slimeannihilator.adapter.v1_17.EntitySectionAdapter",
+        },
+        {
+            "org.bukkit.event.world.ChunkLoadEvent",
+            "com.mrerenk.slimeannihilator.adapter.v1_16.ChunkEntityAdapter",
+        },
+    };
+
+    private EntityAdapters() {}
+
+    /**
+     * Loads the newest adapter the server supports
+     *
+     * @throws IllegalStateException if no adapter matches the server
+     */
+    public static EntityAdapter load() {
+        ClassLoader loader = EntityAdapters.class.getClassLoader();
+        for (String[] adapter : ADAPTERS) {
+            try {
+                Class.forName(adapter[0], false, loader);
+            } catch (ClassNotFoundException e) {
+                continue;
+            }
+            try {
+                return (EntityAdapter) Class.forName(adapter[1], true, loader)
+                    .getDeclaredConstructor()
+                    .newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                throw new IllegalStateException(
+                    "Could not load entity adapter " + adapter[1],
+                    e
+                );
+            }
+        }
+        throw new IllegalStateException(
+            "No entity adapter supports this server version"
+        );
+    }
+}
@@ -0,0 +1,17 @@
+package com.mrerenk.slimeannihilator.common.adapter;
+
+import java.util.List;
+import org.bukkit.Chunk;
+import org.bukkit.entity.Entity;
+
+/**
+ * Called on the main thread when saved entities of a chunk are loaded
+ */
+@FunctionalInterface
+public interface EntityLoadHandler {
+    /**
+     * @param chunk the chunk the entities are in
+     * @param entities the entities just loaded; not to be kept
+     */
+    void entitiesLoaded(Chunk chunk, List<Entity> entities);
+}
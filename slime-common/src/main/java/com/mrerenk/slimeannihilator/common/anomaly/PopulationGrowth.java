@@ -0,0 +1,136 @@
+package com.mrerenk.slimeannihilator.common.anomaly;
+
+import com.mrerenk.slimeannihilator.common.util.LongIntHashMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Growth rate of the managed population of one world and of its chunks.
+ * Spawns and deaths are counted as they happen; at the end of each window
+ * the net change is folded into exponentially weighted moving averages, in
+ * entities per minute. A chunk is only tracked while its average is away
+ * from zero. Only used on the main thread.
+ */
+public final class PopulationGrowth {
+
+    // Weight of the newest window; with 10 second windows, growth has to
+    // last about half a minute to reach two thirds of its rate
+    private static final double ALPHA = 0.3;
+    // Chunk averages closer to zero than this (per minute) are dropped
+    private static final double FORGET_BELOW = 1.0;
+
+    private final LongIntHashMap windowChunks = new LongIntHashMap();
+    private final Map<Long, ChunkRate> chunkRates = new HashMap<>();
+    private int windowNet;
+    private double worldRate;
+    private long lastAlertAt;
+
+    public void recordSpawn(long chunkKey) {
+        windowNet++;
+        windowChunks.put(chunkKey, windowChunks.get(chunkKey, 0) + 1);
+    }
+
+    public void recordDeath(long chunkKey) {
+        windowNet--;
+        windowChunks.put(chunkKey, windowChunks.get(chunkKey, 0) - 1);
+    }
+
+    /**
+     * Ends the current window and updates the averages
+     *
+     * @param windowSeconds how long the window lasted
+     */
+    public void update(double windowSeconds) {
+        double perMinute = 60.0 / windowSeconds;
+        worldRate += ALPHA * (windowNet * perMinute - worldRate);
+        windowNet = 0;
+
+        windowChunks.forEach((key, net) -> {
+            ChunkRate rate = chunkRates.get(key);
+            if (rate == null) {
+                rate = new ChunkRate(key);
+                chunkRates.put(key, rate);
+            }
+            rate.windowNet = net;
+        });
+        windowChunks.clear();
+
+        Iterator<ChunkRate> rates = chunkRates.values().iterator();
+        while (rates.hasNext()) {
+            ChunkRate rate = rates.next();
+            rate.perMinute +=
+                ALPHA * (rate.windowNet * perMinute - rate.perMinute);
+            rate.windowNet = 0;
+            if (Math.abs(rate.perMinute) < FORGET_BELOW) {
+                rates.remove();
+            }
+        }
+    }
+
+    /**
+     * Gets the average net growth of the world, in entities per minute
+     */
+    public double getWorldRate() {
+        return worldRate;
+    }
+
+    /**
+     * Gets the average net growth of a chunk, in entities per minute
+     */
+    public double getChunkRate(long chunkKey) {
+        ChunkRate rate = chunkRates.get(chunkKey);
+        return rate != null ? rate.perMinute : 0;
+    }
+
+    /**
+     * Gets the chunks growing at least as fast as a threshold, fastest first
+     *
+     * @return chunk keys as made by ChunkContextCache.chunkKey
+     */
+    public long[] getChunksAbove(double perMinute) {
+        List<ChunkRate> above = new ArrayList<>();
+        for (ChunkRate rate : chunkRates.values()) {
+            if (rate.perMinute >= perMinute) {
+                above.add(rate);
+            }
+        }
+        above.sort((a, b) -> Double.compare(b.perMinute, a.perMinute));
+        long[] keys = new long[above.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = above.get(i).key;
+        }
+        return keys;
+    }
+
+    /**
+     * Forgets the growth of a chunk, e.g. once it has been cleaned up
+     */
+    public void forgetChunk(long chunkKey) {
+        chunkRates.remove(chunkKey);
+    }
+
+    /**
+     * Gets when an anomaly in this world was last reported (epoch millis)
+     */
+    public long getLastAlertAt() {
+        return lastAlertAt;
+    }
+
+    public void setLastAlertAt(long lastAlertAt) {
+        this.lastAlertAt = lastAlertAt;
+    }
+
+    private static final class ChunkRate {
+
+        private final long key;
+        private int windowNet;
+        private double perMinute;
+
+        private ChunkRate(long key) {
+            this.key = key;
+        }
+    }
+}
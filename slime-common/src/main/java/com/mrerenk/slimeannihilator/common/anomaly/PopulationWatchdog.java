@@ -0,0 +1,239 @@
+package com.mrerenk.slimeannihilator.common.anomaly;
+
+import com.mrerenk.slimeannihilator.common.SlimeManager;
+import com.mrerenk.slimeannihilator.common.chunk.ChunkContextCache;
+import com.mrerenk.slimeannihilator.common.config.SlimeConfig;
+import com.mrerenk.slimeannihilator.common.world.WorldState;
+import java.util.ArrayList;
+import java.util.List;
+import org.bukkit.ChatColor;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.CreatureSpawnEvent;
+import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Watches the growth of the managed population for explosions such as a
+ * broken farm or a duplicated spawner. Every spawn that goes through and
+ * every death is counted against its world and chunk as it happens, so no
+ * entity scans are needed; {@link PopulationGrowth} averages the net change
+ * per window. Worlds or chunks growing faster than the configured thresholds
+ * are reported to admins and, if enabled, the offending chunks are cleaned
+ * up within the tick budget.
+ *
+ * <p>Entities that despawn or are removed by other plugins are not seen, so
+ * a healthy population counts as slowly growing; the thresholds need some
+ * headroom for that.
+ */
+public class PopulationWatchdog implements Listener {
+
+    private static final String ALERT_PERMISSION = "slimeannihilator.admin";
+    private static final int MAX_LISTED_CHUNKS = 5;
+
+    private final Plugin plugin;
+    private final SlimeManager slimeManager;
+    private final SlimeConfig config;
+
+    private BukkitTask task;
+    private long windowStartedAt;
+
+    public PopulationWatchdog(Plugin plugin, SlimeManager slimeManager) {
+        this.plugin = plugin;
+        this.slimeManager = slimeManager;
+        this.config = slimeManager.getConfig();
+    }
+
+    /**
+     * Starts the evaluation task. The task checks the configured interval
+     * every second, so interval changes apply on reload.
+     */
+    public void start() {
+        if (task != null) {
+            return;
+        }
+        task = plugin
+            .getServer()
+            .getScheduler()
+            .runTaskTimer(plugin, this::tick, 20L, 20L);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onCreatureSpawn(CreatureSpawnEvent event) {
+        if (
+            !config.isAnomalyEnabled() ||
+            !slimeManager.isManaged(event.getEntityType())
+        ) {
+            return;
+        }
+        Location location = event.getLocation();
+        growth(location.getWorld()).recordSpawn(chunkKey(location));
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onEntityDeath(EntityDeathEvent event) {
+        if (
+            !config.isAnomalyEnabled() ||
+            !slimeManager.isManaged(event.getEntityType())
+        ) {
+            return;
+        }
+        Location location = event.getEntity().getLocation();
+        growth(location.getWorld()).recordDeath(chunkKey(location));
+    }
+
+    private PopulationGrowth growth(World world) {
+        return slimeManager.getWorldRegistry().get(world).getGrowth();
+    }
+
+    private static long chunkKey(Location location) {
+        return ChunkContextCache.chunkKey(
+            location.getBlockX() >> 4,
+            location.getBlockZ() >> 4
+        );
+    }
+
+    private void tick() {
+        if (!config.isAnomalyEnabled()) {
+            windowStartedAt = 0;
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (windowStartedAt == 0) {
+            windowStartedAt = now;
+            return;
+        }
+        long windowMillis = now - windowStartedAt;
+        if (windowMillis < config.getAnomalyIntervalSeconds() * 1000L) {
+            return;
+        }
+        windowStartedAt = now;
+
+        for (World world : plugin.getServer().getWorlds()) {
+            WorldState state = slimeManager.getWorldRegistry().get(world);
+            PopulationGrowth growth = state.getGrowth();
+            growth.update(windowMillis / 1000.0);
+            check(world, growth, now);
+        }
+    }
+
+    private void check(World world, PopulationGrowth growth, long now) {
+        double worldRate = growth.getWorldRate();
+        long[] chunks = growth.getChunksAbove(
+            config.getAnomalyChunkGrowthPerMinute()
+        );
+        if (
+            worldRate < config.getAnomalyWorldGrowthPerMinute() &&
+            chunks.length == 0
+        ) {
+            return;
+        }
+        long cooldownMillis = config.getAnomalyAlertCooldownSeconds() * 1000L;
+        if (
+            growth.getLastAlertAt() != 0 &&
+            now - growth.getLastAlertAt() < cooldownMillis
+        ) {
+            return;
+        }
+        growth.setLastAlertAt(now);
+
+        List<String> lines = new ArrayList<>();
+        lines.add(
+            ChatColor.RED +
+            "[SlimeAnnihilator] Slime population anomaly in '" +
+            world.getName() +
+            "': " +
+            ChatColor.WHITE +
+            rate(worldRate) +
+            " per minute"
+        );
+        for (int i = 0; i < Math.min(chunks.length, MAX_LISTED_CHUNKS); i++) {
+            lines.add(
+                ChatColor.GRAY +
+                "  Chunk " +
+                (int) (chunks[i] >> 32) +
+                ", " +
+                (int) chunks[i] +
+                ": " +
+                rate(growth.getChunkRate(chunks[i])) +
+                " per minute"
+            );
+        }
+        if (chunks.length > MAX_LISTED_CHUNKS) {
+            lines.add(
+                ChatColor.GRAY +
+                "  ...and " +
+                (chunks.length - MAX_LISTED_CHUNKS) +
+                " more chunks"
+            );
+        }
+        boolean cleanup =
+            config.isAnomalyAutoCleanup() &&
+            chunks.length > 0 &&
+            !slimeManager.isWorldExempt(world);
+        if (cleanup) {
+            lines.add(
+                ChatColor.YELLOW +
+                "Cleaning up " +
+                chunks.length +
+                " offending chunks..."
+            );
+        }
+        alert(lines);
+
+        if (cleanup) {
+            for (long chunk : chunks) {
+                growth.forgetChunk(chunk);
+            }
+            String worldName = world.getName();
+            slimeManager
+                .removeSlimesInChunksAsync(world, chunks, "anomaly")
+                .thenAccept(removed -> {
+                    List<String> done = new ArrayList<>();
+                    done.add(
+                        ChatColor.GREEN +
+                        "[SlimeAnnihilator] Removed " +
+                        removed +
+                        " managed entities from " +
+                        chunks.length +
+                        " offending chunks in '" +
+                        worldName +
+                        "'."
+                    );
+                    alert(done);
+                });
+        }
+    }
+
+    /**
+     * Sends lines to online admins and logs them
+     */
+    private void alert(List<String> lines) {
+        for (Player player : plugin.getServer().getOnlinePlayers()) {
+            if (player.hasPermission(ALERT_PERMISSION)) {
+                for (String line : lines) {
+                    player.sendMessage(line);
+                }
+            }
+        }
+        for (String line : lines) {
+            plugin.getLogger().warning(ChatColor.stripColor(line));
+        }
+    }
+
+    private static String rate(double perMinute) {
+        return String.format("%+.0f", perMinute);
+    }
+}
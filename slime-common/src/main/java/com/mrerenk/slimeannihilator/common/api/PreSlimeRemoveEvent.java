@@ -0,0 +1,69 @@
+package com.mrerenk.slimeannihilator.common.api;
+
+import org.bukkit.World;
+import org.bukkit.event.Cancellable;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+/**
+ * Called once before the plugin removes managed entities from a world,
+ * for the whole operation rather than per entity. Cancelling it skips the
+ * removal. Removals spread over several ticks are announced once, before
+ * the first batch; each batch is then reported with
+ * {@link SlimeRemovedBatchEvent}.
+ */
+public class PreSlimeRemoveEvent extends Event implements Cancellable {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final World world;
+    private final String trigger;
+    private final long[] chunkKeys;
+    private boolean cancelled;
+
+    public PreSlimeRemoveEvent(World world, String trigger, long[] chunkKeys) {
+        this.world = world;
+        this.trigger = trigger;
+        this.chunkKeys = chunkKeys;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    /**
+     * Gets what started the removal: command, bulk, auto-remove, direct,
+     * anomaly, entity-load, sweep or batch
+     */
+    public String getTrigger() {
+        return trigger;
+    }
+
+    /**
+     * Gets the chunks the removal is limited to, as made by
+     * {@link SlimeSnapshot#chunkKey(int, int)}, or null if it covers every
+     * loaded chunk of the world (or, for a sweep, every generated one)
+     */
+    public long[] getChunkKeys() {
+        return chunkKeys == null ? null : chunkKeys.clone();
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public void setCancelled(boolean cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,320 @@
+package com.mrerenk.slimeannihilator.common.api;
+
+import com.mrerenk.slimeannihilator.common.SlimeManager;
+import com.mrerenk.slimeannihilator.common.chunk.ChunkContextCache;
+import com.mrerenk.slimeannihilator.common.rules.CompiledSpawnPolicy;
+import com.mrerenk.slimeannihilator.common.rules.SpawnVerdict;
+import com.mrerenk.slimeannihilator.common.scheduler.BudgetedJob;
+import com.mrerenk.slimeannihilator.common.util.LongIntHashMap;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.ServicePriority;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * The {@link SlimeService} handed to other plugins, and the source of the
+ * counts behind the plugin's own metrics and history. One count per world
+ * serves every caller: snapshots are counted a few chunks per tick within
+ * the load-aware tick budget and published in a concurrent map, and only
+ * while the service is queried or a consumer is registered, so a server
+ * that uses neither pays nothing.
+ */
+public class SlimeIndex implements SlimeService {
+
+    // Snapshots stop being refreshed after this long without a query
+    private static final long IDLE_MILLIS = 60_000L;
+
+    private static final EntityType[] TYPES = EntityType.values();
+    private static final SpawnReason[] REASONS = SpawnReason.values();
+
+    private final Plugin plugin;
+    private final SlimeManager slimeManager;
+    private final Map<UUID, SlimeSnapshot> snapshots =
+        new ConcurrentHashMap<>();
+
+    private volatile Set<EntityType> managedTypes = Collections.emptySet();
+    // Plugin features that read the snapshots and keep them refreshed
+    private final Set<Object> consumers = new HashSet<>();
+
+    private volatile long lastQueriedAt;
+    private BukkitTask task;
+    private long nextRefreshAt;
+    // Snapshot jobs queued by the last refresh that have not completed yet
+    private int pendingSnapshots;
+
+    public SlimeIndex(Plugin plugin, SlimeManager slimeManager) {
+        this.plugin = plugin;
+        this.slimeManager = slimeManager;
+    }
+
+    /**
+     * Registers the service and starts refreshing snapshots on demand
+     */
+    public void start() {
+        if (task != null) {
+            return;
+        }
+        refreshManagedTypes();
+        task = plugin
+            .getServer()
+            .getScheduler()
+            .runTaskTimer(plugin, this::tick, 20L, 20L);
+        plugin
+            .getServer()
+            .getServicesManager()
+            .register(SlimeService.class, this, plugin, ServicePriority.Normal);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        plugin
+            .getServer()
+            .getServicesManager()
+            .unregister(SlimeService.class, this);
+        snapshots.clear();
+    }
+
+    /**
+     * Keeps the snapshots refreshed for a plugin feature that reads them,
+     * whether or not other plugins query the service
+     */
+    public void addConsumer(Object consumer) {
+        consumers.add(consumer);
+    }
+
+    public void removeConsumer(Object consumer) {
+        consumers.remove(consumer);
+    }
+
+    /**
+     * Drops the snapshot of an unloaded world
+     */
+    public void releaseWorld(UUID worldId) {
+        snapshots.remove(worldId);
+    }
+
+    @Override
+    public SlimeSnapshot getSnapshot(UUID worldId) {
+        lastQueriedAt = System.currentTimeMillis();
+        SlimeSnapshot snapshot = snapshots.get(worldId);
+        if (snapshot == null && plugin.getServer().isPrimaryThread()) {
+            World world = plugin.getServer().getWorld(worldId);
+            if (world != null) {
+                snapshot = take(world);
+                snapshots.put(worldId, snapshot);
+            }
+        }
+        return snapshot;
+    }
+
+    @Override
+    public Collection<SlimeSnapshot> getSnapshots() {
+        lastQueriedAt = System.currentTimeMillis();
+        return Collections.unmodifiableCollection(snapshots.values());
+    }
+
+    @Override
+    public SpawnVerdict getSpawnVerdict(
+        UUID worldId,
+        EntityType type,
+        SpawnReason reason
+    ) {
+        SlimeSnapshot snapshot = getSnapshot(worldId);
+        return snapshot != null ? snapshot.getSpawnVerdict(type, reason) : null;
+    }
+
+    @Override
+    public Set<EntityType> getManagedTypes() {
+        return managedTypes;
+    }
+
+    private void tick() {
+        refreshManagedTypes();
+        long now = System.currentTimeMillis();
+        if (
+            (consumers.isEmpty() && now - lastQueriedAt > IDLE_MILLIS) ||
+            now < nextRefreshAt ||
+            pendingSnapshots > 0
+        ) {
+            return;
+        }
+        nextRefreshAt =
+            now +
+            slimeManager.getConfig().getApiSnapshotIntervalSeconds() * 1000L;
+        for (World world : plugin.getServer().getWorlds()) {
+            pendingSnapshots++;
+            slimeManager.getScheduler().submit(new SnapshotJob(world));
+        }
+    }
+
+    private void refreshManagedTypes() {
+        Set<EntityType> types = EnumSet.noneOf(EntityType.class);
+        types.addAll(slimeManager.getManagedTypes());
+        if (!types.equals(managedTypes)) {
+            managedTypes = Collections.unmodifiableSet(types);
+        }
+    }
+
+    /**
+     * Takes the snapshot of a world on the spot, counting all of its loaded
+     * chunks at once
+     */
+    private SlimeSnapshot take(World world) {
+        long takenAt = System.currentTimeMillis();
+        int[] typeCounts = new int[TYPES.length];
+        LongIntHashMap chunkCounts = new LongIntHashMap();
+        for (Chunk chunk : world.getLoadedChunks()) {
+            count(chunk, typeCounts, chunkCounts);
+        }
+        return tabulate(world, takenAt, typeCounts, chunkCounts);
+    }
+
+    /**
+     * Adds the managed entities of a chunk to the counts by type and chunk
+     */
+    private void count(
+        Chunk chunk,
+        int[] typeCounts,
+        LongIntHashMap chunkCounts
+    ) {
+        int found = 0;
+        for (Entity entity : chunk.getEntities()) {
+            EntityType type = entity.getType();
+            if (
+                entity instanceof LivingEntity && slimeManager.isManaged(type)
+            ) {
+                typeCounts[type.ordinal()]++;
+                found++;
+            }
+        }
+        if (found > 0) {
+            chunkCounts.put(
+                ChunkContextCache.chunkKey(chunk.getX(), chunk.getZ()),
+                found
+            );
+        }
+    }
+
+    /**
+     * Builds a snapshot from the counts of a world and tabulates its spawn
+     * verdicts
+     */
+    private SlimeSnapshot tabulate(
+        World world,
+        long takenAt,
+        int[] typeCounts,
+        LongIntHashMap chunks
+    ) {
+        long[] chunkKeys = new long[chunks.size()];
+        int[] filled = { 0 };
+        chunks.forEach((key, count) -> chunkKeys[filled[0]++] = key);
+        Arrays.sort(chunkKeys);
+        int[] chunkCounts = new int[chunkKeys.length];
+        for (int i = 0; i < chunkKeys.length; i++) {
+            chunkCounts[i] = chunks.get(chunkKeys[i], 0);
+        }
+
+        SpawnVerdict[][] verdicts = new SpawnVerdict[TYPES.length][];
+        boolean[][] positional = new boolean[TYPES.length][];
+        for (EntityType type : slimeManager.getManagedTypes()) {
+            CompiledSpawnPolicy policy = slimeManager.getSpawnPolicy(
+                world,
+                type
+            );
+            int ordinal = type.ordinal();
+            verdicts[ordinal] = new SpawnVerdict[REASONS.length];
+            positional[ordinal] = new boolean[REASONS.length];
+            for (SpawnReason reason : REASONS) {
+                verdicts[ordinal][reason.ordinal()] = policy.getDefaultVerdict(
+                    reason
+                );
+                positional[ordinal][reason.ordinal()] =
+                    policy.getRuleCount(reason) > 0;
+            }
+        }
+
+        return new SlimeSnapshot(
+            world.getUID(),
+            world.getName(),
+            takenAt,
+            typeCounts,
+            chunkKeys,
+            chunkCounts,
+            verdicts,
+            positional
+        );
+    }
+
+    /**
+     * Counts one world a loaded chunk at a time within the tick budget, and
+     * publishes its snapshot once every chunk is counted
+     */
+    private class SnapshotJob implements BudgetedJob {
+
+        private final World world;
+        private final int[] typeCounts = new int[TYPES.length];
+        private final LongIntHashMap chunkCounts = new LongIntHashMap();
+        // Taken when the job first runs, so queued jobs hold no chunks
+        private ArrayDeque<Chunk> chunks;
+        private long takenAt;
+
+        private SnapshotJob(World world) {
+            this.world = world;
+        }
+
+        @Override
+        public boolean run(long deadlineNanos) {
+            if (plugin.getServer().getWorld(world.getUID()) == null) {
+                // Unloaded while queued or counting: publish nothing
+                cancel();
+                return true;
+            }
+            if (chunks == null) {
+                takenAt = System.currentTimeMillis();
+                chunks = new ArrayDeque<>(
+                    Arrays.asList(world.getLoadedChunks())
+                );
+            }
+            while (!chunks.isEmpty() && System.nanoTime() < deadlineNanos) {
+                Chunk chunk = chunks.poll();
+                if (chunk.isLoaded()) {
+                    count(chunk, typeCounts, chunkCounts);
+                }
+            }
+            if (!chunks.isEmpty()) {
+                return false;
+            }
+            chunks = null;
+            pendingSnapshots--;
+            snapshots.put(
+                world.getUID(),
+                tabulate(world, takenAt, typeCounts, chunkCounts)
+            );
+            return true;
+        }
+
+        @Override
+        public void cancel() {
+            chunks = null;
+            pendingSnapshots--;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.mrerenk.slimeannihilator.common.api;
+
+import org.bukkit.World;
+import org.bukkit.event.Event;
+import org.bukkit.event.HandlerList;
+
+/**
+ * Called after the plugin removed a batch of managed entities from a world.
+ * A removal done in one go is one batch; one spread over ticks reports
+ * each tick's share as it completes. Batches that removed nothing are not
+ * reported.
+ */
+public class SlimeRemovedBatchEvent extends Event {
+
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    private final World world;
+    private final String trigger;
+    private final int chunks;
+    private final int removed;
+
+    public SlimeRemovedBatchEvent(
+        World world,
+        String trigger,
+        int chunks,
+        int removed
+    ) {
+        this.world = world;
+        this.trigger = trigger;
+        this.chunks = chunks;
+        this.removed = removed;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    /**
+     * Gets what started the removal, as in {@link PreSlimeRemoveEvent}
+     */
+    public String getTrigger() {
+        return trigger;
+    }
+
+    /**
+     * Gets the number of chunks looked at in this batch, or 0 if the whole
+     * world was scanned at once
+     */
+    public int getChunks() {
+        return chunks;
+    }
+
+    /**
+     * Gets the number of entities removed in this batch
+     */
+    public int getRemoved() {
+        return removed;
+    }
+
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,58 @@
+package com.mrerenk.slimeannihilator.common.api;
+
+import com.mrerenk.slimeannihilator.common.rules.SpawnVerdict;
+import java.util.Collection;
+import java.util.Set;
+import java.util.UUID;
+import org.bukkit.entity.EntityType;
+import org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason;
+
+/**
+ * What SlimeAnnihilator knows about managed entities, for other plugins.
+ * Registered with Bukkit's ServicesManager while the plugin is enabled:
+ *
+ * <pre>
+ * SlimeService slimes = Bukkit.getServicesManager().load(SlimeService.class);
+ * </pre>
+ *
+ * Queries return immutable snapshots that are refreshed on the main thread
+ * every api.snapshot-interval-seconds while someone is querying, so every
+ * method may be called from any thread and costs no entity scan. Removals
+ * are announced with {@link PreSlimeRemoveEvent} and
+ * {@link SlimeRemovedBatchEvent}.
+ */
+public interface SlimeService {
+    /**
+     * Gets the latest snapshot of a loaded world. From another thread this
+     * is null until the first refresh after the world was first queried; on
+     * the main thread a missing snapshot is taken on the spot.
+     *
+     * @return the snapshot, or null if the world is not loaded or not yet
+     *     indexed
+     */
+    SlimeSnapshot getSnapshot(UUID worldId);
+
+    /**
+     * Gets the latest snapshots of all indexed worlds
+     */
+    Collection<SlimeSnapshot> getSnapshots();
+
+    /**
+     * Gets the verdict the spawn policy of a world gives a spawn reason
+     * where no positional spawn rule matches, as of the latest snapshot
+     *
+     * @return the verdict, or null if the type is not managed or the world
+     *     has no snapshot
+     * @see SlimeSnapshot#hasPositionalRules(EntityType, SpawnReason)
+     */
+    SpawnVerdict getSpawnVerdict(
+        UUID worldId,
+        EntityType type,
+        SpawnReason reason
+    );
+
+    /**
+     * Gets the entity types this plugin manages
+     */
+    Set<EntityType> getManagedTypes();
+}
@@ -0,0 +1,139 @@
+package com.mrerenk.slimeannihilator.common.api;
+
+import com.mrerenk.slimeannihilator.common.chunk.ChunkContextCache;
+import com.mrerenk.slimeannihilator.common.rules.SpawnVerdict;
+import java.util.Arrays;
+import java.util.UUID;
+import org.bukkit.entity.EntityType;
+import org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason;
+
+/**
+ * The managed entities of one world and its spawn verdicts at one moment.
+ * Immutable, so it can be read from any thread. Chunks are identified by
+ * keys made with {@link #chunkKey(int, int)}.
+ */
+public final class SlimeSnapshot {
+
+    private final UUID worldId;
+    private final String worldName;
+    private final long takenAt;
+    private final int total;
+    // Indexed by EntityType ordinal
+    private final int[] typeCounts;
+    // Sorted, with the count of each chunk at the same index
+    private final long[] chunkKeys;
+    private final int[] chunkCounts;
+    // Indexed by EntityType ordinal, then SpawnReason ordinal; null for
+    // unmanaged types
+    private final SpawnVerdict[][] verdicts;
+    private final boolean[][] positional;
+
+    SlimeSnapshot(
+        UUID worldId,
+        String worldName,
+        long takenAt,
+        int[] typeCounts,
+        long[] chunkKeys,
+        int[] chunkCounts,
+        SpawnVerdict[][] verdicts,
+        boolean[][] positional
+    ) {
+        this.worldId = worldId;
+        this.worldName = worldName;
+        this.takenAt = takenAt;
+        this.typeCounts = typeCounts;
+        this.chunkKeys = chunkKeys;
+        this.chunkCounts = chunkCounts;
+        this.verdicts = verdicts;
+        this.positional = positional;
+        int sum = 0;
+        for (int count : typeCounts) {
+            sum += count;
+        }
+        this.total = sum;
+    }
+
+    public static long chunkKey(int chunkX, int chunkZ) {
+        return ChunkContextCache.chunkKey(chunkX, chunkZ);
+    }
+
+    public UUID getWorldId() {
+        return worldId;
+    }
+
+    public String getWorldName() {
+        return worldName;
+    }
+
+    /**
+     * Gets when the snapshot was taken, in epoch milliseconds
+     */
+    public long getTakenAt() {
+        return takenAt;
+    }
+
+    /**
+     * Gets the number of managed entities in the world
+     */
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * Gets the number of entities of a type, 0 for unmanaged types
+     */
+    public int getCount(EntityType type) {
+        return typeCounts[type.ordinal()];
+    }
+
+    /**
+     * Gets the number of chunks with managed entities in them
+     */
+    public int getChunkCount() {
+        return chunkKeys.length;
+    }
+
+    /**
+     * Gets the keys of the chunks with managed entities, in ascending order.
+     * The array is a copy.
+     */
+    public long[] getChunkKeys() {
+        return chunkKeys.clone();
+    }
+
+    /**
+     * Gets the number of managed entities in each chunk, at the index of the
+     * chunk in {@link #getChunkKeys()}. The array is a copy.
+     */
+    public int[] getChunkCounts() {
+        return chunkCounts.clone();
+    }
+
+    /**
+     * Gets the number of managed entities in one chunk
+     */
+    public int getCount(int chunkX, int chunkZ) {
+        int index = Arrays.binarySearch(chunkKeys, chunkKey(chunkX, chunkZ));
+        return index >= 0 ? chunkCounts[index] : 0;
+    }
+
+    /**
+     * Gets the verdict the spawn policy gives a spawn reason where no
+     * positional spawn rule matches
+     *
+     * @return the verdict, or null if the type is not managed
+     */
+    public SpawnVerdict getSpawnVerdict(EntityType type, SpawnReason reason) {
+        SpawnVerdict[] byReason = verdicts[type.ordinal()];
+        return byReason != null ? byReason[reason.ordinal()] : null;
+    }
+
+    /**
+     * Checks if spawn rules with conditions on the location, light or size
+     * can override {@link #getSpawnVerdict} for a spawn reason
+     */
+    public boolean hasPositionalRules(EntityType type, SpawnReason reason) {
+        boolean[] byReason = positional[type.ordinal()];
+        return byReason != null && byReason[reason.ordinal()];
+    }
+}
@@ -0,0 +1,283 @@
+package com.mrerenk.slimeannihilator.common.audit;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Scans the audit ring file for the decisions in one world, optionally
+ * limited to a chunk and a time window. Reads the file through its own
+ * channel in large blocks and is meant to run off the main thread. Indexes
+ * that point past the name tables, as in a record torn by a crash, are
+ * shown as {@code #<index>} rather than failing the query.
+ */
+public class AuditQuery {
+
+    private static final int RECORDS_PER_READ = 4096;
+    private static final int RECENT_LIMIT = 10;
+
+    private final File ringFile;
+    private final List<String> worldNames;
+    private final List<String> ruleIds;
+    private final List<String> typeNames;
+    private final List<String> reasonNames;
+    private final String worldName;
+    private final Long chunkKey;
+    private final long since;
+
+    /**
+     * @param chunkKey the chunk to limit results to, or null for all chunks
+     * @param since the earliest timestamp to include (epoch millis)
+     */
+    public AuditQuery(
+        SpawnAuditLog log,
+        String worldName,
+        Long chunkKey,
+        long since
+    ) {
+        this.ringFile = log.getRingFile();
+        this.worldNames = log.getWorldNames();
+        this.ruleIds = log.getRuleIds();
+        this.typeNames = log.getTypeNames();
+        this.reasonNames = log.getReasonNames();
+        this.worldName = worldName;
+        this.chunkKey = chunkKey;
+        this.since = since;
+    }
+
+    public Result run() throws IOException {
+        Result result = new Result();
+        boolean[] worldMatches = new boolean[worldNames.size()];
+        boolean anyWorld = false;
+        for (int i = 0; i < worldNames.size(); i++) {
+            worldMatches[i] = worldNames.get(i).equals(worldName);
+            anyWorld |= worldMatches[i];
+        }
+        if (!anyWorld || !ringFile.exists()) {
+            return result;
+        }
+
+        try (
+            RandomAccessFile file = new RandomAccessFile(ringFile, "r");
+            FileChannel channel = file.getChannel()
+        ) {
+            ByteBuffer header = ByteBuffer.allocate(SpawnAuditLog.HEADER_SIZE);
+            channel.read(header, 0);
+            if (header.getInt(0) != SpawnAuditLog.MAGIC) {
+                return result;
+            }
+            int capacity = header.getInt(SpawnAuditLog.HEADER_CAPACITY);
+            long written = header.getLong(SpawnAuditLog.HEADER_WRITTEN);
+
+            long count = Math.min(written, capacity);
+            long first = written - count;
+            ByteBuffer block = ByteBuffer.allocateDirect(
+                RECORDS_PER_READ * SpawnAuditLog.RECORD_SIZE
+            );
+
+            // Read oldest to newest, in runs that do not cross the ring's end
+            long sequence = first;
+            while (sequence < written) {
+                int slot = (int) (sequence % capacity);
+                int run = (int) Math.min(
+                    Math.min(written - sequence, capacity - slot),
+                    RECORDS_PER_READ
+                );
+                block.clear();
+                block.limit(run * SpawnAuditLog.RECORD_SIZE);
+                long position =
+                    SpawnAuditLog.HEADER_SIZE +
+                    (long) slot * SpawnAuditLog.RECORD_SIZE;
+                while (block.hasRemaining()) {
+                    if (channel.read(block, position + block.position()) < 0) {
+                        break;
+                    }
+                }
+                for (int i = 0; i < run; i++) {
+                    scanRecord(
+                        block,
+                        i * SpawnAuditLog.RECORD_SIZE,
+                        worldMatches,
+                        result
+                    );
+                }
+                sequence += run;
+            }
+            result.scanned = count;
+        }
+        return result;
+    }
+
+    private void scanRecord(
+        ByteBuffer block,
+        int offset,
+        boolean[] worldMatches,
+        Result result
+    ) {
+        int world = block.getInt(offset + SpawnAuditLog.WORLD_INDEX);
+        if (world < 0 || world >= worldMatches.length || !worldMatches[world]) {
+            return;
+        }
+        long timestamp = block.getLong(offset + SpawnAuditLog.TIMESTAMP);
+        if (timestamp < since) {
+            return;
+        }
+        long key = block.getLong(offset + SpawnAuditLog.CHUNK_KEY);
+        if (chunkKey != null && key != chunkKey) {
+            return;
+        }
+
+        boolean denied = block.get(offset + SpawnAuditLog.VERDICT) != 0;
+        String rule = name(
+            ruleIds,
+            block.getInt(offset + SpawnAuditLog.RULE_INDEX)
+        );
+
+        result.matched++;
+        if (denied) {
+            result.denied++;
+        }
+        result.byRule.merge(
+            (denied ? "DENY " : "ALLOW ") + rule,
+            1,
+            Integer::sum
+        );
+
+        Entry entry = new Entry(
+            timestamp,
+            (int) (key >> 32),
+            (int) key,
+            block.getInt(offset + SpawnAuditLog.BLOCK_Y),
+            name(
+                typeNames,
+                block.get(offset + SpawnAuditLog.ENTITY_TYPE) & 0xFF
+            ),
+            name(reasonNames, block.getShort(offset + SpawnAuditLog.REASON)),
+            denied,
+            rule
+        );
+        result.recent.addLast(entry);
+        if (result.recent.size() > RECENT_LIMIT) {
+            result.recent.removeFirst();
+        }
+    }
+
+    private static String name(List<String> names, int index) {
+        return index >= 0 && index < names.size()
+            ? names.get(index)
+            : "#" + index;
+    }
+
+    public static class Result {
+
+        private long scanned;
+        private int matched;
+        private int denied;
+        private final Map<String, Integer> byRule = new TreeMap<>();
+        private final Deque<Entry> recent = new ArrayDeque<>();
+
+        public long getScanned() {
+            return scanned;
+        }
+
+        public int getMatched() {
+            return matched;
+        }
+
+        public int getDenied() {
+            return denied;
+        }
+
+        /**
+         * Gets match counts keyed by verdict and rule id
+         */
+        public Map<String, Integer> getByRule() {
+            return byRule;
+        }
+
+        /**
+         * Gets the most recent matching decisions, oldest first
+         */
+        public List<Entry> getRecent() {
+            return new ArrayList<>(recent);
+        }
+    }
+
+    public static class Entry {
+
+        private final long timestamp;
+        private final int chunkX;
+        private final int chunkZ;
+        private final int blockY;
+        private final String type;
+        private final String reason;
+        private final boolean denied;
+        private final String ruleId;
+
+        Entry(
+            long timestamp,
+            int chunkX,
+            int chunkZ,
+            int blockY,
+            String type,
+            String reason,
+            boolean denied,
+            String ruleId
+        ) {
+            this.timestamp = timestamp;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+            this.blockY = blockY;
+            this.type = type;
+            this.reason = reason;
+            this.denied = denied;
+            this.ruleId = ruleId;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public int getChunkX() {
+            return chunkX;
+        }
+
+        public int getChunkZ() {
+            return chunkZ;
+        }
+
+        public int getBlockY() {
+            return blockY;
+        }
+
+        /**
+         * Gets the entity type name
+         */
+        public String getType() {
+            return type;
+        }
+
+        /**
+         * Gets the spawn reason name
+         */
+        public String getReason() {
+            return reason;
+        }
+
+        public boolean isDenied() {
+            return denied;
+        }
+
+        public String getRuleId() {
+            return ruleId;
+        }
+    }
+}
@@ -0,0 +1,413 @@
+package com.mrerenk.slimeannihilator.common.audit;
+
+import com.mrerenk.slimeannihilator.common.chunk.ChunkContextCache;
+import com.mrerenk.slimeannihilator.common.config.SlimeConfig;
+import com.mrerenk.slimeannihilator.common.rules.SpawnVerdict;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.bukkit.World;
+import org.bukkit.entity.EntityType;
+import org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Binary audit log of spawn decisions. Records are fixed-width and written
+ * into a memory-mapped ring file, so appending a record is a handful of
+ * absolute buffer writes with no allocation and no system call. World
+ * names, rule ids, entity types and spawn reasons are stored once in small
+ * text files next to the ring and referenced by index, so records stay
+ * readable when a server upgrade reorders the enums. New names are appended
+ * to those files by a background thread, never on the spawn path.
+ *
+ * <p>Header layout: magic, version, record size, capacity (ints), then the
+ * total number of records ever written (long). The oldest record lives at
+ * {@code written % capacity} once the ring has wrapped.
+ */
+public class SpawnAuditLog {
+
+    public static final int RECORD_SIZE = 32;
+
+    static final int MAGIC = 0x534C4D41; // "SLMA"
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 64;
+    static final int HEADER_CAPACITY = 12;
+    static final int HEADER_WRITTEN = 16;
+
+    // Record layout
+    static final int TIMESTAMP = 0;
+    static final int CHUNK_KEY = 8;
+    static final int WORLD_INDEX = 16;
+    static final int RULE_INDEX = 20;
+    static final int BLOCK_Y = 24;
+    static final int REASON = 28;
+    static final int ENTITY_TYPE = 30;
+    static final int VERDICT = 31;
+
+    private static final String RING_FILE = "spawn-audit.bin";
+    private static final String WORLDS_FILE = "worlds.txt";
+    private static final String RULES_FILE = "rules.txt";
+    private static final String TYPES_FILE = "types.txt";
+    private static final String REASONS_FILE = "reasons.txt";
+
+    private final Plugin plugin;
+    private final SlimeConfig config;
+    private final File directory;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private long written;
+
+    private final NameTable worldNames = new NameTable(WORLDS_FILE);
+    private final NameTable ruleIds = new NameTable(RULES_FILE);
+    private final NameTable typeNames = new NameTable(TYPES_FILE);
+    private final NameTable reasonNames = new NameTable(REASONS_FILE);
+    // Name table indexes by enum ordinal, -1 until first used
+    private final int[] typeIndexes = new int[EntityType.values().length];
+    private final int[] reasonIndexes = new int[SpawnReason.values().length];
+    private final Map<UUID, Integer> worldIndexes = new HashMap<>();
+    private ExecutorService writer;
+    private UUID lastWorldId;
+    private int lastWorldIndex;
+
+    public SpawnAuditLog(Plugin plugin, SlimeConfig config) {
+        this.plugin = plugin;
+        this.config = config;
+        this.directory = new File(plugin.getDataFolder(), "audit");
+    }
+
+    public boolean isOpen() {
+        return buffer != null;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Opens or closes the log to match the configuration
+     */
+    public void applyConfig() {
+        if (config.isAuditEnabled() && !isOpen()) {
+            open();
+        } else if (!config.isAuditEnabled() && isOpen()) {
+            close();
+        }
+    }
+
+    /**
+     * Maps the ring file, creating it with the configured capacity if it
+     * does not exist. An existing ring keeps its own capacity.
+     */
+    public void open() {
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("could not create " + directory);
+            }
+            worldNames.read();
+            ruleIds.read();
+            typeNames.read();
+            reasonNames.read();
+            Arrays.fill(typeIndexes, -1);
+            Arrays.fill(reasonIndexes, -1);
+            writer = Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(task, "SlimeAnnihilator-Audit");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            File ringFile = new File(directory, RING_FILE);
+            boolean fresh = !ringFile.exists() || ringFile.length() == 0;
+            RandomAccessFile file = new RandomAccessFile(ringFile, "rw");
+            channel = file.getChannel();
+
+            if (!fresh) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                channel.read(header, 0);
+                if (
+                    header.getInt(0) != MAGIC ||
+                    header.getInt(4) != VERSION ||
+                    header.getInt(8) != RECORD_SIZE
+                ) {
+                    plugin
+                        .getLogger()
+                        .warning(
+                            "Audit log has an unknown format, starting a new one"
+                        );
+                    channel.truncate(0);
+                    fresh = true;
+                } else {
+                    capacity = header.getInt(HEADER_CAPACITY);
+                    written = header.getLong(HEADER_WRITTEN);
+                }
+            }
+            if (fresh) {
+                capacity = config.getAuditMaxRecords();
+                written = 0;
+            }
+
+            buffer = channel.map(
+                FileChannel.MapMode.READ_WRITE,
+                0,
+                HEADER_SIZE + (long) capacity * RECORD_SIZE
+            );
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, RECORD_SIZE);
+            buffer.putInt(HEADER_CAPACITY, capacity);
+            buffer.putLong(HEADER_WRITTEN, written);
+
+            plugin
+                .getLogger()
+                .info(
+                    "Spawn audit log opened (" +
+                    capacity +
+                    " records, " +
+                    written +
+                    " written so far)"
+                );
+        } catch (IOException e) {
+            plugin
+                .getLogger()
+                .severe("Could not open spawn audit log: " + e.getMessage());
+            close();
+        }
+    }
+
+    /**
+     * Flushes and unmaps the ring
+     */
+    public void close() {
+        if (buffer != null) {
+            buffer.force();
+            buffer = null;
+        }
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                plugin
+                    .getLogger()
+                    .warning(
+                        "Could not close spawn audit log: " + e.getMessage()
+                    );
+            }
+            channel = null;
+        }
+        if (writer != null) {
+            // Let pending name appends finish so the tables match the ring
+            writer.shutdown();
+            try {
+                writer.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writer = null;
+        }
+        worldIndexes.clear();
+        lastWorldId = null;
+    }
+
+    /**
+     * Appends a spawn decision. Does nothing while the log is closed.
+     */
+    public void record(
+        World world,
+        int chunkX,
+        int chunkZ,
+        int blockY,
+        EntityType type,
+        SpawnReason reason,
+        SpawnVerdict verdict
+    ) {
+        MappedByteBuffer ring = buffer;
+        if (ring == null) {
+            return;
+        }
+
+        int offset = HEADER_SIZE + (int) (written % capacity) * RECORD_SIZE;
+        ring.putLong(offset + TIMESTAMP, System.currentTimeMillis());
+        ring.putLong(
+            offset + CHUNK_KEY,
+            ChunkContextCache.chunkKey(chunkX, chunkZ)
+        );
+        ring.putInt(offset + WORLD_INDEX, worldIndex(world));
+        ring.putInt(offset + RULE_INDEX, ruleIndex(verdict.getRuleId()));
+        ring.putInt(offset + BLOCK_Y, blockY);
+        ring.putShort(offset + REASON, (short) reasonIndex(reason));
+        ring.put(offset + ENTITY_TYPE, (byte) typeIndex(type));
+        ring.put(offset + VERDICT, (byte) (verdict.isPrevent() ? 1 : 0));
+        ring.putLong(HEADER_WRITTEN, ++written);
+    }
+
+    /**
+     * Gets the world names referenced by record world indexes
+     */
+    public List<String> getWorldNames() {
+        return worldNames.names;
+    }
+
+    /**
+     * Gets the rule ids referenced by record rule indexes
+     */
+    public List<String> getRuleIds() {
+        return ruleIds.names;
+    }
+
+    /**
+     * Gets the entity type names referenced by record type indexes
+     */
+    public List<String> getTypeNames() {
+        return typeNames.names;
+    }
+
+    /**
+     * Gets the spawn reason names referenced by record reason indexes
+     */
+    public List<String> getReasonNames() {
+        return reasonNames.names;
+    }
+
+    public File getRingFile() {
+        return new File(directory, RING_FILE);
+    }
+
+    /**
+     * Forgets the cached index of an unloaded world. Its name stays in the
+     * persisted name table, so a world loaded again under the same name
+     * reuses it.
+     */
+    public void releaseWorld(UUID worldId) {
+        worldIndexes.remove(worldId);
+        if (worldId.equals(lastWorldId)) {
+            lastWorldId = null;
+        }
+    }
+
+    private int worldIndex(World world) {
+        UUID worldId = world.getUID();
+        if (worldId.equals(lastWorldId)) {
+            return lastWorldIndex;
+        }
+        Integer index = worldIndexes.get(worldId);
+        if (index == null) {
+            index = worldNames.indexOf(world.getName());
+            worldIndexes.put(worldId, index);
+        }
+        lastWorldId = worldId;
+        lastWorldIndex = index;
+        return index;
+    }
+
+    private int ruleIndex(String ruleId) {
+        return ruleIds.indexOf(ruleId);
+    }
+
+    private int typeIndex(EntityType type) {
+        int index = typeIndexes[type.ordinal()];
+        if (index < 0) {
+            index = typeNames.indexOf(type.name());
+            typeIndexes[type.ordinal()] = index;
+        }
+        return index;
+    }
+
+    private int reasonIndex(SpawnReason reason) {
+        int index = reasonIndexes[reason.ordinal()];
+        if (index < 0) {
+            index = reasonNames.indexOf(reason.name());
+            reasonIndexes[reason.ordinal()] = index;
+        }
+        return index;
+    }
+
+    /**
+     * Names stored once in a text file next to the ring, one per line, and
+     * referenced from records by line number. Names are only ever appended,
+     * so an index stays valid for the life of the ring.
+     */
+    private final class NameTable {
+
+        private final String fileName;
+        private final Map<String, Integer> indexes = new HashMap<>();
+        // Read by audit queries on other threads
+        private volatile List<String> names = Collections.emptyList();
+
+        private NameTable(String fileName) {
+            this.fileName = fileName;
+        }
+
+        private void read() throws IOException {
+            indexes.clear();
+            File file = new File(directory, fileName);
+            if (!file.exists()) {
+                names = Collections.emptyList();
+                return;
+            }
+            List<String> lines = Files.readAllLines(
+                file.toPath(),
+                StandardCharsets.UTF_8
+            );
+            for (int i = 0; i < lines.size(); i++) {
+                indexes.putIfAbsent(lines.get(i), i);
+            }
+            names = Collections.unmodifiableList(lines);
+        }
+
+        /**
+         * Gets the index of a name, adding it to the table the first time it
+         * shows up. The file is appended to by the writer thread.
+         */
+        private int indexOf(String name) {
+            Integer index = indexes.get(name);
+            if (index != null) {
+                return index;
+            }
+            List<String> updated = new ArrayList<>(names);
+            updated.add(name);
+            names = Collections.unmodifiableList(updated);
+            index = updated.size() - 1;
+            indexes.put(name, index);
+            writer.execute(() -> append(name));
+            return index;
+        }
+
+        private void append(String name) {
+            try {
+                Files.write(
+                    new File(directory, fileName).toPath(),
+                    Collections.singletonList(name),
+                    StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND
+                );
+            } catch (IOException e) {
+                plugin
+                    .getLogger()
+                    .warning(
+                        "Could not update audit index " +
+                        fileName +
+                        ": " +
+                        e.getMessage()
+                    );
+            }
+        }
+    }
+}
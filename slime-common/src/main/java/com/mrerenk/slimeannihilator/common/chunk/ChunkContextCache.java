@@ -0,0 +1,150 @@
+package com.mrerenk.slimeannihilator.common.chunk;
+
+import com.mrerenk.slimeannihilator.common.util.LongIntHashMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.block.Biome;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+
+/**
+ * Caches the spawn context of loaded chunks (biome and slime-chunk flag)
+ * packed into one int per chunk, so spawn decisions never have to look up
+ * the biome of a block. Entries are filled when a chunk loads and dropped
+ * when it unloads. The biome is sampled at the centre of the chunk.
+ */
+public class ChunkContextCache implements Listener {
+
+    private static final Biome[] BIOMES = Biome.values();
+    private static final int BIOME_MASK = 0xFFFF;
+    private static final int SLIME_CHUNK_BIT = 1 << 16;
+    private static final int PRESENT_BIT = 1 << 17;
+    private static final int BIOME_SAMPLE_Y = 64;
+
+    private final SlimeChunkIndex slimeChunkIndex;
+    private final Map<UUID, LongIntHashMap> worlds = new HashMap<>();
+
+    private UUID lastWorldId;
+    private LongIntHashMap lastWorldMap;
+
+    public ChunkContextCache(SlimeChunkIndex slimeChunkIndex) {
+        this.slimeChunkIndex = slimeChunkIndex;
+    }
+
+    /**
+     * Gets the packed context of a chunk, computing it if the chunk is not
+     * cached. Only loaded chunks are stored, so a lookup for an unloaded
+     * chunk cannot leak an entry that would never be evicted.
+     */
+    public int getContext(World world, int chunkX, int chunkZ) {
+        LongIntHashMap map = mapFor(world);
+        long key = chunkKey(chunkX, chunkZ);
+        int context = map.get(key, 0);
+        if (context == 0) {
+            context = computeContext(world, chunkX, chunkZ);
+            if (world.isChunkLoaded(chunkX, chunkZ)) {
+                map.put(key, context);
+            }
+        }
+        return context;
+    }
+
+    public Biome getBiome(World world, int chunkX, int chunkZ) {
+        return biomeOf(getContext(world, chunkX, chunkZ));
+    }
+
+    public boolean isSlimeChunk(World world, int chunkX, int chunkZ) {
+        return isSlimeChunk(getContext(world, chunkX, chunkZ));
+    }
+
+    public static Biome biomeOf(int context) {
+        return BIOMES[context & BIOME_MASK];
+    }
+
+    public static boolean isSlimeChunk(int context) {
+        return (context & SLIME_CHUNK_BIT) != 0;
+    }
+
+    /**
+     * Gets the number of chunks currently cached across all worlds
+     */
+    public int size() {
+        int size = 0;
+        for (LongIntHashMap map : worlds.values()) {
+            size += map.size();
+        }
+        return size;
+    }
+
+    public static long chunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private int computeContext(World world, int chunkX, int chunkZ) {
+        Biome biome = world.getBiome(
+            (chunkX << 4) + 8,
+            BIOME_SAMPLE_Y,
+            (chunkZ << 4) + 8
+        );
+        int context = PRESENT_BIT | biome.ordinal();
+        if (slimeChunkIndex.isSlimeChunk(world, chunkX, chunkZ)) {
+            context |= SLIME_CHUNK_BIT;
+        }
+        return context;
+    }
+
+    private LongIntHashMap mapFor(World world) {
+        UUID worldId = world.getUID();
+        if (worldId.equals(lastWorldId)) {
+            return lastWorldMap;
+        }
+        LongIntHashMap map = worlds.get(worldId);
+        if (map == null) {
+            map = new LongIntHashMap(1024);
+            worlds.put(worldId, map);
+        }
+        lastWorldId = worldId;
+        lastWorldMap = map;
+        return map;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        Chunk chunk = event.getChunk();
+        World world = event.getWorld();
+        mapFor(world).put(
+            chunkKey(chunk.getX(), chunk.getZ()),
+            computeContext(world, chunk.getX(), chunk.getZ())
+        );
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        // Never creates a map: the world's state may already be released
+        LongIntHashMap map = worlds.get(event.getWorld().getUID());
+        if (map == null) {
+            return;
+        }
+        Chunk chunk = event.getChunk();
+        map.remove(chunkKey(chunk.getX(), chunk.getZ()));
+    }
+
+    /**
+     * Drops everything cached for a world. Called by the world registry when
+     * the world's state is released.
+     */
+    public void release(UUID worldId) {
+        worlds.remove(worldId);
+        slimeChunkIndex.invalidate(worldId);
+        if (worldId.equals(lastWorldId)) {
+            lastWorldId = null;
+            lastWorldMap = null;
+        }
+    }
+}
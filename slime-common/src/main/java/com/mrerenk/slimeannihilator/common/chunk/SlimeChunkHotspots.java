@@ -0,0 +1,105 @@
+package com.mrerenk.slimeannihilator.common.chunk;
+
+/**
+ * Summary of the slime chunks in a square area around a chunk, used to
+ * predict where natural slimes will show up
+ */
+public class SlimeChunkHotspots {
+
+    private final int centerX;
+    private final int centerZ;
+    private final int radius;
+    private final int slimeChunkCount;
+    private final int nearestX;
+    private final int nearestZ;
+
+    private SlimeChunkHotspots(
+        int centerX,
+        int centerZ,
+        int radius,
+        int slimeChunkCount,
+        int nearestX,
+        int nearestZ
+    ) {
+        this.centerX = centerX;
+        this.centerZ = centerZ;
+        this.radius = radius;
+        this.slimeChunkCount = slimeChunkCount;
+        this.nearestX = nearestX;
+        this.nearestZ = nearestZ;
+    }
+
+    /**
+     * Scans the square of the given radius around a chunk
+     */
+    public static SlimeChunkHotspots scan(
+        SlimeChunkMap map,
+        int centerX,
+        int centerZ,
+        int radius
+    ) {
+        int count = 0;
+        int nearestX = 0;
+        int nearestZ = 0;
+        long nearestDistance = Long.MAX_VALUE;
+
+        for (int z = centerZ - radius; z <= centerZ + radius; z++) {
+            for (int x = centerX - radius; x <= centerX + radius; x++) {
+                if (!map.isSlimeChunk(x, z)) {
+                    continue;
+                }
+                count++;
+                long dx = x - centerX;
+                long dz = z - centerZ;
+                long distance = dx * dx + dz * dz;
+                if (distance < nearestDistance) {
+                    nearestDistance = distance;
+                    nearestX = x;
+                    nearestZ = z;
+                }
+            }
+        }
+
+        return new SlimeChunkHotspots(
+            centerX,
+            centerZ,
+            radius,
+            count,
+            nearestX,
+            nearestZ
+        );
+    }
+
+    public int getCenterX() {
+        return centerX;
+    }
+
+    public int getCenterZ() {
+        return centerZ;
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    public int getAreaChunkCount() {
+        int side = radius * 2 + 1;
+        return side * side;
+    }
+
+    public int getSlimeChunkCount() {
+        return slimeChunkCount;
+    }
+
+    public boolean hasSlimeChunks() {
+        return slimeChunkCount > 0;
+    }
+
+    public int getNearestX() {
+        return nearestX;
+    }
+
+    public int getNearestZ() {
+        return nearestZ;
+    }
+}
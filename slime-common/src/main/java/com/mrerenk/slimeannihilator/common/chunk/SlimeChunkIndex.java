@@ -0,0 +1,47 @@
+package com.mrerenk.slimeannihilator.common.chunk;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import org.bukkit.World;
+
+/**
+ * Holds a {@link SlimeChunkMap} for every world that has slime chunks.
+ * Only overworld-type worlds have them, so other environments get no map.
+ */
+public class SlimeChunkIndex {
+
+    private final Map<UUID, SlimeChunkMap> maps = new HashMap<>();
+
+    /**
+     * Gets the slime chunk map of a world, or null if the world has no
+     * slime chunks
+     */
+    public SlimeChunkMap forWorld(World world) {
+        if (world.getEnvironment() != World.Environment.NORMAL) {
+            return null;
+        }
+        SlimeChunkMap map = maps.get(world.getUID());
+        if (map == null) {
+            map = new SlimeChunkMap(world.getSeed());
+            maps.put(world.getUID(), map);
+        }
+        return map;
+    }
+
+    /**
+     * Checks if a chunk is a slime chunk. Worlds without slime chunks
+     * always return false.
+     */
+    public boolean isSlimeChunk(World world, int chunkX, int chunkZ) {
+        SlimeChunkMap map = forWorld(world);
+        return map != null && map.isSlimeChunk(chunkX, chunkZ);
+    }
+
+    /**
+     * Drops the cached bitmaps of a world
+     */
+    public void invalidate(UUID worldId) {
+        maps.remove(worldId);
+    }
+}
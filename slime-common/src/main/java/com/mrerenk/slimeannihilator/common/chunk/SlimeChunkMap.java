@@ -0,0 +1,151 @@
+package com.mrerenk.slimeannihilator.common.chunk;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Slime-chunk lookup for a single world seed. Chunks are grouped into 32x32
+ * regions and each region is stored as a 1024-bit bitmap (16 longs), built
+ * lazily on first access and kept in a bounded LRU cache.
+ */
+public class SlimeChunkMap {
+
+    public static final int REGION_SHIFT = 5;
+    public static final int REGION_SIZE = 1 << REGION_SHIFT;
+    private static final int REGION_MASK = REGION_SIZE - 1;
+    private static final int WORDS_PER_REGION =
+        (REGION_SIZE * REGION_SIZE) >>> 6;
+
+    private static final int MAX_CACHED_REGIONS = 256;
+
+    // java.util.Random internals, inlined so a whole row can be computed
+    // without allocating a Random per chunk
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+    private static final int REJECT_THRESHOLD =
+        Integer.MAX_VALUE - (Integer.MAX_VALUE % 10) - 9;
+
+    private final long seed;
+    private final Map<Long, long[]> regions = new LinkedHashMap<Long, long[]>(
+        64,
+        0.75f,
+        true
+    ) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, long[]> eldest) {
+            return size() > MAX_CACHED_REGIONS;
+        }
+    };
+    private final int[] rowScratch = new int[REGION_SIZE];
+
+    private long regionsBuilt;
+    private long buildNanos;
+
+    public SlimeChunkMap(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Checks if the chunk at the given chunk coordinates is a slime chunk
+     */
+    public boolean isSlimeChunk(int chunkX, int chunkZ) {
+        long[] bitmap = getRegion(
+            chunkX >> REGION_SHIFT,
+            chunkZ >> REGION_SHIFT
+        );
+        int bit =
+            ((chunkZ & REGION_MASK) << REGION_SHIFT) | (chunkX & REGION_MASK);
+        return (bitmap[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Gets the bitmap of a region, building it if it is not cached
+     */
+    public long[] getRegion(int regionX, int regionZ) {
+        Long key = regionKey(regionX, regionZ);
+        long[] bitmap = regions.get(key);
+        if (bitmap == null) {
+            long start = System.nanoTime();
+            bitmap = new long[WORDS_PER_REGION];
+            computeRegion(regionX, regionZ, bitmap);
+            buildNanos += System.nanoTime() - start;
+            regionsBuilt++;
+            regions.put(key, bitmap);
+        }
+        return bitmap;
+    }
+
+    public long getRegionsBuilt() {
+        return regionsBuilt;
+    }
+
+    public long getBuildNanos() {
+        return buildNanos;
+    }
+
+    public int getCachedRegionCount() {
+        return regions.size();
+    }
+
+    /**
+     * Fills a region bitmap. Each row is computed in two passes: a branch-free
+     * pass producing the first nextInt(10) candidate for every chunk (plain
+     * long arithmetic the JIT can unroll and vectorize), then a packing pass
+     * that falls back to java.util.Random for the rare rejected samples.
+     */
+    private void computeRegion(int regionX, int regionZ, long[] bitmap) {
+        int baseX = regionX << REGION_SHIFT;
+        int baseZ = regionZ << REGION_SHIFT;
+        int[] row = rowScratch;
+
+        for (int lz = 0; lz < REGION_SIZE; lz++) {
+            int z = baseZ + lz;
+            long zTerm = (long) (z * z) * 0x4307a7L + (long) (z * 0x5f24f);
+
+            for (int lx = 0; lx < REGION_SIZE; lx++) {
+                int x = baseX + lx;
+                long chunkSeed =
+                    (seed + (x * x * 0x4c1906) + (x * 0x5ac0db) + zTerm) ^
+                    0x3ad8025fL;
+                long scrambled = ((chunkSeed ^ MULTIPLIER) & MASK);
+                scrambled = (scrambled * MULTIPLIER + ADDEND) & MASK;
+                row[lx] = (int) (scrambled >>> 17);
+            }
+
+            for (int lx = 0; lx < REGION_SIZE; lx++) {
+                int sample = row[lx];
+                boolean slimeChunk;
+                if (sample > REJECT_THRESHOLD) {
+                    slimeChunk = isSlimeChunkSlow(baseX + lx, z);
+                } else {
+                    slimeChunk = sample % 10 == 0;
+                }
+                if (slimeChunk) {
+                    int bit = (lz << REGION_SHIFT) | lx;
+                    bitmap[bit >>> 6] |= 1L << bit;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reference implementation of the vanilla slime chunk check
+     */
+    private boolean isSlimeChunkSlow(int x, int z) {
+        Random random = new Random(
+            (seed +
+                (x * x * 0x4c1906) +
+                (x * 0x5ac0db) +
+                (long) (z * z) * 0x4307a7L +
+                (z * 0x5f24f)) ^
+            0x3ad8025fL
+        );
+        return random.nextInt(10) == 0;
+    }
+
+    private static long regionKey(int regionX, int regionZ) {
+        return ((long) regionX << 32) | (regionZ & 0xFFFFFFFFL);
+    }
+}
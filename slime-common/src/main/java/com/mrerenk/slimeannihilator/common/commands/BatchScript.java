@@ -0,0 +1,202 @@
+package com.mrerenk.slimeannihilator.common.commands;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * An operation list for /slimes batch, read from the batches folder of the
+ * plugin. Each line holds one operation, an action followed by its target:
+ *
+ * <pre>
+ * # comments and blank lines are ignored
+ * setflat creative
+ * exempt lobby
+ * nuke flat
+ * </pre>
+ *
+ * Only nuke takes a selector ({@code all}, {@code flat} or a name glob) as
+ * well as a world name. Lines are parsed up front and every problem is
+ * collected, so a script is either run whole or not at all.
+ */
+final class BatchScript {
+
+    static final String DIRECTORY = "batches";
+
+    private final String name;
+    private final List<Step> steps;
+    private final List<String> errors;
+
+    private BatchScript(String name, List<Step> steps, List<String> errors) {
+        this.name = name;
+        this.steps = steps;
+        this.errors = errors;
+    }
+
+    /**
+     * Reads a script from the batches folder
+     *
+     * @param name file name, without any path
+     * @throws IOException if the file cannot be read
+     */
+    static BatchScript read(File dataFolder, String name) throws IOException {
+        if (
+            name.isEmpty() ||
+            name.contains("/") ||
+            name.contains("\\") ||
+            name.contains("..")
+        ) {
+            throw new IOException("'" + name + "' is not a file name");
+        }
+        File file = new File(new File(dataFolder, DIRECTORY), name);
+        if (!file.isFile()) {
+            throw new IOException(
+                "no file '" + name + "' in the " + DIRECTORY + " folder"
+            );
+        }
+
+        List<Step> steps = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        List<String> lines = Files.readAllLines(
+            file.toPath(),
+            StandardCharsets.UTF_8
+        );
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+");
+            Action action = Action.parse(parts[0]);
+            if (action == null) {
+                errors.add("line " + (i + 1) + ": unknown action " + parts[0]);
+            } else if (parts.length != 2) {
+                errors.add(
+                    "line " +
+                    (i + 1) +
+                    ": expected '" +
+                    action.getName() +
+                    " <world>'"
+                );
+            } else {
+                steps.add(new Step(i + 1, action, parts[1]));
+            }
+        }
+        if (steps.isEmpty() && errors.isEmpty()) {
+            errors.add("the file contains no operations");
+        }
+        return new BatchScript(name, steps, errors);
+    }
+
+    /**
+     * Lists the scripts in the batches folder
+     */
+    static List<String> list(File dataFolder) {
+        String[] names = new File(dataFolder, DIRECTORY).list();
+        if (names == null) {
+            return Collections.emptyList();
+        }
+        List<String> scripts = new ArrayList<>();
+        for (String name : names) {
+            if (new File(new File(dataFolder, DIRECTORY), name).isFile()) {
+                scripts.add(name);
+            }
+        }
+        Collections.sort(scripts);
+        return scripts;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    List<Step> getSteps() {
+        return steps;
+    }
+
+    /**
+     * Gets the problems found while parsing, with their line numbers
+     */
+    List<String> getErrors() {
+        return errors;
+    }
+
+    enum Action {
+        EXEMPT,
+        UNEXEMPT,
+        SETFLAT,
+        UNSETFLAT,
+        DISABLE,
+        ENABLE,
+        NUKE;
+
+        String getName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        /**
+         * Checks if the action changes the config rather than removing
+         * slimes
+         */
+        boolean isConfigChange() {
+            return this != NUKE;
+        }
+
+        private static Action parse(String name) {
+            for (Action action : values()) {
+                if (action.getName().equalsIgnoreCase(name)) {
+                    return action;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * One operation of a script and, once run, its result
+     */
+    static final class Step {
+
+        private final int line;
+        private final Action action;
+        private final String target;
+        private boolean failed;
+        private String result = "not run";
+
+        private Step(int line, Action action, String target) {
+            this.line = line;
+            this.action = action;
+            this.target = target;
+        }
+
+        int getLine() {
+            return line;
+        }
+
+        Action getAction() {
+            return action;
+        }
+
+        String getTarget() {
+            return target;
+        }
+
+        boolean isFailed() {
+            return failed;
+        }
+
+        String getResult() {
+            return result;
+        }
+
+        void setResult(boolean failed, String result) {
+            this.failed = failed;
+            this.result = result;
+        }
+    }
+}
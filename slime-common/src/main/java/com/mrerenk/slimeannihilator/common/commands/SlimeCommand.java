@@ -1,34 +1,92 @@
 package com.mrerenk.slimeannihilator.common.commands;
 
 import com.mrerenk.slimeannihilator.common.SlimeManager;
+import com.mrerenk.slimeannihilator.common.audit.AuditQuery;
+import com.mrerenk.slimeannihilator.common.audit.SpawnAuditLog;
+import com.mrerenk.slimeannihilator.common.chunk.ChunkContextCache;
+import com.mrerenk.slimeannihilator.common.chunk.SlimeChunkHotspots;
+import com.mrerenk.slimeannihilator.common.config.ConfigChange;
+import com.mrerenk.slimeannihilator.common.config.ConfigWatcher;
 import com.mrerenk.slimeannihilator.common.config.SlimeConfig;
+import com.mrerenk.slimeannihilator.common.history.HistorySummary;
+import com.mrerenk.slimeannihilator.common.history.PopulationHistory;
+import com.mrerenk.slimeannihilator.common.metrics.MetricsServer;
+import com.mrerenk.slimeannihilator.common.pending.PendingOperation;
+import com.mrerenk.slimeannihilator.common.pending.PendingOperations;
+import com.mrerenk.slimeannihilator.common.rules.ShadowCounts;
+import com.mrerenk.slimeannihilator.common.rules.SpawnVerdict;
+import com.mrerenk.slimeannihilator.common.sweep.DeepSweeper;
+import com.mrerenk.slimeannihilator.common.sweep.Sweep;
+import com.mrerenk.slimeannihilator.common.trace.SpawnTraceRecorder;
+import com.mrerenk.slimeannihilator.common.world.WorldIndex;
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 import org.bukkit.ChatColor;
+import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
+import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
+import org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason;
 import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
 
 public class SlimeCommand implements CommandExecutor, TabCompleter {
 
+    // Tab completion offers at most this many world names
+    private static final int MAX_WORLD_COMPLETIONS = 50;
+
     private final SlimeManager slimeManager;
     private final SlimeConfig config;
+    private final WorldIndex worldIndex;
+    private final SpawnAuditLog auditLog;
+    private final SpawnTraceRecorder traceRecorder;
+    private final PopulationHistory history;
+    private final MetricsServer metricsServer;
+    private final PendingOperations pendingOperations;
+    private final ConfigWatcher configWatcher;
+    private final DeepSweeper deepSweeper;
     private final Plugin plugin;
-    private final Map<String, Long> confirmationRequests = new HashMap<>();
 
-    public SlimeCommand(SlimeManager slimeManager, Plugin plugin) {
+    public SlimeCommand(
+        SlimeManager slimeManager,
+        SpawnAuditLog auditLog,
+        SpawnTraceRecorder traceRecorder,
+        PopulationHistory history,
+        MetricsServer metricsServer,
+        PendingOperations pendingOperations,
+        ConfigWatcher configWatcher,
+        DeepSweeper deepSweeper,
+        Plugin plugin
+    ) {
         this.slimeManager = slimeManager;
         this.config = slimeManager.getConfig();
+        this.worldIndex = slimeManager.getWorldIndex();
+        this.auditLog = auditLog;
+        this.traceRecorder = traceRecorder;
+        this.history = history;
+        this.metricsServer = metricsServer;
+        this.pendingOperations = pendingOperations;
+        this.configWatcher = configWatcher;
+        this.deepSweeper = deepSweeper;
         this.plugin = plugin;
     }
 
@@ -58,7 +116,7 @@ public class SlimeCommand implements CommandExecutor, TabCompleter {
                 handleInfo(sender, args);
                 break;
             case "confirm":
-                handleConfirm(sender);
+                handleConfirm(sender, args);
                 break;
             case "exempt":
                 handleExempt(sender, args);
@@ -81,6 +139,24 @@ public class SlimeCommand implements CommandExecutor, TabCompleter {
             case "listflat":
                 handleListFlat(sender);
                 break;
+            case "audit":
+                handleAudit(sender, args);
+                break;
+            case "history":
+                handleHistory(sender, args);
+                break;
+            case "trace":
+                handleTrace(sender, args);
+                break;
+            case "shadow":
+                handleShadow(sender, args);
+                break;
+            case "sweep":
+                handleSweep(sender, args);
+                break;
+            case "batch":
+                handleBatch(sender, args);
+                break;
             default:
                 sendHelp(sender);
                 break;
@@ -89,6 +165,15 @@ public class SlimeCommand implements CommandExecutor, TabCompleter {
     }
 
     private void handleNuke(CommandSender sender, String[] args) {
+        if (
+            args.length > 1 &&
+            worldIndex.getWorld(args[1]) == null &&
+            isWorldSelector(args[1])
+        ) {
+            handleBulkNuke(sender, args[1]);
+            return;
+        }
+
         World targetWorld = getTargetWorld(sender, args);
         if (targetWorld == null) return;
 
@@ -116,23 +201,22 @@ public class SlimeCommand implements CommandExecutor, TabCompleter {
 
         final World world = targetWorld;
 
-        // Check if world is flat - if not, require confirmation (if enabled)
+        // Check if world is flat - if not, require confirmation (if enabled).
+        // Repeating the nuke within the timeout confirms it as well.
         if (
             !slimeManager.isFlatWorld(world) &&
             config.isRequireConfirmationForNonFlatWorlds()
         ) {
-            String confirmKey = sender.getName() + ":" + world.getName();
+            UUID senderId = PendingOperations.senderId(sender);
+            NukeOperation operation = new NukeOperation(
+                sender,
+                nukeKey(world.getUID()),
+                null,
+                Collections.singletonList(world)
+            );
 
-            if (
-                !confirmationRequests.containsKey(confirmKey) ||
-                System.currentTimeMillis() -
-                confirmationRequests.get(confirmKey) >
-                config.getConfirmationTimeoutMillis()
-            ) {
-                confirmationRequests.put(
-                    confirmKey,
-                    System.currentTimeMillis()
-                );
+            if (pendingOperations.take(senderId, operation.getKey()) == null) {
+                pendingOperations.add(senderId, operation);
                 sender.sendMessage(
                     ChatColor.YELLOW +
                     "Warning: World '" +
@@ -159,34 +243,46 @@ public class SlimeCommand implements CommandExecutor, TabCompleter {
             }
         }
 
-        int slimeCount = slimeManager.countSlimes(world);
-        if (slimeCount == 0) {
-            sender.sendMessage(
-                ChatColor.GREEN +
-                "No slimes found in world '" +
-                ChatColor.WHITE +
-                world.getName() +
-                ChatColor.GREEN +
-                "'!"
-            );
-            return;
-        }
+        startRemoval(sender, world);
+    }
 
+    /**
+     * Removes all slimes from a world through the budgeted removal path and
+     * reports the result to the sender when it completes. Slimes are counted
+     * as they are removed, so the world is scanned once.
+     */
+    private void startRemoval(CommandSender sender, World world) {
         sender.sendMessage(
             ChatColor.YELLOW +
-            "Removing " +
-            slimeCount +
-            " slimes from world '" +
+            "Removing slimes from world '" +
             ChatColor.WHITE +
             world.getName() +
             ChatColor.YELLOW +
             "'..."
         );
 
+        if (slimeManager.getScheduler().isPaused()) {
+            sender.sendMessage(
+                ChatColor.GRAY +
+                "The server is under heavy load; removal will continue once it recovers."
+            );
+        }
+
         CompletableFuture<Integer> future = slimeManager.removeAllSlimesAsync(
             world
         );
-        future.thenAccept(removedCount ->
+        future.thenAccept(removedCount -> {
+            if (removedCount == 0) {
+                sender.sendMessage(
+                    ChatColor.GREEN +
+                    "No slimes found in world '" +
+                    ChatColor.WHITE +
+                    world.getName() +
+                    ChatColor.GREEN +
+                    "'!"
+                );
+                return;
+            }
             sender.sendMessage(
                 ChatColor.GREEN +
                 "Successfully removed " +
@@ -196,59 +292,600 @@ public class SlimeCommand implements CommandExecutor, TabCompleter {
                 world.getName() +
                 ChatColor.GREEN +
                 "'!"
+            );
+        });
+    }
+
+    private void handleBulkNuke(CommandSender sender, String selector) {
+        List<World> worlds = selectWorlds(selector);
+        if (worlds.isEmpty()) {
+            sender.sendMessage(
+                ChatColor.RED +
+                "No worlds match '" +
+                selector +
+                "' (exempt worlds are skipped)!"
+            );
+            return;
+        }
+
+        List<String> nonFlat = new ArrayList<>();
+        for (World world : worlds) {
+            if (!slimeManager.isFlatWorld(world)) {
+                nonFlat.add(world.getName());
+            }
+        }
+
+        // Same confirmation as a single nuke, once for the whole selection
+        if (
+            !nonFlat.isEmpty() && config.isRequireConfirmationForNonFlatWorlds()
+        ) {
+            UUID senderId = PendingOperations.senderId(sender);
+            NukeOperation operation = new NukeOperation(
+                sender,
+                "nuke:" + selector.toLowerCase(),
+                selector,
+                worlds
+            );
+
+            if (pendingOperations.take(senderId, operation.getKey()) == null) {
+                pendingOperations.add(senderId, operation);
+                sender.sendMessage(
+                    ChatColor.YELLOW +
+                    "Warning: " +
+                    nonFlat.size() +
+                    " of " +
+                    worlds.size() +
+                    " matching worlds are not flat: " +
+                    ChatColor.WHITE +
+                    String.join(", ", nonFlat)
+                );
+                sender.sendMessage(
+                    ChatColor.YELLOW +
+                    "Type " +
+                    ChatColor.GOLD +
+                    "/slimes confirm" +
+                    ChatColor.YELLOW +
+                    " within " +
+                    config.getConfirmationTimeoutSeconds() +
+                    " seconds to proceed."
+                );
+                return;
+            }
+        }
+
+        startBulkRemoval(sender, selector, worlds);
+    }
+
+    /**
+     * Removes all slimes from several worlds. One removal job is queued per
+     * world and the scheduler runs them back to back within its shared tick
+     * budget; the sender hears about each world as it finishes and gets one
+     * report at the end.
+     */
+    private void startBulkRemoval(
+        CommandSender sender,
+        String selector,
+        List<World> worlds
+    ) {
+        sender.sendMessage(
+            ChatColor.YELLOW +
+            "Removing slimes from " +
+            worlds.size() +
+            " worlds matching '" +
+            ChatColor.WHITE +
+            selector +
+            ChatColor.YELLOW +
+            "'..."
+        );
+        if (slimeManager.getScheduler().isPaused()) {
+            sender.sendMessage(
+                ChatColor.GRAY +
+                "The server is under heavy load; removal will continue once it recovers."
+            );
+        }
+
+        long start = System.nanoTime();
+        BulkProgress progress = new BulkProgress(worlds.size());
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[worlds
+            .size()];
+        for (int i = 0; i < worlds.size(); i++) {
+            String worldName = worlds.get(i).getName();
+            futures[i] = slimeManager
+                .removeAllSlimesAsync(worlds.get(i), "bulk")
+                .thenAccept(removedCount -> {
+                    progress.finished++;
+                    progress.removed += removedCount;
+                    if (removedCount == 0) {
+                        return;
+                    }
+                    progress.worldsWithSlimes++;
+                    sender.sendMessage(
+                        ChatColor.GRAY +
+                        "[" +
+                        progress.finished +
+                        "/" +
+                        progress.total +
+                        "] " +
+                        worldName +
+                        ": removed " +
+                        removedCount
+                    );
+                });
+        }
+
+        CompletableFuture.allOf(futures).thenRun(() ->
+            sender.sendMessage(
+                ChatColor.GREEN +
+                "Removed " +
+                progress.removed +
+                " slimes from " +
+                progress.worldsWithSlimes +
+                " of " +
+                progress.total +
+                " worlds in " +
+                String.format(
+                    "%.1f",
+                    (System.nanoTime() - start) / 1_000_000_000.0
+                ) +
+                "s"
             )
         );
     }
 
-    private void handleConfirm(CommandSender sender) {
-        String playerName = sender.getName();
+    /**
+     * Checks if a nuke target names a group of worlds rather than one world
+     */
+    private static boolean isWorldSelector(String target) {
+        return (
+            target.equalsIgnoreCase("all") ||
+            target.equalsIgnoreCase("flat") ||
+            target.indexOf('*') >= 0 ||
+            target.indexOf('?') >= 0
+        );
+    }
+
+    /**
+     * Gets the loaded, non-exempt worlds selected by {@code all},
+     * {@code flat} or a name glob where {@code *} matches any run of
+     * characters and {@code ?} any one character (case-insensitive)
+     */
+    private List<World> selectWorlds(String selector) {
+        Pattern glob = null;
+        // Only names starting with the glob's literal prefix can match
+        String prefix = "";
+        boolean flatOnly = selector.equalsIgnoreCase("flat");
+        if (!flatOnly && !selector.equalsIgnoreCase("all")) {
+            StringBuilder regex = new StringBuilder();
+            for (String part : selector.split("((?<=[*?])|(?=[*?]))")) {
+                if (part.equals("*")) {
+                    regex.append(".*");
+                } else if (part.equals("?")) {
+                    regex.append('.');
+                } else if (!part.isEmpty()) {
+                    regex.append(Pattern.quote(part));
+                }
+            }
+            glob = Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE);
+            prefix = selector.split("[*?]", 2)[0];
+        }
+
+        List<World> worlds = new ArrayList<>();
+        for (World world : worldIndex.getWorlds(prefix)) {
+            if (
+                slimeManager.isWorldExempt(world) ||
+                (flatOnly && !slimeManager.isFlatWorld(world)) ||
+                (glob != null && !glob.matcher(world.getName()).matches())
+            ) {
+                continue;
+            }
+            worlds.add(world);
+        }
+        return worlds;
+    }
+
+    private void handleBatch(CommandSender sender, String[] args) {
+        if (args.length < 2) {
+            List<String> scripts = BatchScript.list(plugin.getDataFolder());
+            sender.sendMessage(ChatColor.RED + "Usage: /slimes batch <file>");
+            sender.sendMessage(
+                ChatColor.GRAY +
+                "Files are read from plugins/" +
+                plugin.getName() +
+                "/" +
+                BatchScript.DIRECTORY +
+                (scripts.isEmpty() ? "." : ": " + String.join(", ", scripts))
+            );
+            return;
+        }
 
-        String matchingKey = confirmationRequests
-            .keySet()
-            .stream()
-            .filter(key -> key.startsWith(playerName + ":"))
-            .findFirst()
-            .orElse(null);
+        BatchScript script;
+        try {
+            script = BatchScript.read(plugin.getDataFolder(), args[1]);
+        } catch (IOException e) {
+            sender.sendMessage(
+                ChatColor.RED + "Could not read batch: " + e.getMessage()
+            );
+            return;
+        }
 
-        if (matchingKey == null) {
+        // Nothing is changed unless every line can run
+        List<String> errors = new ArrayList<>(script.getErrors());
+        for (BatchScript.Step step : script.getSteps()) {
+            if (
+                worldIndex.getWorld(step.getTarget()) == null &&
+                !(step.getAction() == BatchScript.Action.NUKE &&
+                    isWorldSelector(step.getTarget()))
+            ) {
+                errors.add(
+                    "line " +
+                    step.getLine() +
+                    ": world '" +
+                    step.getTarget() +
+                    "' not found"
+                );
+            }
+        }
+        if (!errors.isEmpty()) {
             sender.sendMessage(
-                ChatColor.RED + "No pending confirmation request found!"
+                ChatColor.RED +
+                "Batch '" +
+                script.getName() +
+                "' was not run, nothing was changed:"
             );
+            for (String error : errors) {
+                sender.sendMessage(ChatColor.RED + "  " + error);
+            }
             return;
         }
 
-        long requestTime = confirmationRequests.get(matchingKey);
+        List<String> nonFlat = getNonFlatNukeTargets(script);
         if (
-            System.currentTimeMillis() - requestTime >
-            config.getConfirmationTimeoutMillis()
+            !nonFlat.isEmpty() && config.isRequireConfirmationForNonFlatWorlds()
         ) {
-            confirmationRequests.remove(matchingKey);
-            sender.sendMessage(ChatColor.RED + "Confirmation request expired!");
-            return;
+            UUID senderId = PendingOperations.senderId(sender);
+            BatchOperation operation = new BatchOperation(sender, script);
+
+            if (pendingOperations.take(senderId, operation.getKey()) == null) {
+                pendingOperations.add(senderId, operation);
+                sender.sendMessage(
+                    ChatColor.YELLOW +
+                    "Warning: batch '" +
+                    script.getName() +
+                    "' removes slimes from worlds that are not flat: " +
+                    ChatColor.WHITE +
+                    String.join(", ", nonFlat)
+                );
+                sender.sendMessage(
+                    ChatColor.YELLOW +
+                    "Type " +
+                    ChatColor.GOLD +
+                    "/slimes confirm" +
+                    ChatColor.YELLOW +
+                    " within " +
+                    config.getConfirmationTimeoutSeconds() +
+                    " seconds to proceed."
+                );
+                return;
+            }
+        }
+
+        runBatch(sender, script);
+    }
+
+    /**
+     * Gets the names of the non-exempt worlds a script's nukes reach that
+     * are not flat. The script's own setflat and unsetflat lines count; a
+     * world it unsets is treated as not flat.
+     */
+    private List<String> getNonFlatNukeTargets(BatchScript script) {
+        Map<String, Boolean> listedFlat = new HashMap<>();
+        for (BatchScript.Step step : script.getSteps()) {
+            World world = worldIndex.getWorld(step.getTarget());
+            if (world == null) {
+                continue;
+            }
+            if (step.getAction() == BatchScript.Action.SETFLAT) {
+                listedFlat.put(world.getName(), true);
+            } else if (step.getAction() == BatchScript.Action.UNSETFLAT) {
+                listedFlat.put(world.getName(), false);
+            }
+        }
+
+        Set<String> nonFlat = new LinkedHashSet<>();
+        for (BatchScript.Step step : script.getSteps()) {
+            if (step.getAction() != BatchScript.Action.NUKE) {
+                continue;
+            }
+            for (World world : getNukeTargets(step.getTarget())) {
+                Boolean flat = listedFlat.get(world.getName());
+                if (flat == null ? !slimeManager.isFlatWorld(world) : !flat) {
+                    nonFlat.add(world.getName());
+                }
+            }
+        }
+        return new ArrayList<>(nonFlat);
+    }
+
+    /**
+     * Gets the loaded, non-exempt worlds a nuke target names: one world, or
+     * the worlds matching a selector
+     */
+    private List<World> getNukeTargets(String target) {
+        World world = worldIndex.getWorld(target);
+        if (world == null) {
+            return isWorldSelector(target)
+                ? selectWorlds(target)
+                : Collections.emptyList();
+        }
+        return slimeManager.isWorldExempt(world)
+            ? Collections.emptyList()
+            : Collections.singletonList(world);
+    }
+
+    /**
+     * Runs a batch script. Its config changes are applied together and
+     * written with one save; then its nukes are merged so that each affected
+     * world is scanned once, however many lines reach it. The result of
+     * every line is reported when the last removal finishes.
+     */
+    private void runBatch(CommandSender sender, BatchScript script) {
+        sender.sendMessage(
+            ChatColor.YELLOW +
+            "Running batch '" +
+            ChatColor.WHITE +
+            script.getName() +
+            ChatColor.YELLOW +
+            "' (" +
+            script.getSteps().size() +
+            " operations)..."
+        );
+        long start = System.nanoTime();
+
+        config.applyBatch(() -> {
+            for (BatchScript.Step step : script.getSteps()) {
+                if (step.getAction().isConfigChange()) {
+                    applyBatchStep(step);
+                }
+            }
+        });
+
+        // Targets are resolved after the changes, so exemptions and flat
+        // markings made by the script apply to its nukes
+        Map<World, List<BatchScript.Step>> targets = new LinkedHashMap<>();
+        for (BatchScript.Step step : script.getSteps()) {
+            if (step.getAction() != BatchScript.Action.NUKE) {
+                continue;
+            }
+            List<World> worlds = getNukeTargets(step.getTarget());
+            if (worlds.isEmpty()) {
+                step.setResult(
+                    false,
+                    worldIndex.getWorld(step.getTarget()) != null
+                        ? "skipped, world is exempt"
+                        : "skipped, no worlds match"
+                );
+            }
+            for (World world : worlds) {
+                targets.computeIfAbsent(world, key -> new ArrayList<>()).add(step);
+            }
+        }
+        if (!targets.isEmpty() && slimeManager.getScheduler().isPaused()) {
+            sender.sendMessage(
+                ChatColor.GRAY +
+                "The server is under heavy load; removal will continue once it recovers."
+            );
+        }
+
+        // Slimes removed and worlds scanned per nuke line
+        Map<BatchScript.Step, int[]> totals = new HashMap<>();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[targets
+            .size()];
+        int index = 0;
+        for (World world : targets.keySet()) {
+            List<BatchScript.Step> steps = targets.get(world);
+            futures[index++] = slimeManager
+                .removeAllSlimesAsync(world, "batch")
+                .thenAccept(removedCount -> {
+                    for (BatchScript.Step step : steps) {
+                        int[] total = totals.computeIfAbsent(
+                            step,
+                            key -> new int[2]
+                        );
+                        total[0] += removedCount;
+                        total[1]++;
+                    }
+                });
         }
 
-        String worldName = matchingKey.split(":")[1];
-        World world = plugin.getServer().getWorld(worldName);
+        CompletableFuture.allOf(futures).thenRun(() -> {
+            for (Map.Entry<BatchScript.Step, int[]> entry : totals.entrySet()) {
+                int[] total = entry.getValue();
+                entry
+                    .getKey()
+                    .setResult(
+                        false,
+                        "removed " +
+                        total[0] +
+                        " slimes" +
+                        (total[1] > 1 ? " from " + total[1] + " worlds" : "")
+                    );
+            }
+            reportBatch(sender, script, targets.size(), start);
+        });
+    }
 
+    private void applyBatchStep(BatchScript.Step step) {
+        World world = worldIndex.getWorld(step.getTarget());
         if (world == null) {
-            sender.sendMessage(ChatColor.RED + "World no longer exists!");
-            confirmationRequests.remove(matchingKey);
+            step.setResult(true, "world not found");
+            return;
+        }
+        switch (step.getAction()) {
+            case EXEMPT:
+                applyBatchChange(
+                    step,
+                    slimeManager.isWorldExempt(world),
+                    () -> slimeManager.addExemptWorld(world),
+                    "already exempt",
+                    "now exempt"
+                );
+                break;
+            case UNEXEMPT:
+                applyBatchChange(
+                    step,
+                    !slimeManager.isWorldExempt(world),
+                    () -> slimeManager.removeExemptWorld(world),
+                    "not exempt",
+                    "no longer exempt"
+                );
+                break;
+            case SETFLAT:
+                applyBatchChange(
+                    step,
+                    config.isFlatWorld(world.getName()),
+                    () -> config.addFlatWorld(world.getName()),
+                    "already marked as flat",
+                    "now marked as flat"
+                );
+                break;
+            case UNSETFLAT:
+                applyBatchChange(
+                    step,
+                    !config.isFlatWorld(world.getName()),
+                    () -> config.removeFlatWorld(world.getName()),
+                    "not marked as flat",
+                    "no longer marked as flat"
+                );
+                break;
+            case DISABLE:
+                applyBatchChange(
+                    step,
+                    slimeManager.isSlimeSpawningDisabled(world),
+                    () -> slimeManager.disableSlimeSpawning(world),
+                    "spawning already disabled",
+                    "spawning disabled"
+                );
+                break;
+            case ENABLE:
+                applyBatchChange(
+                    step,
+                    !slimeManager.isSlimeSpawningDisabled(world),
+                    () -> slimeManager.enableSlimeSpawning(world),
+                    "spawning already enabled",
+                    "spawning enabled"
+                );
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void applyBatchChange(
+        BatchScript.Step step,
+        boolean alreadyDone,
+        Runnable change,
+        String unchanged,
+        String changed
+    ) {
+        if (alreadyDone) {
+            step.setResult(false, unchanged);
             return;
         }
+        change.run();
+        config.saveConfig();
+        step.setResult(false, changed);
+    }
+
+    private void reportBatch(
+        CommandSender sender,
+        BatchScript script,
+        int worldsScanned,
+        long start
+    ) {
+        int failed = 0;
+        for (BatchScript.Step step : script.getSteps()) {
+            if (step.isFailed()) {
+                failed++;
+            }
+        }
+        sender.sendMessage(
+            (failed == 0 ? ChatColor.GREEN : ChatColor.YELLOW) +
+            "Batch '" +
+            script.getName() +
+            "' finished in " +
+            String.format(
+                "%.1f",
+                (System.nanoTime() - start) / 1_000_000_000.0
+            ) +
+            "s, " +
+            worldsScanned +
+            " worlds scanned" +
+            (failed == 0 ? "" : ", " + failed + " failed") +
+            ":"
+        );
+        for (BatchScript.Step step : script.getSteps()) {
+            sender.sendMessage(
+                ChatColor.GRAY +
+                "line " +
+                step.getLine() +
+                " " +
+                step.getAction().getName() +
+                " " +
+                step.getTarget() +
+                ": " +
+                (step.isFailed() ? ChatColor.RED : ChatColor.WHITE) +
+                step.getResult()
+            );
+        }
+    }
+
+    private static String nukeKey(UUID worldId) {
+        return "nuke:" + worldId;
+    }
+
+    private void handleConfirm(CommandSender sender, String[] args) {
+        UUID senderId = PendingOperations.senderId(sender);
+
+        PendingOperation operation;
+        if (args.length > 1) {
+            World world = worldIndex.getWorld(args[1]);
+            operation = world == null
+                ? null
+                : pendingOperations.take(
+                    senderId,
+                    nukeKey(world.getUID())
+                );
+        } else {
+            operation = pendingOperations.takeLatest(senderId);
+        }
 
-        confirmationRequests.remove(matchingKey);
+        if (operation == null) {
+            sender.sendMessage(
+                ChatColor.RED + "No pending confirmation request found!"
+            );
+            return;
+        }
 
-        int removedCount = slimeManager.removeAllSlimes(world);
         sender.sendMessage(
-            ChatColor.GREEN +
-            "Confirmed! Removed " +
-            removedCount +
-            " slimes from world '" +
-            ChatColor.WHITE +
-            world.getName() +
-            ChatColor.GREEN +
-            "'!"
+            ChatColor.GREEN + "Confirmed: " + operation.describe()
+        );
+        operation.execute();
+
+        List<PendingOperation> remaining = pendingOperations.getPending(
+            senderId
         );
+        if (!remaining.isEmpty()) {
+            sender.sendMessage(
+                ChatColor.YELLOW +
+                "Still pending: " +
+                remaining.size() +
+                " more (" +
+                ChatColor.GOLD +
+                "/slimes confirm" +
+                ChatColor.YELLOW +
+                " to confirm the latest)"
+            );
+        }
     }
 
     private void handleDisableSpawning(CommandSender sender, String[] args) {
@@ -309,7 +946,18 @@ public class SlimeCommand implements CommandExecutor, TabCompleter {
         World world = getTargetWorld(sender, args);
         if (world == null) return;
 
-        SlimeManager.SlimeInfo info = slimeManager.getSlimeInfo(world);
+        // Predict hotspots and evaluate rules at the player's position when
+        // they are in the world
+        Location location = null;
+        if (
+            sender instanceof Player &&
+            ((Player) sender).getWorld().equals(world)
+        ) {
+            location = ((Player) sender).getLocation();
+        }
+        SlimeManager.SlimeInfo info = location != null
+            ? slimeManager.getSlimeInfo(world, location)
+            : slimeManager.getSlimeInfo(world);
 
         sender.sendMessage(
             ChatColor.GOLD +
@@ -336,70 +984,132 @@ public class SlimeCommand implements CommandExecutor, TabCompleter {
             "Exempt: " +
             (info.isExempt() ? ChatColor.GREEN + "YES" : ChatColor.RED + "NO")
         );
+        sendHotspots(sender, info.getHotspots());
 
         // Only show spawning configuration if the world is NOT exempt
         if (!info.isExempt()) {
-            // Check if each spawn method would actually be prevented in this world
-            boolean eggPrevented = slimeManager.shouldPreventSpawning(
-                world,
-                org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason.SPAWNER_EGG
-            );
-            boolean commandPrevented = slimeManager.shouldPreventSpawning(
-                world,
-                org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason.COMMAND
-            );
-            boolean customPrevented = slimeManager.shouldPreventSpawning(
-                world,
-                org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason.CUSTOM
-            );
-
-            sender.sendMessage(
-                ChatColor.YELLOW +
-                "Natural Spawning: " +
-                (info.isSpawningDisabled()
-                        ? ChatColor.RED + "DISABLED"
-                        : ChatColor.GREEN + "ENABLED")
-            );
-            sender.sendMessage(
-                ChatColor.YELLOW +
-                "Egg Spawning: " +
-                (eggPrevented
-                        ? ChatColor.RED + "DISABLED"
-                        : ChatColor.GREEN + "ENABLED")
-            );
+            // Check which rule decides each spawn method in this world
+            List<EntityType> managedTypes = slimeManager.getManagedTypes();
+            for (EntityType type : managedTypes) {
+                if (managedTypes.size() > 1) {
+                    sender.sendMessage(ChatColor.GOLD + "-- " + type + " --");
+                }
+                sendSpawnVerdicts(sender, world, type, location);
+            }
+        } else {
             sender.sendMessage(
-                ChatColor.YELLOW +
-                "Command Spawning: " +
-                (commandPrevented
-                        ? ChatColor.RED + "DISABLED"
-                        : ChatColor.GREEN + "ENABLED")
+                ChatColor.GREEN +
+                "This world is exempt from all slime management."
             );
             sender.sendMessage(
-                ChatColor.YELLOW +
-                "Custom Spawning: " +
-                (customPrevented
-                        ? ChatColor.RED + "DISABLED"
-                        : ChatColor.GREEN + "ENABLED")
+                ChatColor.GREEN +
+                "All slime spawning methods are allowed normally."
             );
+        }
+    }
 
-            if (
-                info.isFlat() &&
-                config.isPreventSpawningInFlatWorlds() &&
-                !info.isExempt()
-            ) {
-                sender.sendMessage(
-                    ChatColor.GRAY +
-                    "Note: Natural spawning blocked due to flat world restrictions"
-                );
-            }
-        } else {
-            sender.sendMessage(
-                ChatColor.GREEN +
-                "This world is exempt from all slime management."
-            );
+    private void sendSpawnVerdicts(
+        CommandSender sender,
+        World world,
+        EntityType type,
+        Location location
+    ) {
+        sendSpawnVerdict(
+            sender,
+            "Natural Spawning",
+            slimeManager.explainSpawn(
+                world,
+                type,
+                SpawnReason.NATURAL,
+                location
+            )
+        );
+        sendSpawnVerdict(
+            sender,
+            "Egg Spawning",
+            slimeManager.explainSpawn(
+                world,
+                type,
+                SpawnReason.SPAWNER_EGG,
+                location
+            )
+        );
+        sendSpawnVerdict(
+            sender,
+            "Command Spawning",
+            slimeManager.explainSpawn(
+                world,
+                type,
+                SpawnReason.COMMAND,
+                location
+            )
+        );
+        sendSpawnVerdict(
+            sender,
+            "Custom Spawning",
+            slimeManager.explainSpawn(world, type, SpawnReason.CUSTOM, location)
+        );
+    }
+
+    private void sendSpawnVerdict(
+        CommandSender sender,
+        String label,
+        SpawnVerdict verdict
+    ) {
+        sender.sendMessage(
+            ChatColor.YELLOW +
+            label +
+            ": " +
+            (verdict.isPrevent()
+                    ? ChatColor.RED + "DISABLED"
+                    : ChatColor.GREEN + "ENABLED") +
+            ChatColor.GRAY +
+            " (rule: " +
+            verdict.getRuleId() +
+            " - " +
+            verdict.getExplanation() +
+            ")"
+        );
+    }
+
+    private void sendHotspots(
+        CommandSender sender,
+        SlimeChunkHotspots hotspots
+    ) {
+        if (hotspots == null) {
+            return;
+        }
+
+        sender.sendMessage(
+            ChatColor.YELLOW +
+            "Slime Chunks Nearby: " +
+            ChatColor.WHITE +
+            hotspots.getSlimeChunkCount() +
+            "/" +
+            hotspots.getAreaChunkCount() +
+            ChatColor.GRAY +
+            " (within " +
+            hotspots.getRadius() +
+            " chunks of " +
+            hotspots.getCenterX() +
+            ", " +
+            hotspots.getCenterZ() +
+            ")"
+        );
+        if (hotspots.hasSlimeChunks()) {
             sender.sendMessage(
-                ChatColor.GREEN +
-                "All slime spawning methods are allowed normally."
+                ChatColor.YELLOW +
+                "Nearest Slime Chunk: " +
+                ChatColor.WHITE +
+                hotspots.getNearestX() +
+                ", " +
+                hotspots.getNearestZ() +
+                ChatColor.GRAY +
+                " (blocks " +
+                (hotspots.getNearestX() << 4) +
+                ", " +
+                (hotspots.getNearestZ() << 4) +
+                ")"
             );
         }
     }
@@ -459,8 +1169,18 @@ public class SlimeCommand implements CommandExecutor, TabCompleter {
     }
 
     private void handleReload(CommandSender sender) {
-        config.loadConfig();
-        sender.sendMessage(ChatColor.GREEN + "Configuration reloaded!");
+        ConfigChange change = config.loadConfig();
+        auditLog.applyConfig();
+        metricsServer.applyConfig();
+        configWatcher.applyConfig();
+        sender.sendMessage(
+            ChatColor.GREEN +
+            "Configuration reloaded! " +
+            ChatColor.GRAY +
+            "(" +
+            change +
+            ")"
+        );
     }
 
     private void handleConfig(CommandSender sender, String[] args) {
@@ -475,6 +1195,12 @@ public class SlimeCommand implements CommandExecutor, TabCompleter {
                 ChatColor.WHITE +
                 config.isAutoRemoveOnStartup()
             );
+            sender.sendMessage(
+                ChatColor.YELLOW +
+                "Auto remove on load: " +
+                ChatColor.WHITE +
+                config.isAutoRemoveOnLoad()
+            );
             sender.sendMessage(
                 ChatColor.YELLOW +
                 "Prevent spawning in flat worlds: " +
@@ -505,6 +1231,35 @@ public class SlimeCommand implements CommandExecutor, TabCompleter {
                 ChatColor.WHITE +
                 config.isPreventCustomSpawning()
             );
+            sender.sendMessage(
+                ChatColor.YELLOW +
+                "Managed entity types: " +
+                ChatColor.WHITE +
+                slimeManager.getManagedTypes()
+            );
+            sender.sendMessage(
+                ChatColor.YELLOW +
+                "Spawn rules: " +
+                ChatColor.WHITE +
+                config.getSpawnRules().size()
+            );
+            sender.sendMessage(
+                ChatColor.YELLOW +
+                "Server load: " +
+                ChatColor.WHITE +
+                String.format(
+                    "%.1f",
+                    slimeManager.getScheduler().getAverageMspt()
+                ) +
+                " MSPT" +
+                ChatColor.GRAY +
+                (slimeManager.getScheduler().hasPaperTimings()
+                        ? " (Paper timings)"
+                        : " (estimated)") +
+                (slimeManager.getScheduler().isPaused()
+                        ? ChatColor.RED + " - cleanup paused"
+                        : "")
+            );
             sender.sendMessage(
                 ChatColor.YELLOW +
                 "Debug messages: " +
@@ -618,9 +1373,710 @@ public class SlimeCommand implements CommandExecutor, TabCompleter {
         }
     }
 
+    private void handleAudit(CommandSender sender, String[] args) {
+        if (!auditLog.getRingFile().exists()) {
+            sender.sendMessage(
+                ChatColor.YELLOW +
+                "No audit log found. Set audit.enabled to true in config.yml to start recording."
+            );
+            return;
+        }
+
+        String worldName;
+        if (args.length > 1) {
+            worldName = args[1];
+        } else if (sender instanceof Player) {
+            worldName = ((Player) sender).getWorld().getName();
+        } else {
+            sender.sendMessage(
+                ChatColor.RED +
+                "You must specify a world when running from console!"
+            );
+            return;
+        }
+
+        // Optional filters: a chunk as "x,z" and a time window such as "30m"
+        Long chunkKey = null;
+        long since = 0;
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].contains(",")) {
+                String[] parts = args[i].split(",", 2);
+                try {
+                    chunkKey = ChunkContextCache.chunkKey(
+                        Integer.parseInt(parts[0].trim()),
+                        Integer.parseInt(parts[1].trim())
+                    );
+                } catch (NumberFormatException e) {
+                    sender.sendMessage(
+                        ChatColor.RED + "Invalid chunk '" + args[i] + "'!"
+                    );
+                    return;
+                }
+            } else {
+                long window = parseDuration(args[i]);
+                if (window <= 0) {
+                    sender.sendMessage(
+                        ChatColor.RED +
+                        "Invalid time window '" +
+                        args[i] +
+                        "' (use e.g. 30s, 10m, 2h or 1d)"
+                    );
+                    return;
+                }
+                since = System.currentTimeMillis() - window;
+            }
+        }
+
+        sender.sendMessage(
+            ChatColor.YELLOW + "Searching the spawn audit log..."
+        );
+        final AuditQuery query = new AuditQuery(
+            auditLog,
+            worldName,
+            chunkKey,
+            since
+        );
+        plugin
+            .getServer()
+            .getScheduler()
+            .runTaskAsynchronously(plugin, () -> {
+                AuditQuery.Result result;
+                try {
+                    result = query.run();
+                } catch (IOException e) {
+                    plugin
+                        .getServer()
+                        .getScheduler()
+                        .runTask(plugin, () ->
+                            sender.sendMessage(
+                                ChatColor.RED +
+                                "Could not read the audit log: " +
+                                e.getMessage()
+                            )
+                        );
+                    return;
+                }
+                plugin
+                    .getServer()
+                    .getScheduler()
+                    .runTask(plugin, () ->
+                        sendAuditResult(sender, worldName, result)
+                    );
+            });
+    }
+
+    private void sendAuditResult(
+        CommandSender sender,
+        String worldName,
+        AuditQuery.Result result
+    ) {
+        sender.sendMessage(
+            ChatColor.GOLD + "=== Spawn Audit: " + worldName + " ==="
+        );
+        sender.sendMessage(
+            ChatColor.YELLOW +
+            "Matching decisions: " +
+            ChatColor.WHITE +
+            result.getMatched() +
+            ChatColor.GRAY +
+            " (" +
+            result.getDenied() +
+            " denied, " +
+            result.getScanned() +
+            " records scanned)"
+        );
+        if (result.getMatched() == 0) {
+            return;
+        }
+
+        sender.sendMessage(ChatColor.YELLOW + "By rule:");
+        for (Map.Entry<String, Integer> entry : result
+            .getByRule()
+            .entrySet()) {
+            sender.sendMessage(
+                ChatColor.WHITE +
+                "  " +
+                entry.getKey() +
+                ": " +
+                ChatColor.GRAY +
+                entry.getValue()
+            );
+        }
+
+        sender.sendMessage(ChatColor.YELLOW + "Most recent:");
+        SimpleDateFormat format = new SimpleDateFormat("MM-dd HH:mm:ss");
+        for (AuditQuery.Entry entry : result.getRecent()) {
+            sender.sendMessage(
+                ChatColor.GRAY +
+                "  " +
+                format.format(new Date(entry.getTimestamp())) +
+                " " +
+                (entry.isDenied()
+                        ? ChatColor.RED + "DENY "
+                        : ChatColor.GREEN + "ALLOW ") +
+                ChatColor.WHITE +
+                entry.getType() +
+                " " +
+                entry.getReason() +
+                ChatColor.GRAY +
+                " chunk " +
+                entry.getChunkX() +
+                "," +
+                entry.getChunkZ() +
+                " y=" +
+                entry.getBlockY() +
+                " (" +
+                entry.getRuleId() +
+                ")"
+            );
+        }
+    }
+
+    private void handleTrace(CommandSender sender, String[] args) {
+        String action = args.length > 1 ? args[1].toLowerCase() : "status";
+        switch (action) {
+            case "start":
+                if (traceRecorder.isRecording()) {
+                    sender.sendMessage(
+                        ChatColor.RED +
+                        "A capture is already running. Use /slimes trace stop first."
+                    );
+                    return;
+                }
+                int seconds = 60;
+                if (args.length > 2) {
+                    try {
+                        seconds = Integer.parseInt(args[2]);
+                    } catch (NumberFormatException e) {
+                        seconds = 0;
+                    }
+                    if (seconds <= 0) {
+                        sender.sendMessage(
+                            ChatColor.RED + "Invalid duration: " + args[2]
+                        );
+                        return;
+                    }
+                }
+                try {
+                    File file = traceRecorder.start(seconds);
+                    sender.sendMessage(
+                        ChatColor.GREEN +
+                        "Capturing slime spawns to " +
+                        ChatColor.YELLOW +
+                        file.getName() +
+                        ChatColor.GREEN +
+                        " for " +
+                        seconds +
+                        " seconds."
+                    );
+                } catch (IOException e) {
+                    sender.sendMessage(
+                        ChatColor.RED +
+                        "Could not start capture: " +
+                        e.getMessage()
+                    );
+                }
+                break;
+            case "stop":
+                File file = traceRecorder.getFile();
+                int records = traceRecorder.stop();
+                if (records < 0) {
+                    sender.sendMessage(
+                        ChatColor.YELLOW + "No capture is running."
+                    );
+                    return;
+                }
+                sender.sendMessage(
+                    ChatColor.GREEN +
+                    "Captured " +
+                    records +
+                    " spawns to " +
+                    ChatColor.YELLOW +
+                    file.getName()
+                );
+                break;
+            default:
+                if (!traceRecorder.isRecording()) {
+                    sender.sendMessage(
+                        ChatColor.YELLOW +
+                        "No capture is running. Use /slimes trace start [seconds]."
+                    );
+                    return;
+                }
+                sender.sendMessage(
+                    ChatColor.GREEN +
+                    "Capturing to " +
+                    ChatColor.YELLOW +
+                    traceRecorder.getFile().getName() +
+                    ChatColor.GREEN +
+                    ": " +
+                    traceRecorder.getRecords() +
+                    " spawns in " +
+                    traceRecorder.getTick() +
+                    " ticks"
+                );
+                break;
+        }
+    }
+
+    private void handleSweep(CommandSender sender, String[] args) {
+        String action = args.length > 1 ? args[1].toLowerCase() : "status";
+        String[] worldArgs = args.length > 2
+            ? new String[] { args[0], args[2] }
+            : new String[] { args[0] };
+        switch (action) {
+            case "start":
+                handleSweepStart(sender, worldArgs);
+                break;
+            case "stop":
+                World world = getTargetWorld(sender, worldArgs);
+                if (world == null) return;
+                if (deepSweeper.cancel(world)) {
+                    sender.sendMessage(
+                        ChatColor.GREEN +
+                        "Deep sweep of '" +
+                        world.getName() +
+                        "' stopped."
+                    );
+                } else {
+                    sender.sendMessage(
+                        ChatColor.YELLOW +
+                        "World '" +
+                        world.getName() +
+                        "' is not being swept."
+                    );
+                }
+                break;
+            default:
+                sendSweepStatus(sender);
+                break;
+        }
+    }
+
+    private void handleSweepStart(CommandSender sender, String[] args) {
+        if (!deepSweeper.isSupported()) {
+            sender.sendMessage(
+                ChatColor.RED +
+                "Deep sweeps need Paper's asynchronous chunk loading."
+            );
+            return;
+        }
+        World world = getTargetWorld(sender, args);
+        if (world == null) return;
+
+        if (slimeManager.isWorldExempt(world)) {
+            sender.sendMessage(
+                ChatColor.YELLOW +
+                "World '" +
+                ChatColor.WHITE +
+                world.getName() +
+                ChatColor.YELLOW +
+                "' is exempt from slime management!"
+            );
+            return;
+        }
+        if (deepSweeper.getSweep(world) != null) {
+            sender.sendMessage(
+                ChatColor.YELLOW +
+                "World '" +
+                world.getName() +
+                "' is already being swept. See /slimes sweep status."
+            );
+            return;
+        }
+
+        // Same confirmation as a nuke
+        if (
+            !slimeManager.isFlatWorld(world) &&
+            config.isRequireConfirmationForNonFlatWorlds()
+        ) {
+            UUID senderId = PendingOperations.senderId(sender);
+            SweepOperation operation = new SweepOperation(sender, world);
+            if (pendingOperations.take(senderId, operation.getKey()) == null) {
+                pendingOperations.add(senderId, operation);
+                sender.sendMessage(
+                    ChatColor.YELLOW +
+                    "Warning: World '" +
+                    ChatColor.WHITE +
+                    world.getName() +
+                    ChatColor.YELLOW +
+                    "' is not a flat world!"
+                );
+                sender.sendMessage(
+                    ChatColor.YELLOW +
+                    "A deep sweep removes slimes from every generated chunk."
+                );
+                sender.sendMessage(
+                    ChatColor.YELLOW +
+                    "Type " +
+                    ChatColor.GOLD +
+                    "/slimes confirm" +
+                    ChatColor.YELLOW +
+                    " within " +
+                    config.getConfirmationTimeoutSeconds() +
+                    " seconds to proceed."
+                );
+                return;
+            }
+        }
+
+        startSweep(sender, world);
+    }
+
+    private void startSweep(CommandSender sender, World world) {
+        try {
+            Sweep sweep = deepSweeper.start(world, sender);
+            sender.sendMessage(
+                ChatColor.GREEN +
+                "Deep sweep of '" +
+                ChatColor.WHITE +
+                world.getName() +
+                ChatColor.GREEN +
+                "' started over " +
+                sweep.getRegionCount() +
+                " regions. Progress is saved and resumes after a restart."
+            );
+        } catch (IOException | IllegalStateException e) {
+            sender.sendMessage(
+                ChatColor.RED + "Could not start sweep: " + e.getMessage()
+            );
+        }
+    }
+
+    private void sendSweepStatus(CommandSender sender) {
+        if (!deepSweeper.isSupported()) {
+            sender.sendMessage(
+                ChatColor.RED +
+                "Deep sweeps need Paper's asynchronous chunk loading."
+            );
+            return;
+        }
+        if (deepSweeper.getSweeps().isEmpty()) {
+            sender.sendMessage(
+                ChatColor.YELLOW +
+                "No deep sweep is running. Use /slimes sweep start [world]."
+            );
+            return;
+        }
+        sender.sendMessage(ChatColor.GOLD + "=== Deep Sweeps ===");
+        for (Sweep sweep : deepSweeper.getSweeps()) {
+            sender.sendMessage(
+                ChatColor.YELLOW +
+                sweep.getWorld().getName() +
+                ": " +
+                ChatColor.WHITE +
+                String.format("%.1f", sweep.getProgress() * 100) +
+                "% of " +
+                sweep.getRegionCount() +
+                " regions" +
+                ChatColor.GRAY +
+                " (" +
+                sweep.getSwept() +
+                " chunks swept, " +
+                sweep.getMissing() +
+                " never generated, " +
+                sweep.getRemoved() +
+                " slimes removed, " +
+                sweep.getInFlight() +
+                " loading)"
+            );
+        }
+        if (slimeManager.getScheduler().isPaused()) {
+            sender.sendMessage(
+                ChatColor.GRAY +
+                "The server is under heavy load; sweeps continue once it recovers."
+            );
+        }
+    }
+
+    private void handleShadow(CommandSender sender, String[] args) {
+        if (args.length > 1 && args[1].equalsIgnoreCase("reset")) {
+            for (World world : plugin.getServer().getWorlds()) {
+                slimeManager.getShadowCounts(world).clear();
+            }
+            sender.sendMessage(
+                ChatColor.GREEN + "Shadow policy counters reset."
+            );
+            return;
+        }
+
+        List<World> worlds;
+        if (args.length > 1) {
+            World world = worldIndex.getWorld(args[1]);
+            if (world == null) {
+                sender.sendMessage(
+                    ChatColor.RED + "World '" + args[1] + "' not found!"
+                );
+                return;
+            }
+            worlds = Collections.singletonList(world);
+        } else {
+            worlds = plugin.getServer().getWorlds();
+        }
+
+        String status = config.isShadowEnabled()
+            ? ChatColor.GREEN + "evaluating"
+            : ChatColor.RED + "off";
+        sender.sendMessage(ChatColor.GOLD + "=== Shadow Policy ===");
+        sender.sendMessage(
+            ChatColor.YELLOW +
+            "Status: " +
+            status +
+            ChatColor.GRAY +
+            " (" +
+            config.getShadowRules().size() +
+            " candidate rules, sampling " +
+            Math.round(config.getShadowSampleRate() * 100) +
+            "% of spawns)"
+        );
+
+        boolean any = false;
+        for (World world : worlds) {
+            ShadowCounts counts = slimeManager.getShadowCounts(world);
+            long evaluated = 0;
+            for (SpawnReason reason : SpawnReason.values()) {
+                evaluated += counts.getEvaluated(reason);
+            }
+            if (evaluated == 0) {
+                continue;
+            }
+            any = true;
+            long agreed =
+                counts.getTotal(ShadowCounts.AGREE_ALLOW) +
+                counts.getTotal(ShadowCounts.AGREE_DENY);
+            sender.sendMessage(
+                ChatColor.YELLOW +
+                world.getName() +
+                ": " +
+                ChatColor.WHITE +
+                evaluated +
+                " evaluated, " +
+                String.format("%.1f", agreed * 100.0 / evaluated) +
+                "% agree"
+            );
+            for (SpawnReason reason : SpawnReason.values()) {
+                long denies = counts.get(
+                    reason,
+                    ShadowCounts.CANDIDATE_DENIES
+                );
+                long allows = counts.get(
+                    reason,
+                    ShadowCounts.CANDIDATE_ALLOWS
+                );
+                if (denies == 0 && allows == 0) {
+                    continue;
+                }
+                sender.sendMessage(
+                    ChatColor.GRAY +
+                    "  " +
+                    reason +
+                    ": " +
+                    counts.getEvaluated(reason) +
+                    " evaluated, " +
+                    ChatColor.RED +
+                    denies +
+                    " would be blocked" +
+                    ChatColor.GRAY +
+                    ", " +
+                    ChatColor.GREEN +
+                    allows +
+                    " would be allowed"
+                );
+            }
+        }
+        if (!any) {
+            sender.sendMessage(
+                ChatColor.GRAY +
+                "No spawns evaluated yet. Set shadow.enabled to true and add candidate rules under shadow.rules."
+            );
+        }
+    }
+
+    private void handleHistory(CommandSender sender, String[] args) {
+        String worldName;
+        if (args.length > 1) {
+            worldName = resolveHistoryWorld(args[1]);
+            if (worldName == null) {
+                sender.sendMessage(
+                    ChatColor.RED +
+                    "No world or recorded history named '" +
+                    args[1] +
+                    "'"
+                );
+                return;
+            }
+        } else if (sender instanceof Player) {
+            worldName = ((Player) sender).getWorld().getName();
+        } else {
+            sender.sendMessage(
+                ChatColor.RED +
+                "You must specify a world when running from console!"
+            );
+            return;
+        }
+
+        String range = args.length > 2 ? args[2] : "24h";
+        long rangeMillis = parseDuration(range);
+        if (rangeMillis <= 0) {
+            sender.sendMessage(
+                ChatColor.RED +
+                "Invalid range '" +
+                range +
+                "' (use e.g. 30m, 6h, 1d or 30d)"
+            );
+            return;
+        }
+
+        final long to = System.currentTimeMillis() / 1000 + 1;
+        final long from = to - rangeMillis / 1000;
+        plugin
+            .getServer()
+            .getScheduler()
+            .runTaskAsynchronously(plugin, () -> {
+                HistorySummary summary;
+                try {
+                    summary = history.query(worldName, from, to, 40);
+                } catch (IOException e) {
+                    plugin
+                        .getServer()
+                        .getScheduler()
+                        .runTask(plugin, () ->
+                            sender.sendMessage(
+                                ChatColor.RED +
+                                "Could not read slime history: " +
+                                e.getMessage()
+                            )
+                        );
+                    return;
+                }
+                plugin
+                    .getServer()
+                    .getScheduler()
+                    .runTask(plugin, () ->
+                        sendHistory(sender, worldName, range, summary)
+                    );
+            });
+    }
+
+    /**
+     * Resolves a world name for /slimes history: a loaded world, or else a
+     * world with recorded history, so only names the plugin recorded under
+     * are ever queried
+     */
+    private String resolveHistoryWorld(String name) {
+        World world = worldIndex.getWorld(name);
+        if (world != null) {
+            return world.getName();
+        }
+        for (String recorded : history.getRecordedWorlds()) {
+            if (recorded.equalsIgnoreCase(name)) {
+                return recorded;
+            }
+        }
+        return null;
+    }
+
+    private void sendHistory(
+        CommandSender sender,
+        String worldName,
+        String range,
+        HistorySummary summary
+    ) {
+        sender.sendMessage(
+            ChatColor.GOLD +
+            "=== Slime History: " +
+            worldName +
+            " (last " +
+            range +
+            ") ==="
+        );
+        if (summary.getSamples() == 0) {
+            sender.sendMessage(
+                ChatColor.YELLOW +
+                "No samples recorded for this world in that range."
+            );
+            if (!config.isHistoryEnabled()) {
+                sender.sendMessage(
+                    ChatColor.GRAY +
+                    "History recording is disabled (history.enabled in config.yml)."
+                );
+            }
+            return;
+        }
+
+        sender.sendMessage(ChatColor.GREEN + summary.toSparkline(' '));
+        int change = summary.getLast() - summary.getFirst();
+        sender.sendMessage(
+            ChatColor.YELLOW +
+            "Latest: " +
+            ChatColor.WHITE +
+            summary.getLast() +
+            ChatColor.YELLOW +
+            "  Min: " +
+            ChatColor.WHITE +
+            summary.getMin() +
+            ChatColor.YELLOW +
+            "  Avg: " +
+            ChatColor.WHITE +
+            String.format("%.1f", summary.getAverage()) +
+            ChatColor.YELLOW +
+            "  Max: " +
+            ChatColor.WHITE +
+            summary.getMax()
+        );
+        sender.sendMessage(
+            ChatColor.YELLOW +
+            "Trend: " +
+            (change > 0
+                    ? ChatColor.RED + "+" + change
+                    : change < 0
+                        ? ChatColor.GREEN + String.valueOf(change)
+                        : ChatColor.WHITE + "no change") +
+            ChatColor.GRAY +
+            " over " +
+            summary.getSamples() +
+            " samples"
+        );
+    }
+
+    /**
+     * Parses a duration like "30s", "10m", "2h" or "1d" into milliseconds.
+     * Returns -1 if the input is not a valid duration.
+     */
+    private long parseDuration(String input) {
+        if (input.length() < 2) {
+            return -1;
+        }
+        TimeUnit unit;
+        switch (Character.toLowerCase(input.charAt(input.length() - 1))) {
+            case 's':
+                unit = TimeUnit.SECONDS;
+                break;
+            case 'm':
+                unit = TimeUnit.MINUTES;
+                break;
+            case 'h':
+                unit = TimeUnit.HOURS;
+                break;
+            case 'd':
+                unit = TimeUnit.DAYS;
+                break;
+            default:
+                return -1;
+        }
+        try {
+            long amount = Long.parseLong(
+                input.substring(0, input.length() - 1)
+            );
+            return amount > 0 ? unit.toMillis(amount) : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
     private World getTargetWorld(CommandSender sender, String[] args) {
         if (args.length > 1) {
-            World world = plugin.getServer().getWorld(args[1]);
+            World world = worldIndex.getWorld(args[1]);
             if (world == null) {
                 sender.sendMessage(
                     ChatColor.RED + "World '" + args[1] + "' not found!"
@@ -645,9 +2101,9 @@ public class SlimeCommand implements CommandExecutor, TabCompleter {
         );
         sender.sendMessage(
             ChatColor.YELLOW +
-            "/slimes nuke [world] " +
+            "/slimes nuke [world|all|flat|<glob>] " +
             ChatColor.WHITE +
-            "- Remove all slimes from a world"
+            "- Remove all slimes from one or more worlds"
         );
         sender.sendMessage(
             ChatColor.YELLOW +
@@ -681,7 +2137,7 @@ public class SlimeCommand implements CommandExecutor, TabCompleter {
         );
         sender.sendMessage(
             ChatColor.YELLOW +
-            "/slimes confirm " +
+            "/slimes confirm [world] " +
             ChatColor.WHITE +
             "- Confirm pending action"
         );
@@ -715,6 +2171,42 @@ public class SlimeCommand implements CommandExecutor, TabCompleter {
             ChatColor.WHITE +
             "- List all flat worlds"
         );
+        sender.sendMessage(
+            ChatColor.YELLOW +
+            "/slimes audit [world] [x,z] [since] " +
+            ChatColor.WHITE +
+            "- Search logged spawn decisions"
+        );
+        sender.sendMessage(
+            ChatColor.YELLOW +
+            "/slimes history [world] [range] " +
+            ChatColor.WHITE +
+            "- Show slime population over time"
+        );
+        sender.sendMessage(
+            ChatColor.YELLOW +
+            "/slimes shadow [world|reset] " +
+            ChatColor.WHITE +
+            "- Compare the candidate policy with the live one"
+        );
+        sender.sendMessage(
+            ChatColor.YELLOW +
+            "/slimes trace [start [seconds]|stop] " +
+            ChatColor.WHITE +
+            "- Capture slime spawns for replay"
+        );
+        sender.sendMessage(
+            ChatColor.YELLOW +
+            "/slimes sweep [start|stop] [world] " +
+            ChatColor.WHITE +
+            "- Remove slimes from every generated chunk, loaded or not"
+        );
+        sender.sendMessage(
+            ChatColor.YELLOW +
+            "/slimes batch <file> " +
+            ChatColor.WHITE +
+            "- Run an operation list from the batches folder"
+        );
     }
 
     @Override
@@ -739,7 +2231,13 @@ public class SlimeCommand implements CommandExecutor, TabCompleter {
                 "config",
                 "setflat",
                 "unsetflat",
-                "listflat"
+                "listflat",
+                "audit",
+                "history",
+                "shadow",
+                "trace",
+                "sweep",
+                "batch"
             );
             subcommands
                 .stream()
@@ -749,22 +2247,241 @@ public class SlimeCommand implements CommandExecutor, TabCompleter {
                 .forEach(completions::add);
         } else if (
             args.length == 2 &&
-            !args[0].equalsIgnoreCase("confirm") &&
             !args[0].equalsIgnoreCase("reload") &&
             !args[0].equalsIgnoreCase("config") &&
-            !args[0].equalsIgnoreCase("listflat")
+            !args[0].equalsIgnoreCase("listflat") &&
+            !args[0].equalsIgnoreCase("trace") &&
+            !args[0].equalsIgnoreCase("sweep") &&
+            !args[0].equalsIgnoreCase("batch")
         ) {
-            plugin
-                .getServer()
-                .getWorlds()
+            completions.addAll(
+                worldIndex.complete(args[1], MAX_WORLD_COMPLETIONS)
+            );
+            if (args[0].equalsIgnoreCase("nuke")) {
+                for (String selector : new String[] { "all", "flat" }) {
+                    if (selector.startsWith(args[1].toLowerCase())) {
+                        completions.add(selector);
+                    }
+                }
+            } else if (
+                args[0].equalsIgnoreCase("shadow") &&
+                "reset".startsWith(args[1].toLowerCase())
+            ) {
+                completions.add("reset");
+            }
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("trace")) {
+            for (String action : new String[] { "start", "stop" }) {
+                if (action.startsWith(args[1].toLowerCase())) {
+                    completions.add(action);
+                }
+            }
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("batch")) {
+            BatchScript
+                .list(plugin.getDataFolder())
                 .stream()
-                .map(World::getName)
                 .filter(name ->
                     name.toLowerCase().startsWith(args[1].toLowerCase())
                 )
                 .forEach(completions::add);
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("sweep")) {
+            for (String action : new String[] { "start", "stop", "status" }) {
+                if (action.startsWith(args[1].toLowerCase())) {
+                    completions.add(action);
+                }
+            }
+        } else if (
+            args.length == 3 &&
+            args[0].equalsIgnoreCase("sweep") &&
+            !args[1].equalsIgnoreCase("status")
+        ) {
+            completions.addAll(
+                worldIndex.complete(args[2], MAX_WORLD_COMPLETIONS)
+            );
         }
 
         return completions;
     }
+
+    /**
+     * Totals of a bulk removal, updated on the main thread as worlds finish
+     */
+    private static final class BulkProgress {
+
+        private final int total;
+        private int finished;
+        private int worldsWithSlimes;
+        private int removed;
+
+        private BulkProgress(int total) {
+            this.total = total;
+        }
+    }
+
+    /**
+     * A nuke of one world or a selection of worlds awaiting confirmation
+     */
+    private final class NukeOperation implements PendingOperation {
+
+        private final CommandSender sender;
+        private final String key;
+        // Null for a single world
+        private final String selector;
+        private final List<UUID> worldIds = new ArrayList<>();
+        private final String description;
+
+        private NukeOperation(
+            CommandSender sender,
+            String key,
+            String selector,
+            List<World> worlds
+        ) {
+            this.sender = sender;
+            this.key = key;
+            this.selector = selector;
+            for (World world : worlds) {
+                worldIds.add(world.getUID());
+            }
+            this.description = selector == null
+                ? "world '" + worlds.get(0).getName() + "'"
+                : worlds.size() + " worlds matching '" + selector + "'";
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public UUID getWorldId() {
+            return selector == null ? worldIds.get(0) : null;
+        }
+
+        @Override
+        public String describe() {
+            return "remove all slimes from " + description;
+        }
+
+        @Override
+        public void execute() {
+            List<World> worlds = new ArrayList<>();
+            for (UUID worldId : worldIds) {
+                World world = worldIndex.getWorld(worldId);
+                if (world != null) {
+                    worlds.add(world);
+                }
+            }
+            if (worlds.isEmpty()) {
+                sender.sendMessage(ChatColor.RED + "World no longer exists!");
+            } else if (selector == null) {
+                startRemoval(sender, worlds.get(0));
+            } else {
+                startBulkRemoval(sender, selector, worlds);
+            }
+        }
+
+        @Override
+        public void expired() {
+            sender.sendMessage(
+                ChatColor.GRAY +
+                "Confirmation to remove all slimes from " +
+                description +
+                " expired."
+            );
+        }
+    }
+
+    /**
+     * A batch script reaching non-flat worlds awaiting confirmation
+     */
+    private final class BatchOperation implements PendingOperation {
+
+        private final CommandSender sender;
+        private final BatchScript script;
+
+        private BatchOperation(CommandSender sender, BatchScript script) {
+            this.sender = sender;
+            this.script = script;
+        }
+
+        @Override
+        public String getKey() {
+            return "batch:" + script.getName().toLowerCase();
+        }
+
+        @Override
+        public UUID getWorldId() {
+            return null;
+        }
+
+        @Override
+        public String describe() {
+            return "batch '" + script.getName() + "'";
+        }
+
+        @Override
+        public void execute() {
+            runBatch(sender, script);
+        }
+
+        @Override
+        public void expired() {
+            sender.sendMessage(
+                ChatColor.GRAY +
+                "Confirmation of batch '" +
+                script.getName() +
+                "' expired."
+            );
+        }
+    }
+
+    /**
+     * A deep sweep of a non-flat world awaiting confirmation
+     */
+    private final class SweepOperation implements PendingOperation {
+
+        private final CommandSender sender;
+        private final UUID worldId;
+        private final String worldName;
+
+        private SweepOperation(CommandSender sender, World world) {
+            this.sender = sender;
+            this.worldId = world.getUID();
+            this.worldName = world.getName();
+        }
+
+        @Override
+        public String getKey() {
+            return "sweep:" + worldId;
+        }
+
+        @Override
+        public UUID getWorldId() {
+            return worldId;
+        }
+
+        @Override
+        public String describe() {
+            return "deep sweep of world '" + worldName + "'";
+        }
+
+        @Override
+        public void execute() {
+            World world = worldIndex.getWorld(worldId);
+            if (world == null) {
+                sender.sendMessage(ChatColor.RED + "World no longer exists!");
+            } else {
+                startSweep(sender, world);
+            }
+        }
+
+        @Override
+        public void expired() {
+            sender.sendMessage(
+                ChatColor.GRAY +
+                "Confirmation of the deep sweep of '" +
+                worldName +
+                "' expired."
+            );
+        }
+    }
 }
@@ -0,0 +1,70 @@
+package com.mrerenk.slimeannihilator.common.config;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * What changed when a configuration was applied: the settings that affect
+ * every world, and the worlds added to or removed from a world list
+ */
+public final class ConfigChange {
+
+    private final Set<String> changedSettings;
+    private final Set<String> changedWorlds;
+
+    ConfigChange(Set<String> changedSettings, Set<String> changedWorlds) {
+        this.changedSettings = Collections.unmodifiableSet(changedSettings);
+        this.changedWorlds = Collections.unmodifiableSet(changedWorlds);
+    }
+
+    /**
+     * Gets the paths of changed settings other than the world lists
+     */
+    public Set<String> getChangedSettings() {
+        return changedSettings;
+    }
+
+    /**
+     * Gets the names of worlds whose flat, exempt or spawning-disabled
+     * listing changed
+     */
+    public Set<String> getChangedWorlds() {
+        return changedWorlds;
+    }
+
+    /**
+     * Checks if a setting that applies to all worlds changed, which makes
+     * everything derived from the configuration stale
+     */
+    public boolean isGlobal() {
+        return !changedSettings.isEmpty();
+    }
+
+    public boolean isEmpty() {
+        return changedSettings.isEmpty() && changedWorlds.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        if (isEmpty()) {
+            return "no changes";
+        }
+        StringBuilder summary = new StringBuilder();
+        if (!changedSettings.isEmpty()) {
+            summary.append(changedSettings.size()).append(" settings");
+            if (changedSettings.size() <= 5) {
+                summary.append(' ').append(changedSettings);
+            }
+        }
+        if (!changedWorlds.isEmpty()) {
+            if (summary.length() > 0) {
+                summary.append(", ");
+            }
+            summary.append(changedWorlds.size()).append(" worlds");
+            if (changedWorlds.size() <= 5) {
+                summary.append(' ').append(changedWorlds);
+            }
+        }
+        return summary.toString();
+    }
+}
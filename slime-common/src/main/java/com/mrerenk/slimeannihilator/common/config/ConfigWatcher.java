@@ -0,0 +1,207 @@
+package com.mrerenk.slimeannihilator.common.config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.bukkit.configuration.Configuration;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Applies edits to config.yml without {@code /slimes reload}. A daemon
+ * thread watches the data folder, waits until the file has been quiet for
+ * the debounce interval so a tool writing it in several steps triggers one
+ * reload, and parses it off the main thread. Only the parsed configuration
+ * is handed to the main thread, where {@link SlimeConfig#apply} diffs it
+ * against the current one. A file that fails to parse is reported and the
+ * current configuration stays in effect.
+ */
+public class ConfigWatcher {
+
+    private static final String FILE_NAME = "config.yml";
+
+    private final Plugin plugin;
+    private final SlimeConfig config;
+    private final Consumer<ConfigChange> onChange;
+
+    private WatchService watchService;
+    private Thread thread;
+    private Configuration defaults;
+    // Watcher thread only: content of the last file handed to the main thread
+    private String lastContent;
+
+    /**
+     * @param onChange run on the main thread after an edit changed something
+     */
+    public ConfigWatcher(
+        Plugin plugin,
+        SlimeConfig config,
+        Consumer<ConfigChange> onChange
+    ) {
+        this.plugin = plugin;
+        this.config = config;
+        this.onChange = onChange;
+    }
+
+    /**
+     * Starts or stops watching to match the configuration
+     */
+    public void applyConfig() {
+        if (!config.isHotReloadEnabled()) {
+            stop();
+        } else if (thread == null) {
+            start();
+        }
+    }
+
+    private void start() {
+        // Missing keys fall back to the bundled defaults, as they do on load
+        defaults = plugin.getConfig().getDefaults();
+        Path folder = plugin.getDataFolder().toPath();
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            folder.register(
+                watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY
+            );
+        } catch (IOException e) {
+            plugin
+                .getLogger()
+                .warning(
+                    "Could not watch " +
+                    FILE_NAME +
+                    " for changes: " +
+                    e.getMessage()
+                );
+            closeWatchService();
+            return;
+        }
+        WatchService service = watchService;
+        thread = new Thread(
+            () -> watch(service, folder.resolve(FILE_NAME)),
+            "SlimeAnnihilator-ConfigWatcher"
+        );
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        closeWatchService();
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    private void closeWatchService() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException ignored) {
+                // Closing only wakes the watcher thread up
+            }
+            watchService = null;
+        }
+    }
+
+    private void watch(WatchService service, Path file) {
+        try {
+            while (true) {
+                boolean changed = drain(service.take());
+                // Wait for the file to go quiet before reading it
+                while (true) {
+                    WatchKey next = service.poll(
+                        config.getHotReloadDebounceMillis(),
+                        TimeUnit.MILLISECONDS
+                    );
+                    if (next == null) {
+                        break;
+                    }
+                    changed |= drain(next);
+                }
+                if (changed) {
+                    reload(file);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Stopped
+        }
+    }
+
+    private static boolean drain(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            Object context = event.context();
+            if (
+                context instanceof Path &&
+                ((Path) context).getFileName().toString().equals(FILE_NAME)
+            ) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    /**
+     * Parses the file on the watcher thread and applies it on the main thread
+     */
+    private void reload(Path file) {
+        String content;
+        try {
+            content = new String(
+                Files.readAllBytes(file),
+                StandardCharsets.UTF_8
+            );
+        } catch (IOException e) {
+            return;
+        }
+        if (content.equals(lastContent)) {
+            return;
+        }
+
+        YamlConfiguration parsed = new YamlConfiguration();
+        if (defaults != null) {
+            parsed.setDefaults(defaults);
+        }
+        try {
+            parsed.loadFromString(content);
+        } catch (InvalidConfigurationException e) {
+            plugin
+                .getLogger()
+                .warning(
+                    "Ignoring edit to " +
+                    FILE_NAME +
+                    ", it does not parse: " +
+                    e.getMessage()
+                );
+            return;
+        }
+        lastContent = content;
+
+        plugin
+            .getServer()
+            .getScheduler()
+            .runTask(plugin, () -> {
+                ConfigChange change = config.apply(parsed);
+                if (change.isEmpty()) {
+                    return;
+                }
+                plugin
+                    .getLogger()
+                    .info("Applied changes to " + FILE_NAME + ": " + change);
+                onChange.accept(change);
+            });
+    }
+}
@@ -1,18 +1,63 @@
 package com.mrerenk.slimeannihilator.common.config;
 
+import com.mrerenk.slimeannihilator.common.profiling.Profiling;
+import com.mrerenk.slimeannihilator.common.rules.SpawnRule;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.EntityType;
 import org.bukkit.plugin.Plugin;
 
 public class SlimeConfig {
 
+    // Lists that only affect the worlds named in them
+    private static final Set<String> WORLD_LIST_PATHS = new HashSet<>(
+        Arrays.asList(
+            "flat-worlds",
+            "exempt-worlds",
+            "worlds-with-spawning-disabled"
+        )
+    );
+
+    // Settings that compiled spawn policies, spawner verdicts and flat world
+    // classification are derived from; other settings are read as they are
+    // used or picked up by their component's applyConfig
+    private static final Set<String> POLICY_PATHS = new HashSet<>(
+        Arrays.asList("rules", "managed-entity-types")
+    );
+    private static final String[] POLICY_PATH_PREFIXES = {
+        "prevent-",
+        "slime-chunks.",
+        "spawners.",
+    };
+
     private final Plugin plugin;
     private FileConfiguration config;
+    // Leaf values of every other setting as last applied, to diff against
+    private Map<String, Object> settings = Collections.emptyMap();
+    private final List<Consumer<String>> worldChangeListeners =
+        new ArrayList<>();
+    // Worlds changed by the batch being applied, or null outside a batch
+    private Set<String> batchChangedWorlds;
+    private boolean batchSaveRequested;
 
     // Default values
     private boolean autoRemoveOnStartup = true;
+    private boolean autoRemoveOnLoad = true;
     private boolean preventSpawningInFlatWorlds = true;
     private boolean requireConfirmationForNonFlatWorlds = true;
     private int confirmationTimeoutSeconds = 30;
@@ -24,19 +69,225 @@ public class SlimeConfig {
     private boolean preventEggSpawning = false;
     private boolean preventCommandSpawning = false;
     private boolean preventCustomSpawning = false;
+    private boolean stackingEnabled = false;
+    private double stackingRadius = 4.0;
+    private int stackingMaxStackSize = 50;
+    private boolean stackingMultiplyLoot = false;
+    private int stackingIntervalTicks = 100;
+    private int stackingTickBudgetMillis = 2;
+    private boolean stackingSlimeChunksOnly = false;
+    private boolean allowNaturalOutsideSlimeChunks = false;
+    private int throttleMaxTickBudgetMillis = 5;
+    private double throttlePauseMspt = 45.0;
+    private boolean auditEnabled = false;
+    private int auditMaxRecords = 1_000_000;
+    private boolean historyEnabled = true;
+    private int historySampleIntervalSeconds = 60;
+    private int historyRawRetentionDays = 2;
+    private int historyRetentionDays = 90;
+    private boolean metricsEnabled = false;
+    private String metricsHost = "127.0.0.1";
+    private int metricsPort = 9464;
+    private boolean spawnersSleepBlocked = false;
+    private int spawnersSleepTicks = 1200;
+    private int traceMaxRecords = 2000000;
+    private boolean anomalyEnabled = true;
+    private int anomalyIntervalSeconds = 10;
+    private double anomalyWorldGrowthPerMinute = 300.0;
+    private double anomalyChunkGrowthPerMinute = 60.0;
+    private boolean anomalyAutoCleanup = false;
+    private int anomalyAlertCooldownSeconds = 300;
+    private int sweepTickBudgetMillis = 2;
+    private int sweepMaxInFlight = 8;
+    private int sweepCheckpointSeconds = 30;
+    private int apiSnapshotIntervalSeconds = 5;
+    private boolean hotReloadEnabled = true;
+    private int hotReloadDebounceMillis = 500;
+    private List<SpawnRule> spawnRules = Collections.emptyList();
+    private boolean shadowEnabled = false;
+    private double shadowSampleRate = 1.0;
+    private List<SpawnRule> shadowRules = Collections.emptyList();
+    private int shadowRevision;
+    private EnumSet<EntityType> managedEntityTypes = EnumSet.of(EntityType.SLIME);
+    private int revision;
 
     public SlimeConfig(Plugin plugin) {
         this.plugin = plugin;
         loadConfig();
     }
 
-    public void loadConfig() {
+    /**
+     * Reloads config.yml from disk, writing the default file first if it is
+     * missing
+     */
+    public ConfigChange loadConfig() {
+        Object event = Profiling.get().beginConfigLoad();
         plugin.saveDefaultConfig();
         plugin.reloadConfig();
-        config = plugin.getConfig();
+        return apply(plugin.getConfig(), event);
+    }
+
+    /**
+     * Applies a parsed configuration and works out what changed. A change to
+     * a setting that spawn policies or flat world classification depend on
+     * bumps the revision, so everything derived from them is rebuilt; other
+     * settings leave those caches alone. Edits to the world lists only
+     * notify the world change listeners of the worlds added or removed, so a
+     * long flat or exempt list does not make every world recompute.
+     */
+    public ConfigChange apply(FileConfiguration source) {
+        return apply(source, Profiling.get().beginConfigLoad());
+    }
+
+    private ConfigChange apply(FileConfiguration source, Object event) {
+        Map<String, Object> newSettings = settingsOf(source);
+        Set<String> changedSettings = new HashSet<>();
+        for (Map.Entry<String, Object> setting : newSettings.entrySet()) {
+            Object previous = settings.get(setting.getKey());
+            if (!Objects.equals(previous, setting.getValue())) {
+                changedSettings.add(setting.getKey());
+            }
+        }
+        for (String path : settings.keySet()) {
+            if (!newSettings.containsKey(path)) {
+                changedSettings.add(path);
+            }
+        }
+        Set<String> oldFlatWorlds = flatWorlds;
+        Set<String> oldExemptWorlds = exemptWorlds;
+        Set<String> oldDisabledWorlds = worldsWithSpawningDisabled;
+
+        config = source;
+        settings = newSettings;
+        readValues();
+
+        Set<String> changedWorlds = new HashSet<>();
+        addDifference(oldFlatWorlds, flatWorlds, changedWorlds);
+        addDifference(oldExemptWorlds, exemptWorlds, changedWorlds);
+        addDifference(
+            oldDisabledWorlds,
+            worldsWithSpawningDisabled,
+            changedWorlds
+        );
+        for (String path : changedSettings) {
+            if (path.startsWith("shadow.")) {
+                shadowRevision++;
+                break;
+            }
+        }
+        boolean policyChanged = false;
+        for (String path : changedSettings) {
+            if (isPolicySetting(path)) {
+                policyChanged = true;
+                break;
+            }
+        }
+        if (policyChanged) {
+            revision++;
+        } else {
+            for (String worldName : changedWorlds) {
+                worldChanged(worldName);
+            }
+        }
+        ConfigChange change = new ConfigChange(changedSettings, changedWorlds);
+        Profiling.get().endConfigLoad(event, change, revision);
+        return change;
+    }
 
+    private static boolean isPolicySetting(String path) {
+        if (POLICY_PATHS.contains(path)) {
+            return true;
+        }
+        for (String prefix : POLICY_PATH_PREFIXES) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, Object> settingsOf(FileConfiguration source) {
+        Map<String, Object> values = new HashMap<>();
+        for (Map.Entry<String, Object> value : source
+            .getValues(true)
+            .entrySet()) {
+            if (
+                !(value.getValue() instanceof ConfigurationSection) &&
+                !WORLD_LIST_PATHS.contains(value.getKey())
+            ) {
+                values.put(value.getKey(), value.getValue());
+            }
+        }
+        return values;
+    }
+
+    private static void addDifference(
+        Set<String> before,
+        Set<String> after,
+        Set<String> into
+    ) {
+        for (String name : before) {
+            if (!after.contains(name)) {
+                into.add(name);
+            }
+        }
+        for (String name : after) {
+            if (!before.contains(name)) {
+                into.add(name);
+            }
+        }
+    }
+
+    /**
+     * Registers a callback for when a single world's listing changes without
+     * a revision bump, so state derived for that world can be dropped
+     */
+    public void addWorldChangeListener(Consumer<String> listener) {
+        worldChangeListeners.add(listener);
+    }
+
+    /**
+     * Applies several changes as one. World change listeners hear about each
+     * changed world once when the batch ends, and config.yml is written once
+     * if any change asked for a save.
+     */
+    public void applyBatch(Runnable changes) {
+        if (batchChangedWorlds != null) {
+            changes.run();
+            return;
+        }
+        Set<String> changedWorlds = new LinkedHashSet<>();
+        boolean save;
+        batchChangedWorlds = changedWorlds;
+        batchSaveRequested = false;
+        try {
+            changes.run();
+        } finally {
+            save = batchSaveRequested;
+            batchChangedWorlds = null;
+        }
+        for (String worldName : changedWorlds) {
+            worldChanged(worldName);
+        }
+        if (save) {
+            saveConfig();
+        }
+    }
+
+    private void worldChanged(String worldName) {
+        if (batchChangedWorlds != null) {
+            batchChangedWorlds.add(worldName);
+            return;
+        }
+        for (Consumer<String> listener : worldChangeListeners) {
+            listener.accept(worldName);
+        }
+    }
+
+    private void readValues() {
         // Load configuration values
         autoRemoveOnStartup = config.getBoolean("auto-remove-on-startup", true);
+        autoRemoveOnLoad = config.getBoolean("auto-remove-on-load", true);
         preventSpawningInFlatWorlds = config.getBoolean(
             "prevent-spawning-in-flat-worlds",
             true
@@ -60,6 +311,148 @@ public class SlimeConfig {
             false
         );
 
+        // Load managed entity types
+        managedEntityTypes = loadManagedEntityTypes();
+
+        // Load stacking settings
+        stackingEnabled = config.getBoolean("stacking.enabled", false);
+        stackingRadius = config.getDouble("stacking.radius", 4.0);
+        stackingMaxStackSize = Math.max(
+            1,
+            config.getInt("stacking.max-stack-size", 50)
+        );
+        stackingMultiplyLoot = config.getBoolean(
+            "stacking.multiply-loot",
+            false
+        );
+        stackingIntervalTicks = Math.max(
+            1,
+            config.getInt("stacking.interval-ticks", 100)
+        );
+        stackingTickBudgetMillis = Math.max(
+            1,
+            config.getInt("stacking.tick-budget-ms", 2)
+        );
+
+        // Load load-aware throttling settings
+        throttleMaxTickBudgetMillis = Math.max(
+            1,
+            config.getInt("throttling.max-tick-budget-ms", 5)
+        );
+        throttlePauseMspt = Math.max(
+            1.0,
+            config.getDouble("throttling.pause-above-mspt", 45.0)
+        );
+
+        // Load slime chunk settings, reading the stacking filter from its
+        // old key in configs written before it moved
+        stackingSlimeChunksOnly = config.getBoolean(
+            "stacking.slime-chunks-only",
+            config.getBoolean("slime-chunks.sweep-slime-chunks-only", false)
+        );
+        allowNaturalOutsideSlimeChunks = config.getBoolean(
+            "slime-chunks.allow-natural-spawns-outside",
+            false
+        );
+
+        // Load audit log settings
+        auditEnabled = config.getBoolean("audit.enabled", false);
+        auditMaxRecords = Math.max(
+            1024,
+            Math.min(50_000_000, config.getInt("audit.max-records", 1_000_000))
+        );
+
+        // Load population history settings
+        historyEnabled = config.getBoolean("history.enabled", true);
+        historySampleIntervalSeconds = Math.max(
+            5,
+            config.getInt("history.sample-interval-seconds", 60)
+        );
+        historyRawRetentionDays = Math.max(
+            1,
+            config.getInt("history.raw-retention-days", 2)
+        );
+        historyRetentionDays = Math.max(
+            historyRawRetentionDays,
+            config.getInt("history.retention-days", 90)
+        );
+
+        // Load metrics endpoint settings
+        metricsEnabled = config.getBoolean("metrics.enabled", false);
+        metricsHost = config.getString("metrics.host", "127.0.0.1");
+        metricsPort = config.getInt("metrics.port", 9464);
+
+        // Load spawner settings
+        spawnersSleepBlocked = config.getBoolean("spawners.sleep-blocked", false);
+        spawnersSleepTicks = Math.max(
+            20,
+            config.getInt("spawners.sleep-ticks", 1200)
+        );
+
+        // Load spawn trace settings
+        traceMaxRecords = Math.max(
+            1000,
+            config.getInt("trace.max-records", 2000000)
+        );
+
+        // Load population anomaly detection settings
+        anomalyEnabled = config.getBoolean("anomaly.enabled", true);
+        anomalyIntervalSeconds = Math.max(
+            5,
+            config.getInt("anomaly.interval-seconds", 10)
+        );
+        anomalyWorldGrowthPerMinute = Math.max(
+            1.0,
+            config.getDouble("anomaly.world-growth-per-minute", 300.0)
+        );
+        anomalyChunkGrowthPerMinute = Math.max(
+            1.0,
+            config.getDouble("anomaly.chunk-growth-per-minute", 60.0)
+        );
+        anomalyAutoCleanup = config.getBoolean("anomaly.auto-cleanup", false);
+        anomalyAlertCooldownSeconds = Math.max(
+            0,
+            config.getInt("anomaly.alert-cooldown-seconds", 300)
+        );
+
+        // Load deep sweep settings
+        sweepTickBudgetMillis = Math.max(
+            1,
+            config.getInt("sweep.tick-budget-ms", 2)
+        );
+        sweepMaxInFlight = Math.min(
+            64,
+            Math.max(1, config.getInt("sweep.max-in-flight", 8))
+        );
+        sweepCheckpointSeconds = Math.max(
+            5,
+            config.getInt("sweep.checkpoint-seconds", 30)
+        );
+
+        // Load service API settings
+        apiSnapshotIntervalSeconds = Math.max(
+            1,
+            config.getInt("api.snapshot-interval-seconds", 5)
+        );
+
+        // Load hot reload settings
+        hotReloadEnabled = config.getBoolean("hot-reload.enabled", true);
+        hotReloadDebounceMillis = Math.max(
+            50,
+            config.getInt("hot-reload.debounce-ms", 500)
+        );
+
+        // Load spawn rules
+        spawnRules = loadSpawnRules("rules");
+
+        // Load the candidate policy evaluated in shadow mode
+        shadowEnabled = config.getBoolean("shadow.enabled", false);
+        shadowSampleRate = Math.min(
+            1.0,
+            Math.max(0.0, config.getDouble("shadow.sample-rate", 1.0))
+        );
+        shadowRules = loadSpawnRules("shadow.rules");
+
         // Load flat worlds
         List<String> flatWorldsList = config.getStringList("flat-worlds");
         flatWorlds = new HashSet<>(flatWorldsList);
@@ -79,6 +472,9 @@ public class SlimeConfig {
             plugin
                 .getLogger()
                 .info("  Auto remove on startup: " + autoRemoveOnStartup);
+            plugin
+                .getLogger()
+                .info("  Auto remove on load: " + autoRemoveOnLoad);
             plugin
                 .getLogger()
                 .info(
@@ -94,6 +490,21 @@ public class SlimeConfig {
             plugin
                 .getLogger()
                 .info("  Prevent custom spawning: " + preventCustomSpawning);
+            plugin
+                .getLogger()
+                .info(
+                    "  Stacking: " +
+                    stackingEnabled +
+                    " (radius " +
+                    stackingRadius +
+                    ", max " +
+                    stackingMaxStackSize +
+                    ")"
+                );
+            plugin
+                .getLogger()
+                .info("  Managed entity types: " + managedEntityTypes);
+            plugin.getLogger().info("  Spawn rules: " + spawnRules.size());
             plugin.getLogger().info("  Flat worlds: " + flatWorlds);
             plugin.getLogger().info("  Exempt worlds: " + exemptWorlds);
             plugin
@@ -105,8 +516,54 @@ public class SlimeConfig {
         }
     }
 
+    private EnumSet<EntityType> loadManagedEntityTypes() {
+        if (!config.isList("managed-entity-types")) {
+            return EnumSet.of(EntityType.SLIME);
+        }
+        EnumSet<EntityType> types = EnumSet.noneOf(EntityType.class);
+        for (String name : config.getStringList("managed-entity-types")) {
+            try {
+                types.add(
+                    EntityType.valueOf(name.trim().toUpperCase(Locale.ROOT))
+                );
+            } catch (IllegalArgumentException e) {
+                plugin
+                    .getLogger()
+                    .warning("Ignoring unknown managed entity type: " + name);
+            }
+        }
+        return types;
+    }
+
+    private List<SpawnRule> loadSpawnRules(String path) {
+        List<Map<?, ?>> ruleMaps = config.getMapList(path);
+        List<SpawnRule> rules = new ArrayList<>(ruleMaps.size());
+        for (int i = 0; i < ruleMaps.size(); i++) {
+            try {
+                rules.add(SpawnRule.parse(ruleMaps.get(i), i));
+            } catch (IllegalArgumentException e) {
+                plugin
+                    .getLogger()
+                    .warning(
+                        "Ignoring spawn rule #" +
+                        (i + 1) +
+                        " in " +
+                        path +
+                        ": " +
+                        e.getMessage()
+                    );
+            }
+        }
+        return Collections.unmodifiableList(rules);
+    }
+
     public void saveConfig() {
+        if (batchChangedWorlds != null) {
+            batchSaveRequested = true;
+            return;
+        }
         config.set("auto-remove-on-startup", autoRemoveOnStartup);
+        config.set("auto-remove-on-load", autoRemoveOnLoad);
         config.set(
             "prevent-spawning-in-flat-worlds",
             preventSpawningInFlatWorlds
@@ -120,6 +577,66 @@ public class SlimeConfig {
         config.set("prevent-egg-spawning", preventEggSpawning);
         config.set("prevent-command-spawning", preventCommandSpawning);
         config.set("prevent-custom-spawning", preventCustomSpawning);
+        List<String> managedTypeNames = new ArrayList<>();
+        for (EntityType type : managedEntityTypes) {
+            managedTypeNames.add(type.name());
+        }
+        config.set("managed-entity-types", managedTypeNames);
+        config.set("stacking.enabled", stackingEnabled);
+        config.set("stacking.radius", stackingRadius);
+        config.set("stacking.max-stack-size", stackingMaxStackSize);
+        config.set("stacking.multiply-loot", stackingMultiplyLoot);
+        config.set("stacking.interval-ticks", stackingIntervalTicks);
+        config.set("stacking.tick-budget-ms", stackingTickBudgetMillis);
+        config.set("stacking.slime-chunks-only", stackingSlimeChunksOnly);
+        config.set("slime-chunks.sweep-slime-chunks-only", null);
+        config.set(
+            "slime-chunks.allow-natural-spawns-outside",
+            allowNaturalOutsideSlimeChunks
+        );
+        config.set(
+            "throttling.max-tick-budget-ms",
+            throttleMaxTickBudgetMillis
+        );
+        config.set("throttling.pause-above-mspt", throttlePauseMspt);
+        config.set("audit.enabled", auditEnabled);
+        config.set("audit.max-records", auditMaxRecords);
+        config.set("history.enabled", historyEnabled);
+        config.set(
+            "history.sample-interval-seconds",
+            historySampleIntervalSeconds
+        );
+        config.set("history.raw-retention-days", historyRawRetentionDays);
+        config.set("history.retention-days", historyRetentionDays);
+        config.set("metrics.enabled", metricsEnabled);
+        config.set("metrics.host", metricsHost);
+        config.set("metrics.port", metricsPort);
+        config.set("spawners.sleep-blocked", spawnersSleepBlocked);
+        config.set("spawners.sleep-ticks", spawnersSleepTicks);
+        config.set("trace.max-records", traceMaxRecords);
+        config.set("anomaly.enabled", anomalyEnabled);
+        config.set("anomaly.interval-seconds", anomalyIntervalSeconds);
+        config.set(
+            "anomaly.world-growth-per-minute",
+            anomalyWorldGrowthPerMinute
+        );
+        config.set(
+            "anomaly.chunk-growth-per-minute",
+            anomalyChunkGrowthPerMinute
+        );
+        config.set("anomaly.auto-cleanup", anomalyAutoCleanup);
+        config.set(
+            "anomaly.alert-cooldown-seconds",
+            anomalyAlertCooldownSeconds
+        );
+        config.set("shadow.enabled", shadowEnabled);
+        config.set("shadow.sample-rate", shadowSampleRate);
+        config.set("sweep.tick-budget-ms", sweepTickBudgetMillis);
+        config.set("sweep.max-in-flight", sweepMaxInFlight);
+        config.set("sweep.checkpoint-seconds", sweepCheckpointSeconds);
+        config.set("api.snapshot-interval-seconds", apiSnapshotIntervalSeconds);
+        config.set("hot-reload.enabled", hotReloadEnabled);
+        config.set("hot-reload.debounce-ms", hotReloadDebounceMillis);
         config.set("flat-worlds", flatWorlds.toArray(new String[0]));
         config.set("exempt-worlds", exemptWorlds.toArray(new String[0]));
         config.set(
@@ -127,7 +644,19 @@ public class SlimeConfig {
             worldsWithSpawningDisabled.toArray(new String[0])
         );
 
-        plugin.saveConfig();
+        // The file watcher sees this write; what was saved is not a change
+        settings = settingsOf(config);
+        Object event = Profiling.get().beginConfigSave();
+        boolean saved = false;
+        try {
+            config.save(new File(plugin.getDataFolder(), "config.yml"));
+            saved = true;
+        } catch (IOException e) {
+            plugin
+                .getLogger()
+                .severe("Could not save config.yml: " + e.getMessage());
+        }
+        Profiling.get().endConfigSave(event, saved);
     }
 
     // Getters
@@ -135,6 +664,14 @@ public class SlimeConfig {
         return autoRemoveOnStartup;
     }
 
+    /**
+     * Checks if managed entities are removed from flat worlds whenever
+     * entities are loaded from disk
+     */
+    public boolean isAutoRemoveOnLoad() {
+        return autoRemoveOnLoad;
+    }
+
     public boolean isPreventSpawningInFlatWorlds() {
         return preventSpawningInFlatWorlds;
     }
@@ -167,13 +704,253 @@ public class SlimeConfig {
         return confirmationTimeoutSeconds * 1000L;
     }
 
+    public boolean isStackingEnabled() {
+        return stackingEnabled;
+    }
+
+    public double getStackingRadius() {
+        return stackingRadius;
+    }
+
+    public int getStackingMaxStackSize() {
+        return stackingMaxStackSize;
+    }
+
+    public boolean isStackingMultiplyLoot() {
+        return stackingMultiplyLoot;
+    }
+
+    public int getStackingIntervalTicks() {
+        return stackingIntervalTicks;
+    }
+
+    public long getStackingTickBudgetNanos() {
+        return stackingTickBudgetMillis * 1_000_000L;
+    }
+
+    public boolean isStackingSlimeChunksOnly() {
+        return stackingSlimeChunksOnly;
+    }
+
+    public boolean isAllowNaturalOutsideSlimeChunks() {
+        return allowNaturalOutsideSlimeChunks;
+    }
+
+    /**
+     * Gets the per-tick time budget of cleanup work on an idle server
+     */
+    public long getThrottleMaxTickBudgetNanos() {
+        return throttleMaxTickBudgetMillis * 1_000_000L;
+    }
+
+    /**
+     * Gets the MSPT at which cleanup work pauses
+     */
+    public double getThrottlePauseMspt() {
+        return throttlePauseMspt;
+    }
+
+    public boolean isAuditEnabled() {
+        return auditEnabled;
+    }
+
+    public int getAuditMaxRecords() {
+        return auditMaxRecords;
+    }
+
+    public boolean isHistoryEnabled() {
+        return historyEnabled;
+    }
+
+    public int getHistorySampleIntervalSeconds() {
+        return historySampleIntervalSeconds;
+    }
+
+    /**
+     * Gets how many days of full-resolution samples are kept before they are
+     * downsampled to hourly averages
+     */
+    public int getHistoryRawRetentionDays() {
+        return historyRawRetentionDays;
+    }
+
+    public int getHistoryRetentionDays() {
+        return historyRetentionDays;
+    }
+
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public String getMetricsHost() {
+        return metricsHost;
+    }
+
+    public int getMetricsPort() {
+        return metricsPort;
+    }
+
+    /**
+     * Checks if spawners whose spawns are blocked should have their delay
+     * raised, so they stop retrying every few ticks
+     */
+    public boolean isSpawnersSleepBlocked() {
+        return spawnersSleepBlocked;
+    }
+
+    public int getSpawnersSleepTicks() {
+        return spawnersSleepTicks;
+    }
+
+    /**
+     * Gets the number of spawns after which a trace capture stops by itself
+     */
+    public int getTraceMaxRecords() {
+        return traceMaxRecords;
+    }
+
+    public boolean isAnomalyEnabled() {
+        return anomalyEnabled;
+    }
+
+    /**
+     * Gets the length of the windows growth rates are averaged over
+     */
+    public int getAnomalyIntervalSeconds() {
+        return anomalyIntervalSeconds;
+    }
+
+    /**
+     * Gets the average net growth per minute of a world's managed
+     * population above which the world is reported
+     */
+    public double getAnomalyWorldGrowthPerMinute() {
+        return anomalyWorldGrowthPerMinute;
+    }
+
+    /**
+     * Gets the average net growth per minute of a single chunk above which
+     * the chunk is reported and, with auto-cleanup, cleaned up
+     */
+    public double getAnomalyChunkGrowthPerMinute() {
+        return anomalyChunkGrowthPerMinute;
+    }
+
+    public boolean isAnomalyAutoCleanup() {
+        return anomalyAutoCleanup;
+    }
+
+    /**
+     * Gets the minimum time between two anomaly reports for the same world
+     */
+    public int getAnomalyAlertCooldownSeconds() {
+        return anomalyAlertCooldownSeconds;
+    }
+
+    /**
+     * Gets the per-tick time budget of deep sweeps on an idle server
+     */
+    public long getSweepTickBudgetNanos() {
+        return sweepTickBudgetMillis * 1_000_000L;
+    }
+
+    /**
+     * Gets the number of chunk loads a deep sweep may have pending at once
+     */
+    public int getSweepMaxInFlight() {
+        return sweepMaxInFlight;
+    }
+
+    /**
+     * Gets how often a running deep sweep saves its progress
+     */
+    public int getSweepCheckpointSeconds() {
+        return sweepCheckpointSeconds;
+    }
+
+    /**
+     * Gets how often the snapshots served to other plugins are refreshed
+     * while they are being used
+     */
+    public int getApiSnapshotIntervalSeconds() {
+        return apiSnapshotIntervalSeconds;
+    }
+
+    public boolean isHotReloadEnabled() {
+        return hotReloadEnabled;
+    }
+
+    /**
+     * Gets how long config.yml must stay unchanged before an edit is applied
+     */
+    public int getHotReloadDebounceMillis() {
+        return hotReloadDebounceMillis;
+    }
+
+    /**
+     * Gets the entity types whose spawning and removal are managed
+     */
+    public Set<EntityType> getManagedEntityTypes() {
+        return EnumSet.copyOf(managedEntityTypes);
+    }
+
+    /**
+     * Gets the spawn rules from the config, in evaluation order
+     */
+    public List<SpawnRule> getSpawnRules() {
+        return spawnRules;
+    }
+
+    /**
+     * Checks if the candidate policy in the shadow section is evaluated next
+     * to the live policy
+     */
+    public boolean isShadowEnabled() {
+        return shadowEnabled;
+    }
+
+    /**
+     * Gets the fraction of spawns the candidate policy is evaluated for
+     */
+    public double getShadowSampleRate() {
+        return shadowSampleRate;
+    }
+
+    /**
+     * Gets the candidate policy's spawn rules, which replace the live rules
+     * when it is evaluated
+     */
+    public List<SpawnRule> getShadowRules() {
+        return shadowRules;
+    }
+
+    /**
+     * Gets a counter that changes whenever a setting in the shadow section
+     * changes, so agreement counts from an older candidate are discarded
+     */
+    public int getShadowRevision() {
+        return shadowRevision;
+    }
+
+    /**
+     * Gets a counter that changes whenever a setting that spawn policies or
+     * flat world classification depend on changes, so derived state can tell
+     * when it is stale. Changes to a single world's listing are reported
+     * through world change listeners.
+     */
+    public int getRevision() {
+        return revision;
+    }
+
     // World management methods
     public void addExemptWorld(String worldName) {
         exemptWorlds.add(worldName);
+        worldChanged(worldName);
     }
 
     public void removeExemptWorld(String worldName) {
         exemptWorlds.remove(worldName);
+        worldChanged(worldName);
     }
 
     public boolean isWorldExempt(String worldName) {
@@ -184,10 +961,12 @@ public class SlimeConfig {
         worldsWithSpawningDisabled.add(worldName);
         // Remove from enabled list if present
         worldsWithSpawningEnabled.remove(worldName);
+        worldChanged(worldName);
     }
 
     public void removeWorldWithSpawningDisabled(String worldName) {
         worldsWithSpawningDisabled.remove(worldName);
+        worldChanged(worldName);
     }
 
     public boolean isWorldSpawningDisabled(String worldName) {
@@ -201,10 +980,12 @@ public class SlimeConfig {
     // Flat world management methods
     public void addFlatWorld(String worldName) {
         flatWorlds.add(worldName);
+        worldChanged(worldName);
     }
 
     public void removeFlatWorld(String worldName) {
         flatWorlds.remove(worldName);
+        worldChanged(worldName);
     }
 
     public boolean isFlatWorld(String worldName) {
@@ -0,0 +1,161 @@
+package com.mrerenk.slimeannihilator.common.history;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * On-disk format of a population history segment. A segment starts with a
+ * header (magic, version, base timestamp) followed by samples, each stored
+ * as the difference from the previous sample: the time step in seconds as an
+ * unsigned varint and the count change as a zigzag varint. A steady
+ * population sampled once a minute takes two bytes per sample.
+ */
+final class HistorySegment {
+
+    static final int MAGIC = 0x534C4D48; // "SLMH"
+    static final int VERSION = 1;
+
+    private HistorySegment() {}
+
+    static void writeHeader(OutputStream out, long baseTimestamp)
+        throws IOException {
+        byte[] header = new byte[13];
+        putInt(header, 0, MAGIC);
+        header[4] = VERSION;
+        putInt(header, 5, (int) (baseTimestamp >>> 32));
+        putInt(header, 9, (int) baseTimestamp);
+        out.write(header);
+    }
+
+    /**
+     * Writes one sample relative to the previous one in the segment
+     */
+    static void writeSample(OutputStream out, long timeStep, int countChange)
+        throws IOException {
+        byte[] buffer = new byte[15];
+        int length = putVarint(buffer, 0, timeStep);
+        length = putVarint(buffer, length, zigzag(countChange));
+        out.write(buffer, 0, length);
+    }
+
+    private static void putInt(byte[] buffer, int offset, int value) {
+        buffer[offset] = (byte) (value >>> 24);
+        buffer[offset + 1] = (byte) (value >>> 16);
+        buffer[offset + 2] = (byte) (value >>> 8);
+        buffer[offset + 3] = (byte) value;
+    }
+
+    private static int putVarint(byte[] buffer, int offset, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer[offset++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[offset++] = (byte) value;
+        return offset;
+    }
+
+    private static long zigzag(int value) {
+        return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+    }
+
+    private static int unzigzag(long value) {
+        int bits = (int) value;
+        return (bits >>> 1) ^ -(bits & 1);
+    }
+
+    /**
+     * Streams the samples of a segment. A sample cut short by a crash ends
+     * the stream; {@link #getValidLength()} then tells where it started.
+     */
+    static final class Reader implements Closeable {
+
+        private final InputStream in;
+        private long position;
+        private long validLength;
+        private long timestamp;
+        private int count;
+
+        Reader(File file) throws IOException {
+            this.in = new BufferedInputStream(new FileInputStream(file));
+            DataInputStream header = new DataInputStream(in);
+            try {
+                if (header.readInt() != MAGIC || header.readByte() != VERSION) {
+                    throw new IOException(
+                        file.getName() + " is not a history segment"
+                    );
+                }
+                timestamp = header.readLong();
+            } catch (EOFException e) {
+                in.close();
+                throw new IOException(file.getName() + " has no header");
+            } catch (IOException e) {
+                in.close();
+                throw e;
+            }
+            position = 13;
+            validLength = position;
+        }
+
+        /**
+         * Advances to the next sample, returning false at the end of the
+         * segment
+         */
+        boolean next() throws IOException {
+            long timeStep = readVarint();
+            if (timeStep < 0) {
+                return false;
+            }
+            long countChange = readVarint();
+            if (countChange < 0) {
+                return false;
+            }
+            timestamp += timeStep;
+            count += unzigzag(countChange);
+            validLength = position;
+            return true;
+        }
+
+        long getTimestamp() {
+            return timestamp;
+        }
+
+        int getCount() {
+            return count;
+        }
+
+        /**
+         * Gets the length of the segment up to the last complete sample
+         */
+        long getValidLength() {
+            return validLength;
+        }
+
+        private long readVarint() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = in.read();
+                if (b < 0) {
+                    return -1;
+                }
+                position++;
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
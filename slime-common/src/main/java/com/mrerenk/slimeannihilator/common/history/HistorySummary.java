@@ -0,0 +1,127 @@
+package com.mrerenk.slimeannihilator.common.history;
+
+/**
+ * Population samples of one world folded into a fixed number of time buckets,
+ * so a summary takes the same memory whether it covers an hour or a month.
+ */
+public class HistorySummary {
+
+    // Lower one eighth block up to full block
+    private static final char[] BARS = {
+        '\u2581',
+        '\u2582',
+        '\u2583',
+        '\u2584',
+        '\u2585',
+        '\u2586',
+        '\u2587',
+        '\u2588',
+    };
+
+    private final long from;
+    private final long to;
+    private final long[] sums;
+    private final int[] counts;
+
+    private int samples;
+    private int min = Integer.MAX_VALUE;
+    private int max = Integer.MIN_VALUE;
+    private long total;
+    private long firstTimestamp = -1;
+    private int first;
+    private long lastTimestamp = -1;
+    private int last;
+
+    /**
+     * @param from start of the range (epoch seconds, inclusive)
+     * @param to end of the range (epoch seconds, exclusive)
+     */
+    public HistorySummary(long from, long to, int buckets) {
+        this.from = from;
+        this.to = Math.max(from + 1, to);
+        this.sums = new long[buckets];
+        this.counts = new int[buckets];
+    }
+
+    void add(long timestamp, int count) {
+        if (timestamp < from || timestamp >= to) {
+            return;
+        }
+        int bucket = (int) ((timestamp - from) * sums.length / (to - from));
+        sums[bucket] += count;
+        counts[bucket]++;
+
+        samples++;
+        total += count;
+        min = Math.min(min, count);
+        max = Math.max(max, count);
+        if (firstTimestamp < 0 || timestamp < firstTimestamp) {
+            firstTimestamp = timestamp;
+            first = count;
+        }
+        if (timestamp >= lastTimestamp) {
+            lastTimestamp = timestamp;
+            last = count;
+        }
+    }
+
+    public long getFrom() {
+        return from;
+    }
+
+    public long getTo() {
+        return to;
+    }
+
+    public int getSamples() {
+        return samples;
+    }
+
+    public int getMin() {
+        return samples == 0 ? 0 : min;
+    }
+
+    public int getMax() {
+        return samples == 0 ? 0 : max;
+    }
+
+    public double getAverage() {
+        return samples == 0 ? 0 : (double) total / samples;
+    }
+
+    public int getFirst() {
+        return first;
+    }
+
+    public int getLast() {
+        return last;
+    }
+
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    /**
+     * Renders the bucket averages as a line of bar characters scaled between
+     * the lowest and highest sample. Buckets without samples are rendered as
+     * {@code empty}.
+     */
+    public String toSparkline(char empty) {
+        StringBuilder line = new StringBuilder(sums.length);
+        int range = getMax() - getMin();
+        for (int i = 0; i < sums.length; i++) {
+            if (counts[i] == 0) {
+                line.append(empty);
+                continue;
+            }
+            double average = (double) sums[i] / counts[i];
+            int level = range == 0
+                ? 0
+                : (int) Math.round(
+                    ((average - getMin()) / range) * (BARS.length - 1)
+                );
+            line.append(BARS[level]);
+        }
+        return line.toString();
+    }
+}
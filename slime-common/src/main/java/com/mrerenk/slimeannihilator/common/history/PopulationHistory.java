@@ -0,0 +1,539 @@
+package com.mrerenk.slimeannihilator.common.history;
+
+import com.mrerenk.slimeannihilator.common.SlimeManager;
+import com.mrerenk.slimeannihilator.common.api.SlimeIndex;
+import com.mrerenk.slimeannihilator.common.api.SlimeSnapshot;
+import com.mrerenk.slimeannihilator.common.config.SlimeConfig;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Records the managed entity count of every loaded world at a fixed interval
+ * into append-only segment files under {@code history/<world>/}. Samples are
+ * kept at full resolution in one segment per day ({@code raw-yyyyMMdd.seg})
+ * and later downsampled to hourly averages in one segment per month
+ * ({@code hourly-yyyyMM.seg}), which are deleted once they fall out of the
+ * retention window. All times are epoch seconds, days and months are UTC.
+ * World names are percent-encoded into a single folder name, so no name can
+ * reach outside the history folder. Files are only written by a background
+ * writer thread.
+ */
+public class PopulationHistory {
+
+    private static final long HOUR_SECONDS = 3600;
+    private static final long DAY_SECONDS = 86400;
+    private static final String RAW_PREFIX = "raw-";
+    private static final String HOURLY_PREFIX = "hourly-";
+    private static final String SUFFIX = ".seg";
+    private static final DateTimeFormatter DAY_FORMAT =
+        DateTimeFormatter.BASIC_ISO_DATE;
+    private static final DateTimeFormatter MONTH_FORMAT =
+        DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final Plugin plugin;
+    private final SlimeIndex slimeIndex;
+    private final SlimeConfig config;
+    private final File directory;
+
+    // Append state per world, dropped whenever a world moves to a new
+    // segment. Only used on the writer thread.
+    private final Map<String, Series> series = new HashMap<>();
+
+    private BukkitTask task;
+    // Appends and compaction run here, in order, off the main thread
+    private ExecutorService writer;
+    private long nextSampleAt;
+    private long lastCompactedDay = -1;
+
+    public PopulationHistory(
+        Plugin plugin,
+        SlimeManager slimeManager,
+        SlimeIndex slimeIndex
+    ) {
+        this.plugin = plugin;
+        this.slimeIndex = slimeIndex;
+        this.config = slimeManager.getConfig();
+        this.directory = new File(plugin.getDataFolder(), "history");
+    }
+
+    /**
+     * Starts the sampling task. The task checks the configured interval every
+     * second, so interval changes apply on reload.
+     */
+    public void start() {
+        if (task != null) {
+            return;
+        }
+        writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "SlimeAnnihilator-History");
+            thread.setDaemon(true);
+            return thread;
+        });
+        task = plugin
+            .getServer()
+            .getScheduler()
+            .runTaskTimer(plugin, this::tick, 20L, 20L);
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        slimeIndex.removeConsumer(this);
+        if (writer != null) {
+            // Let queued samples reach the disk
+            writer.shutdown();
+            try {
+                writer.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writer = null;
+        }
+        series.clear();
+    }
+
+    private void tick() {
+        if (!config.isHistoryEnabled()) {
+            slimeIndex.removeConsumer(this);
+            return;
+        }
+        slimeIndex.addConsumer(this);
+        long now = System.currentTimeMillis() / 1000;
+        if (now < nextSampleAt) {
+            return;
+        }
+        nextSampleAt = now + config.getHistorySampleIntervalSeconds();
+
+        // Samples are the latest snapshots, stamped with when they were
+        // counted; a snapshot already recorded is skipped by append
+        List<SlimeSnapshot> samples = new ArrayList<>(
+            slimeIndex.getSnapshots()
+        );
+        writer.execute(() -> {
+            for (SlimeSnapshot snapshot : samples) {
+                append(
+                    snapshot.getWorldName(),
+                    snapshot.getTakenAt() / 1000,
+                    snapshot.getTotal()
+                );
+            }
+        });
+
+        long day = Math.floorDiv(now, DAY_SECONDS);
+        if (day != lastCompactedDay) {
+            lastCompactedDay = day;
+            long rawCutoff = day - config.getHistoryRawRetentionDays() + 1;
+            long retentionCutoff =
+                now - config.getHistoryRetentionDays() * DAY_SECONDS;
+            writer.execute(() -> compact(rawCutoff, retentionCutoff));
+        }
+    }
+
+    /**
+     * Appends a sample to the world's segment for its day. Runs on the
+     * writer thread.
+     */
+    private void append(String worldName, long timestamp, int count) {
+        File file = new File(
+            worldDirectory(worldName),
+            RAW_PREFIX + dayName(timestamp) + SUFFIX
+        );
+        Series current = series.get(worldName);
+        if (current == null || !current.file.equals(file)) {
+            current = openSeries(file);
+            series.put(worldName, current);
+        }
+        try {
+            current.append(timestamp, count);
+        } catch (IOException e) {
+            series.remove(worldName);
+            plugin
+                .getLogger()
+                .warning(
+                    "Could not record slime history for " +
+                    worldName +
+                    ": " +
+                    e.getMessage()
+                );
+        }
+    }
+
+    /**
+     * Drops the append state of an unloaded world. Its segments stay on disk
+     * and are reopened if a world with the same name is loaded again.
+     */
+    public void releaseWorld(String worldName) {
+        if (writer != null) {
+            writer.execute(() -> series.remove(worldName));
+        }
+    }
+
+    /**
+     * Downsamples raw segments older than the raw retention window to hourly
+     * averages and deletes hourly segments older than the retention window.
+     * A world folder left without segments, such as that of a deleted world
+     * once its history expires, is deleted too. Runs on the writer thread
+     * once a day.
+     *
+     * @param rawCutoff first day whose raw segment is kept
+     * @param retentionCutoff epoch second before which hourly segments are
+     *     deleted
+     */
+    private void compact(long rawCutoff, long retentionCutoff) {
+        File[] worldDirectories = directory.listFiles(File::isDirectory);
+        if (worldDirectories == null) {
+            return;
+        }
+
+        for (File worldDirectory : worldDirectories) {
+            for (File segment : sortedSegments(worldDirectory, RAW_PREFIX)) {
+                long start = segmentStart(segment, RAW_PREFIX);
+                if (
+                    start < 0 || Math.floorDiv(start, DAY_SECONDS) >= rawCutoff
+                ) {
+                    continue;
+                }
+                try {
+                    downsample(worldDirectory, segment);
+                } catch (IOException e) {
+                    plugin
+                        .getLogger()
+                        .warning(
+                            "Could not downsample " +
+                            segment +
+                            ": " +
+                            e.getMessage()
+                        );
+                    continue;
+                }
+                if (!segment.delete()) {
+                    plugin.getLogger().warning("Could not delete " + segment);
+                }
+            }
+            for (File segment : sortedSegments(
+                worldDirectory,
+                HOURLY_PREFIX
+            )) {
+                long start = segmentStart(segment, HOURLY_PREFIX);
+                long end = start < 0 ? -1 : segmentEnd(start, HOURLY_PREFIX);
+                if (end >= 0 && end <= retentionCutoff && !segment.delete()) {
+                    plugin.getLogger().warning("Could not delete " + segment);
+                }
+            }
+            String[] remaining = worldDirectory.list();
+            if (
+                remaining != null &&
+                remaining.length == 0 &&
+                !worldDirectory.delete()
+            ) {
+                plugin
+                    .getLogger()
+                    .warning("Could not delete " + worldDirectory);
+            }
+        }
+        series.clear();
+    }
+
+    private void downsample(File worldDirectory, File rawSegment)
+        throws IOException {
+        Series hourly = null;
+        long hour = -1;
+        long sum = 0;
+        int samples = 0;
+        try (
+            HistorySegment.Reader reader = new HistorySegment.Reader(rawSegment)
+        ) {
+            while (true) {
+                boolean more = reader.next();
+                long sampleHour = more
+                    ? Math.floorDiv(reader.getTimestamp(), HOUR_SECONDS)
+                    : -1;
+                if (samples > 0 && (!more || sampleHour != hour)) {
+                    long timestamp = hour * HOUR_SECONDS;
+                    File file = new File(
+                        worldDirectory,
+                        HOURLY_PREFIX + monthName(timestamp) + SUFFIX
+                    );
+                    if (hourly == null || !hourly.file.equals(file)) {
+                        hourly = openSeries(file);
+                    }
+                    hourly.append(
+                        timestamp,
+                        (int) Math.round((double) sum / samples)
+                    );
+                    sum = 0;
+                    samples = 0;
+                }
+                if (!more) {
+                    break;
+                }
+                hour = sampleHour;
+                sum += reader.getCount();
+                samples++;
+            }
+        }
+    }
+
+    /**
+     * Summarises the samples of a world between two timestamps. Reads the
+     * segments as streams and keeps only the bucket totals, so it may run off
+     * the main thread.
+     */
+    public HistorySummary query(
+        String worldName,
+        long from,
+        long to,
+        int buckets
+    ) throws IOException {
+        HistorySummary summary = new HistorySummary(from, to, buckets);
+        File worldDirectory = worldDirectory(worldName);
+        // Hourly segments first: they cover the older part of the range
+        for (String prefix : new String[] { HOURLY_PREFIX, RAW_PREFIX }) {
+            for (File segment : sortedSegments(worldDirectory, prefix)) {
+                long start = segmentStart(segment, prefix);
+                if (
+                    start < 0 ||
+                    start >= summary.getTo() ||
+                    segmentEnd(start, prefix) <= from
+                ) {
+                    continue;
+                }
+                try (
+                    HistorySegment.Reader reader = new HistorySegment.Reader(
+                        segment
+                    )
+                ) {
+                    while (reader.next()) {
+                        summary.add(reader.getTimestamp(), reader.getCount());
+                    }
+                }
+            }
+        }
+        return summary;
+    }
+
+    /**
+     * Gets the names of worlds with recorded history
+     */
+    public List<String> getRecordedWorlds() {
+        List<String> worlds = new ArrayList<>();
+        File[] worldDirectories = directory.listFiles(File::isDirectory);
+        if (worldDirectories != null) {
+            for (File worldDirectory : worldDirectories) {
+                try {
+                    worlds.add(
+                        URLDecoder.decode(worldDirectory.getName(), "UTF-8")
+                    );
+                } catch (UnsupportedEncodingException | RuntimeException e) {
+                    // Not a folder this class created
+                }
+            }
+        }
+        return worlds;
+    }
+
+    private File worldDirectory(String worldName) {
+        return new File(directory, folderName(worldName));
+    }
+
+    /**
+     * Encodes a world name as a single folder name. Letters, digits, '_',
+     * '-' and '.' are kept, so common names map to themselves; anything else,
+     * including path separators, is percent-encoded, as are the dots of a
+     * name made only of dots.
+     */
+    private static String folderName(String worldName) {
+        boolean onlyDots = !worldName.isEmpty();
+        for (int i = 0; i < worldName.length() && onlyDots; i++) {
+            onlyDots = worldName.charAt(i) == '.';
+        }
+        StringBuilder folder = new StringBuilder(worldName.length());
+        for (byte b : worldName.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xFF);
+            if (
+                (c >= 'a' && c <= 'z') ||
+                (c >= 'A' && c <= 'Z') ||
+                (c >= '0' && c <= '9') ||
+                c == '_' ||
+                c == '-' ||
+                (c == '.' && !onlyDots)
+            ) {
+                folder.append(c);
+            } else {
+                folder.append('%').append(String.format("%02X", (int) c));
+            }
+        }
+        return folder.toString();
+    }
+
+    /**
+     * Prepares appending to a segment. An existing segment is read to its end
+     * to recover the last sample, and a sample cut short by a crash is
+     * truncated away.
+     */
+    private Series openSeries(File file) {
+        Series opened = new Series(file);
+        if (!file.exists() || file.length() == 0) {
+            return opened;
+        }
+        try {
+            long validLength;
+            try (
+                HistorySegment.Reader reader = new HistorySegment.Reader(file)
+            ) {
+                while (reader.next()) {
+                    opened.lastTimestamp = reader.getTimestamp();
+                    opened.lastCount = reader.getCount();
+                }
+                validLength = reader.getValidLength();
+            }
+            if (file.length() > validLength) {
+                try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                    raf.setLength(validLength);
+                }
+            }
+            opened.needsHeader = false;
+        } catch (IOException e) {
+            plugin
+                .getLogger()
+                .warning(
+                    "Discarding unreadable history segment " +
+                    file +
+                    ": " +
+                    e.getMessage()
+                );
+            if (!file.delete()) {
+                plugin.getLogger().warning("Could not delete " + file);
+            }
+        }
+        return opened;
+    }
+
+    private static List<File> sortedSegments(
+        File worldDirectory,
+        String prefix
+    ) {
+        File[] files = worldDirectory.listFiles((dir, name) ->
+            name.startsWith(prefix) && name.endsWith(SUFFIX)
+        );
+        if (files == null) {
+            return new ArrayList<>();
+        }
+        // Date-stamped names sort chronologically
+        Arrays.sort(files);
+        return Arrays.asList(files);
+    }
+
+    /**
+     * Gets the first second covered by a segment from its file name, or -1 if
+     * the name is not a segment name
+     */
+    private static long segmentStart(File segment, String prefix) {
+        String name = segment.getName();
+        String stamp = name.substring(
+            prefix.length(),
+            name.length() - SUFFIX.length()
+        );
+        try {
+            if (prefix.equals(RAW_PREFIX)) {
+                return (
+                    LocalDate.parse(stamp, DAY_FORMAT).toEpochDay() *
+                    DAY_SECONDS
+                );
+            }
+            return (
+                YearMonth.parse(stamp, MONTH_FORMAT).atDay(1).toEpochDay() *
+                DAY_SECONDS
+            );
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private static long segmentEnd(long start, String prefix) {
+        if (prefix.equals(RAW_PREFIX)) {
+            return start + DAY_SECONDS;
+        }
+        LocalDate day = LocalDate.ofEpochDay(start / DAY_SECONDS);
+        return day.plusMonths(1).toEpochDay() * DAY_SECONDS;
+    }
+
+    private static String dayName(long timestamp) {
+        return LocalDate
+            .ofEpochDay(Math.floorDiv(timestamp, DAY_SECONDS))
+            .format(DAY_FORMAT);
+    }
+
+    private static String monthName(long timestamp) {
+        return YearMonth
+            .from(LocalDate.ofEpochDay(Math.floorDiv(timestamp, DAY_SECONDS)))
+            .format(MONTH_FORMAT);
+    }
+
+    /**
+     * Append position of one segment: the last sample written to it, which
+     * the next sample is encoded against
+     */
+    private static final class Series {
+
+        private final File file;
+        private boolean needsHeader = true;
+        private long lastTimestamp;
+        private int lastCount;
+
+        private Series(File file) {
+            this.file = file;
+        }
+
+        private void append(long timestamp, int count) throws IOException {
+            if (!needsHeader && timestamp <= lastTimestamp) {
+                return;
+            }
+            File parent = file.getParentFile();
+            if (!parent.isDirectory() && !parent.mkdirs()) {
+                throw new IOException("could not create " + parent);
+            }
+            try (
+                OutputStream out = new BufferedOutputStream(
+                    new FileOutputStream(file, true)
+                )
+            ) {
+                if (needsHeader) {
+                    HistorySegment.writeHeader(out, timestamp);
+                    lastTimestamp = timestamp;
+                    lastCount = 0;
+                    needsHeader = false;
+                }
+                HistorySegment.writeSample(
+                    out,
+                    timestamp - lastTimestamp,
+                    count - lastCount
+                );
+            }
+            lastTimestamp = timestamp;
+            lastCount = count;
+        }
+    }
+}
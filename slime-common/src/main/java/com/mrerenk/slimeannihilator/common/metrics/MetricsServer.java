@@ -0,0 +1,187 @@
+package com.mrerenk.slimeannihilator.common.metrics;
+
+import com.mrerenk.slimeannihilator.common.SlimeManager;
+import com.mrerenk.slimeannihilator.common.api.SlimeIndex;
+import com.mrerenk.slimeannihilator.common.api.SlimeSnapshot;
+import com.mrerenk.slimeannihilator.common.config.SlimeConfig;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.bukkit.World;
+import org.bukkit.entity.EntityType;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Serves {@link SlimeMetrics} at {@code /metrics} for Prometheus to scrape.
+ * Requests are handled on a small pool of daemon threads that only read the
+ * metrics; tracked entity counts are copied from the {@link SlimeIndex}
+ * snapshots by a main-thread task while the server is running.
+ */
+public class MetricsServer {
+
+    private static final int THREADS = 2;
+    private static final long REFRESH_TICKS = 200L;
+    private static final String CONTENT_TYPE =
+        "text/plain; version=0.0.4; charset=utf-8";
+
+    private final Plugin plugin;
+    private final SlimeManager slimeManager;
+    private final SlimeIndex slimeIndex;
+    private final SlimeConfig config;
+    private final SlimeMetrics metrics;
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private BukkitTask refreshTask;
+    private String boundHost;
+    private int boundPort;
+
+    public MetricsServer(
+        Plugin plugin,
+        SlimeManager slimeManager,
+        SlimeIndex slimeIndex
+    ) {
+        this.plugin = plugin;
+        this.slimeManager = slimeManager;
+        this.slimeIndex = slimeIndex;
+        this.config = slimeManager.getConfig();
+        this.metrics = slimeManager.getMetrics();
+    }
+
+    /**
+     * Starts, stops or rebinds the server to match the configuration
+     */
+    public void applyConfig() {
+        if (!config.isMetricsEnabled()) {
+            stop();
+            return;
+        }
+        if (
+            server != null &&
+            config.getMetricsHost().equals(boundHost) &&
+            config.getMetricsPort() == boundPort
+        ) {
+            return;
+        }
+        stop();
+        start(config.getMetricsHost(), config.getMetricsPort());
+    }
+
+    private void start(String host, int port) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS, task -> {
+            Thread thread = new Thread(
+                task,
+                "SlimeAnnihilator-Metrics-" + threadNumber.incrementAndGet()
+            );
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        } catch (IOException e) {
+            pool.shutdown();
+            plugin
+                .getLogger()
+                .severe(
+                    "Could not start metrics endpoint on " +
+                    host +
+                    ":" +
+                    port +
+                    ": " +
+                    e.getMessage()
+                );
+            return;
+        }
+        executor = pool;
+        server.setExecutor(executor);
+        server.createContext("/metrics", this::handle);
+        server.start();
+        boundHost = host;
+        boundPort = port;
+
+        slimeIndex.addConsumer(this);
+        refreshTracked();
+        refreshTask = plugin
+            .getServer()
+            .getScheduler()
+            .runTaskTimer(
+                plugin,
+                this::refreshTracked,
+                REFRESH_TICKS,
+                REFRESH_TICKS
+            );
+
+        plugin
+            .getLogger()
+            .info(
+                "Metrics endpoint listening on http://" +
+                host +
+                ":" +
+                port +
+                "/metrics"
+            );
+    }
+
+    public void stop() {
+        if (refreshTask != null) {
+            refreshTask.cancel();
+            refreshTask = null;
+        }
+        slimeIndex.removeConsumer(this);
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+        boundHost = null;
+    }
+
+    /**
+     * Copies the entity counts of the latest snapshots into the metrics. Runs
+     * on the main thread, the only place the Bukkit API may be used.
+     */
+    private void refreshTracked() {
+        metrics.updateCachedChunks(slimeManager.getChunkContextCache().size());
+        int[] counts = new int[EntityType.values().length];
+        for (SlimeSnapshot snapshot : slimeIndex.getSnapshots()) {
+            World world = plugin.getServer().getWorld(snapshot.getWorldId());
+            if (world == null) {
+                continue;
+            }
+            Arrays.fill(counts, 0);
+            for (EntityType type : slimeManager.getManagedTypes()) {
+                counts[type.ordinal()] = snapshot.getCount(type);
+            }
+            metrics.updateTracked(world, counts);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = metrics.render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.mrerenk.slimeannihilator.common.metrics;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.bukkit.World;
+import org.bukkit.entity.EntityType;
+import org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason;
+
+/**
+ * Counters and gauges exported by the metrics endpoint. Values are written
+ * on the main thread and read by the HTTP threads through atomics and
+ * volatile snapshots only, so rendering never blocks the server or touches
+ * the Bukkit API.
+ */
+public class SlimeMetrics {
+
+    private static final SpawnReason[] REASONS = SpawnReason.values();
+    private static final EntityType[] TYPES = EntityType.values();
+
+    private final Map<UUID, WorldCounters> worlds = new ConcurrentHashMap<>();
+    private final Map<String, ScanCounters> scans = new ConcurrentHashMap<>();
+    private final AtomicLong stackMerges = new AtomicLong();
+    private volatile int cachedChunks;
+
+    // Main thread only: the counters of the previous spawn decision
+    private WorldCounters lastCounters;
+
+    public void recordSpawnDecision(
+        World world,
+        SpawnReason reason,
+        boolean prevented
+    ) {
+        counters(world).decisions.incrementAndGet(
+            reason.ordinal() * 2 + (prevented ? 1 : 0)
+        );
+    }
+
+    public void recordRemovals(World world, int removed) {
+        if (removed > 0) {
+            counters(world).removed.addAndGet(removed);
+        }
+    }
+
+    public void recordStackMerges(int merged) {
+        if (merged > 0) {
+            stackMerges.addAndGet(merged);
+        }
+    }
+
+    /**
+     * Records how long one run of a named scan took
+     */
+    public void recordScan(String scan, long nanos) {
+        ScanCounters counters = scans.get(scan);
+        if (counters == null) {
+            counters = scans.computeIfAbsent(scan, key -> new ScanCounters());
+        }
+        counters.count.incrementAndGet();
+        counters.nanos.addAndGet(nanos);
+    }
+
+    /**
+     * Replaces the tracked entity counts of a world
+     *
+     * @param counts counts indexed by EntityType ordinal
+     */
+    public void updateTracked(World world, int[] counts) {
+        counters(world).tracked = counts.clone();
+    }
+
+    public void updateCachedChunks(int cachedChunks) {
+        this.cachedChunks = cachedChunks;
+    }
+
+    /**
+     * Forgets an unloaded world so its series stop being exported
+     */
+    public void removeWorld(UUID worldId) {
+        WorldCounters removed = worlds.remove(worldId);
+        if (removed != null && removed == lastCounters) {
+            lastCounters = null;
+        }
+    }
+
+    private WorldCounters counters(World world) {
+        WorldCounters counters = lastCounters;
+        UUID id = world.getUID();
+        if (counters != null && counters.id.equals(id)) {
+            return counters;
+        }
+        counters = worlds.get(id);
+        if (counters == null) {
+            counters = new WorldCounters(id, world.getName());
+            worlds.put(id, counters);
+        }
+        lastCounters = counters;
+        return counters;
+    }
+
+    /**
+     * Renders all metrics in the Prometheus text exposition format
+     */
+    public String render() {
+        StringBuilder out = new StringBuilder(4096);
+        // Sorted by name so that scrapes list series in a stable order
+        Map<String, WorldCounters> sortedWorlds = new TreeMap<>();
+        for (WorldCounters counters : worlds.values()) {
+            sortedWorlds.put(counters.name, counters);
+        }
+
+        header(
+            out,
+            "slimeannihilator_spawn_decisions_total",
+            "counter",
+            "Spawn decisions for managed entity types"
+        );
+        for (Map.Entry<String, WorldCounters> world : sortedWorlds.entrySet()) {
+            AtomicLongArray decisions = world.getValue().decisions;
+            for (int i = 0; i < decisions.length(); i++) {
+                long value = decisions.get(i);
+                if (value == 0) {
+                    continue;
+                }
+                out
+                    .append("slimeannihilator_spawn_decisions_total{world=\"")
+                    .append(escape(world.getKey()))
+                    .append("\",reason=\"")
+                    .append(REASONS[i / 2].name())
+                    .append("\",verdict=\"")
+                    .append((i & 1) == 0 ? "allow" : "deny")
+                    .append("\"} ")
+                    .append(value)
+                    .append('\n');
+            }
+        }
+
+        header(
+            out,
+            "slimeannihilator_removed_total",
+            "counter",
+            "Managed entities removed by nukes and startup scans"
+        );
+        for (Map.Entry<String, WorldCounters> world : sortedWorlds.entrySet()) {
+            out
+                .append("slimeannihilator_removed_total{world=\"")
+                .append(escape(world.getKey()))
+                .append("\"} ")
+                .append(world.getValue().removed.get())
+                .append('\n');
+        }
+
+        header(
+            out,
+            "slimeannihilator_tracked_entities",
+            "gauge",
+            "Managed entities currently loaded"
+        );
+        for (Map.Entry<String, WorldCounters> world : sortedWorlds.entrySet()) {
+            int[] tracked = world.getValue().tracked;
+            for (int i = 0; i < tracked.length; i++) {
+                if (tracked[i] == 0) {
+                    continue;
+                }
+                out
+                    .append("slimeannihilator_tracked_entities{world=\"")
+                    .append(escape(world.getKey()))
+                    .append("\",type=\"")
+                    .append(TYPES[i].name())
+                    .append("\"} ")
+                    .append(tracked[i])
+                    .append('\n');
+            }
+        }
+
+        header(
+            out,
+            "slimeannihilator_scan_duration_seconds",
+            "summary",
+            "Time spent in entity scans on the main thread"
+        );
+        for (Map.Entry<String, ScanCounters> scan : new TreeMap<>(
+            scans
+        ).entrySet()) {
+            out
+                .append("slimeannihilator_scan_duration_seconds_sum{scan=\"")
+                .append(scan.getKey())
+                .append("\"} ")
+                .append(
+                    String.format(
+                        Locale.ROOT,
+                        "%.6f",
+                        scan.getValue().nanos.get() / 1e9
+                    )
+                )
+                .append('\n')
+                .append("slimeannihilator_scan_duration_seconds_count{scan=\"")
+                .append(scan.getKey())
+                .append("\"} ")
+                .append(scan.getValue().count.get())
+                .append('\n');
+        }
+
+        header(
+            out,
+            "slimeannihilator_stack_merges_total",
+            "counter",
+            "Entities merged into stacks"
+        );
+        out
+            .append("slimeannihilator_stack_merges_total ")
+            .append(stackMerges.get())
+            .append('\n');
+
+        header(
+            out,
+            "slimeannihilator_cached_chunks",
+            "gauge",
+            "Chunks in the spawn context cache"
+        );
+        out.append("slimeannihilator_cached_chunks ").append(cachedChunks);
+        out.append('\n');
+        return out.toString();
+    }
+
+    private static void header(
+        StringBuilder out,
+        String name,
+        String type,
+        String help
+    ) {
+        out.append("# HELP ").append(name).append(' ').append(help);
+        out.append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type);
+        out.append('\n');
+    }
+
+    private static String escape(String label) {
+        return label
+            .replace("\\", "\\\\")
+            .replace("\"", "\\\"")
+            .replace("\n", "\\n");
+    }
+
+    private static final class WorldCounters {
+
+        private final UUID id;
+        // Label captured when the world was first seen
+        private final String name;
+        // Indexed by reason ordinal * 2, plus one for denied spawns
+        private final AtomicLongArray decisions = new AtomicLongArray(
+            REASONS.length * 2
+        );
+        private final AtomicLong removed = new AtomicLong();
+        private volatile int[] tracked = new int[0];
+
+        private WorldCounters(UUID id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    private static final class ScanCounters {
+
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong nanos = new AtomicLong();
+    }
+}
@@ -0,0 +1,36 @@
+package com.mrerenk.slimeannihilator.common.pending;
+
+import java.util.UUID;
+
+/**
+ * An operation waiting for its sender to confirm it with
+ * {@code /slimes confirm}
+ */
+public interface PendingOperation {
+    /**
+     * Identifies the operation among the sender's pending operations;
+     * requesting an operation with the same key again replaces it
+     */
+    String getKey();
+
+    /**
+     * Gets the world the operation applies to, or null if it applies to no
+     * single world. Operations are dropped when their world unloads.
+     */
+    UUID getWorldId();
+
+    /**
+     * Describes the operation to the sender, e.g. "nuke world 'farm'"
+     */
+    String describe();
+
+    /**
+     * Runs the confirmed operation on the main thread
+     */
+    void execute();
+
+    /**
+     * Called on the main thread when the operation times out unconfirmed
+     */
+    default void expired() {}
+}
@@ -0,0 +1,258 @@
+package com.mrerenk.slimeannihilator.common.pending;
+
+import com.mrerenk.slimeannihilator.common.config.SlimeConfig;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Operations awaiting confirmation, held per sender and keyed by operation,
+ * so finding one is a pair of hash lookups. Timeouts are driven by a timer
+ * wheel with one slot per second: each second the scheduler advances the
+ * wheel by one slot and expires what is due there, so expiry costs nothing
+ * per idle request and stale requests never accumulate. All methods run on
+ * the main thread.
+ */
+public class PendingOperations {
+
+    private static final int WHEEL_SLOTS = 64;
+    private static final long TICKS_PER_SLOT = 20L;
+
+    private final Plugin plugin;
+    private final SlimeConfig config;
+    // Per sender in request order, so the newest request is last
+    private final Map<UUID, LinkedHashMap<String, Entry>> senders =
+        new HashMap<>();
+    private final List<List<Entry>> wheel = new ArrayList<>(WHEEL_SLOTS);
+
+    private BukkitTask task;
+    private long now;
+    private int size;
+
+    public PendingOperations(Plugin plugin, SlimeConfig config) {
+        this.plugin = plugin;
+        this.config = config;
+        for (int i = 0; i < WHEEL_SLOTS; i++) {
+            wheel.add(new ArrayList<>());
+        }
+    }
+
+    public void start() {
+        if (task != null) {
+            return;
+        }
+        task = plugin
+            .getServer()
+            .getScheduler()
+            .runTaskTimer(
+                plugin,
+                this::advance,
+                TICKS_PER_SLOT,
+                TICKS_PER_SLOT
+            );
+    }
+
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        senders.clear();
+        for (List<Entry> slot : wheel) {
+            slot.clear();
+        }
+        size = 0;
+    }
+
+    /**
+     * Gets the id pending operations are held under: the player's UUID, or a
+     * UUID derived from the name for the console and other senders
+     */
+    public static UUID senderId(CommandSender sender) {
+        if (sender instanceof Player) {
+            return ((Player) sender).getUniqueId();
+        }
+        return UUID.nameUUIDFromBytes(
+            ("CommandSender:" + sender.getName()).getBytes(
+                StandardCharsets.UTF_8
+            )
+        );
+    }
+
+    /**
+     * Queues an operation for confirmation, replacing a pending operation of
+     * the sender with the same key. It expires after the configured
+     * confirmation timeout.
+     */
+    public void add(UUID senderId, PendingOperation operation) {
+        LinkedHashMap<String, Entry> pending = senders.get(senderId);
+        if (pending == null) {
+            pending = new LinkedHashMap<>();
+            senders.put(senderId, pending);
+        }
+        Entry replaced = pending.remove(operation.getKey());
+        if (replaced != null) {
+            replaced.done = true;
+            size--;
+        }
+
+        long delay = Math.max(1, config.getConfirmationTimeoutSeconds());
+        Entry entry = new Entry(senderId, operation, now + delay);
+        pending.put(operation.getKey(), entry);
+        wheel.get((int) ((now + delay) % WHEEL_SLOTS)).add(entry);
+        size++;
+    }
+
+    /**
+     * Removes and returns a sender's pending operation, or null if there is
+     * none with that key or it has expired
+     */
+    public PendingOperation take(UUID senderId, String key) {
+        LinkedHashMap<String, Entry> pending = senders.get(senderId);
+        if (pending == null) {
+            return null;
+        }
+        Entry entry = pending.get(key);
+        return entry == null ? null : remove(entry, pending);
+    }
+
+    /**
+     * Removes and returns the most recently requested pending operation of a
+     * sender, or null if there is none
+     */
+    public PendingOperation takeLatest(UUID senderId) {
+        LinkedHashMap<String, Entry> pending = senders.get(senderId);
+        if (pending == null) {
+            return null;
+        }
+        Entry latest = null;
+        for (Entry entry : pending.values()) {
+            latest = entry;
+        }
+        return latest == null ? null : remove(latest, pending);
+    }
+
+    /**
+     * Gets a sender's pending operations, oldest first
+     */
+    public List<PendingOperation> getPending(UUID senderId) {
+        List<PendingOperation> operations = new ArrayList<>();
+        LinkedHashMap<String, Entry> pending = senders.get(senderId);
+        if (pending != null) {
+            for (Entry entry : pending.values()) {
+                operations.add(entry.operation);
+            }
+        }
+        return operations;
+    }
+
+    /**
+     * Drops every pending operation on a world, e.g. when it unloads
+     */
+    public void cancelWorld(UUID worldId) {
+        Iterator<LinkedHashMap<String, Entry>> pendingIterator = senders
+            .values()
+            .iterator();
+        while (pendingIterator.hasNext()) {
+            LinkedHashMap<String, Entry> pending = pendingIterator.next();
+            Iterator<Entry> entries = pending.values().iterator();
+            while (entries.hasNext()) {
+                Entry entry = entries.next();
+                if (worldId.equals(entry.operation.getWorldId())) {
+                    entry.done = true;
+                    entries.remove();
+                    size--;
+                }
+            }
+            if (pending.isEmpty()) {
+                pendingIterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Gets the number of pending operations across all senders
+     */
+    public int size() {
+        return size;
+    }
+
+    private PendingOperation remove(
+        Entry entry,
+        LinkedHashMap<String, Entry> pending
+    ) {
+        pending.remove(entry.operation.getKey());
+        if (pending.isEmpty()) {
+            senders.remove(entry.senderId);
+        }
+        entry.done = true;
+        size--;
+        // Due but not yet swept by the wheel
+        return entry.deadline <= now ? null : entry.operation;
+    }
+
+    /**
+     * Moves the wheel one slot forward and expires the operations due there.
+     * Entries due in a later turn of the wheel stay in the slot.
+     */
+    void advance() {
+        now++;
+        List<Entry> slot = wheel.get((int) (now % WHEEL_SLOTS));
+        if (slot.isEmpty()) {
+            return;
+        }
+        List<Entry> expired = new ArrayList<>();
+        Iterator<Entry> entries = slot.iterator();
+        while (entries.hasNext()) {
+            Entry entry = entries.next();
+            if (entry.done) {
+                entries.remove();
+            } else if (entry.deadline <= now) {
+                entries.remove();
+                LinkedHashMap<String, Entry> pending = senders.get(
+                    entry.senderId
+                );
+                pending.remove(entry.operation.getKey());
+                if (pending.isEmpty()) {
+                    senders.remove(entry.senderId);
+                }
+                entry.done = true;
+                size--;
+                expired.add(entry);
+            }
+        }
+        // Notified after the wheel is consistent, since a callback may queue
+        // a new operation
+        for (Entry entry : expired) {
+            entry.operation.expired();
+        }
+    }
+
+    private static final class Entry {
+
+        private final UUID senderId;
+        private final PendingOperation operation;
+        // Wheel time (seconds since start) the operation expires at
+        private final long deadline;
+        private boolean done;
+
+        private Entry(
+            UUID senderId,
+            PendingOperation operation,
+            long deadline
+        ) {
+            this.senderId = senderId;
+            this.operation = operation;
+            this.deadline = deadline;
+        }
+    }
+}
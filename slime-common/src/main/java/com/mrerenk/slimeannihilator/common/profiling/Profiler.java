@@ -0,0 +1,70 @@
+package com.mrerenk.slimeannihilator.common.profiling;
+
+import com.mrerenk.slimeannihilator.common.config.ConfigChange;
+import com.mrerenk.slimeannihilator.common.rules.SpawnVerdict;
+import org.bukkit.World;
+import org.bukkit.entity.EntityType;
+import org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason;
+
+/**
+ * Profiling events around the plugin's main-thread work, so it can be told
+ * apart from other plugins in a profiler and lined up with GC pauses and
+ * tick spikes. Each begin method returns a handle to pass to the matching
+ * end method, or null while the event is not being recorded; end methods
+ * accept null and do nothing. Get the instance from {@link Profiling}.
+ */
+public interface Profiler {
+    Object beginSpawnDecision();
+
+    void endSpawnDecision(
+        Object event,
+        World world,
+        EntityType type,
+        SpawnReason reason,
+        SpawnVerdict verdict
+    );
+
+    /**
+     * Begins a main-thread scan over a world's entities or chunks. A scan
+     * spread over several ticks reports each tick's slice separately.
+     */
+    Object beginScan();
+
+    /**
+     * @param scan the kind of scan, as in the scan duration metric
+     * @param chunks chunks visited, or 0 for scans over the entity list
+     * @param entities managed entities found (or removed, for removals)
+     */
+    void endScan(
+        Object event,
+        World world,
+        String scan,
+        int chunks,
+        int entities
+    );
+
+    /**
+     * Begins a removal of all managed entities from a world. The event spans
+     * the whole removal, including the ticks between its slices.
+     */
+    Object beginRemoval();
+
+    /**
+     * @param trigger what started the removal, e.g. command or auto-remove
+     */
+    void endRemoval(
+        Object event,
+        World world,
+        String trigger,
+        int chunks,
+        int removed
+    );
+
+    Object beginConfigLoad();
+
+    void endConfigLoad(Object event, ConfigChange change, int revision);
+
+    Object beginConfigSave();
+
+    void endConfigSave(Object event, boolean saved);
+}
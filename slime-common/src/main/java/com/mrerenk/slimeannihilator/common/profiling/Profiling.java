@@ -0,0 +1,117 @@
+package com.mrerenk.slimeannihilator.common.profiling;
+
+import com.mrerenk.slimeannihilator.common.config.ConfigChange;
+import com.mrerenk.slimeannihilator.common.rules.SpawnVerdict;
+import org.bukkit.World;
+import org.bukkit.entity.EntityType;
+import org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason;
+
+/**
+ * Picks the {@link Profiler} once per JVM. The plugin targets Java 8, so
+ * the Java Flight Recorder events are compiled separately against Java 11
+ * and loaded by name only when jdk.jfr is present and recording is
+ * possible. Everywhere else profiling hooks do nothing and return null.
+ */
+public final class Profiling {
+
+    private static final String JFR_PROFILER =
+        "com.mrerenk.slimeannihilator.common.profiling.jfr.JfrProfiler";
+
+    private static final Profiler PROFILER = load();
+
+    private Profiling() {}
+
+    public static Profiler get() {
+        return PROFILER;
+    }
+
+    /**
+     * Checks if events are emitted to Java Flight Recorder
+     */
+    public static boolean isFlightRecorderEnabled() {
+        return !(PROFILER instanceof Disabled);
+    }
+
+    private static Profiler load() {
+        try {
+            Class<?> flightRecorder = Class.forName("jdk.jfr.FlightRecorder");
+            Object available = flightRecorder
+                .getMethod("isAvailable")
+                .invoke(null);
+            if (!Boolean.TRUE.equals(available)) {
+                return new Disabled();
+            }
+            return (Profiler) Class.forName(JFR_PROFILER)
+                .getDeclaredConstructor()
+                .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // No jdk.jfr (Java 8), or the events could not be loaded
+            return new Disabled();
+        }
+    }
+
+    private static final class Disabled implements Profiler {
+
+        @Override
+        public Object beginSpawnDecision() {
+            return null;
+        }
+
+        @Override
+        public void endSpawnDecision(
+            Object event,
+            World world,
+            EntityType type,
+            SpawnReason reason,
+            SpawnVerdict verdict
+        ) {}
+
+        @Override
+        public Object beginScan() {
+            return null;
+        }
+
+        @Override
+        public void endScan(
+            Object event,
+            World world,
+            String scan,
+            int chunks,
+            int entities
+        ) {}
+
+        @Override
+        public Object beginRemoval() {
+            return null;
+        }
+
+        @Override
+        public void endRemoval(
+            Object event,
+            World world,
+            String trigger,
+            int chunks,
+            int removed
+        ) {}
+
+        @Override
+        public Object beginConfigLoad() {
+            return null;
+        }
+
+        @Override
+        public void endConfigLoad(
+            Object event,
+            ConfigChange change,
+            int revision
+        ) {}
+
+        @Override
+        public Object beginConfigSave() {
+            return null;
+        }
+
+        @Override
+        public void endConfigSave(Object event, boolean saved) {}
+    }
+}
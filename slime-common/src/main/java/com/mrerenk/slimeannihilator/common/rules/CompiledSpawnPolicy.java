@@ -0,0 +1,87 @@
+package com.mrerenk.slimeannihilator.common.rules;
+
+import java.util.Arrays;
+import org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason;
+
+/**
+ * The spawn policy of one world, compiled into a table indexed by spawn
+ * reason. Each entry holds the positional rules that still have to be
+ * checked for that reason, in config order, followed by the verdict that
+ * applies when none of them match. Evaluation never allocates.
+ */
+public final class CompiledSpawnPolicy {
+
+    private static final SpawnRule[] NO_RULES = new SpawnRule[0];
+    private static final SpawnVerdict[] NO_VERDICTS = new SpawnVerdict[0];
+
+    private final Entry[] byReason;
+
+    CompiledSpawnPolicy(Entry[] byReason) {
+        this.byReason = byReason;
+    }
+
+    /**
+     * Creates a policy that gives the same verdict for every spawn
+     */
+    static CompiledSpawnPolicy constant(SpawnVerdict verdict) {
+        Entry[] entries = new Entry[SpawnReason.values().length];
+        Arrays.fill(entries, new Entry(NO_RULES, NO_VERDICTS, verdict));
+        return new CompiledSpawnPolicy(entries);
+    }
+
+    public SpawnVerdict evaluate(SpawnReason reason, SpawnContext context) {
+        Entry entry = byReason[reason.ordinal()];
+        SpawnRule[] rules = entry.rules;
+        for (int i = 0; i < rules.length; i++) {
+            if (rules[i].matches(context)) {
+                return entry.verdicts[i];
+            }
+        }
+        return entry.fallback;
+    }
+
+    /**
+     * Gets the verdict for a spawn reason when no positional rule matches
+     */
+    public SpawnVerdict getDefaultVerdict(SpawnReason reason) {
+        return byReason[reason.ordinal()].fallback;
+    }
+
+    /**
+     * Checks if every spawn at the same block gets the same verdict for a
+     * spawn reason, so the verdict can be cached per block. False when a
+     * rule checks slime size or light level.
+     */
+    public boolean isCacheable(SpawnReason reason) {
+        return byReason[reason.ordinal()].cacheable;
+    }
+
+    /**
+     * Gets the number of positional rules checked for a spawn reason
+     */
+    public int getRuleCount(SpawnReason reason) {
+        return byReason[reason.ordinal()].rules.length;
+    }
+
+    static final class Entry {
+
+        private final SpawnRule[] rules;
+        private final SpawnVerdict[] verdicts;
+        private final SpawnVerdict fallback;
+        private final boolean cacheable;
+
+        Entry(SpawnRule[] rules, SpawnVerdict[] verdicts, SpawnVerdict fallback) {
+            this.rules = rules;
+            this.verdicts = verdicts;
+            this.fallback = fallback;
+            boolean cacheable = true;
+            for (SpawnRule rule : rules) {
+                if (rule.hasPerSpawnConditions()) {
+                    cacheable = false;
+                    break;
+                }
+            }
+            this.cacheable = cacheable;
+        }
+    }
+}
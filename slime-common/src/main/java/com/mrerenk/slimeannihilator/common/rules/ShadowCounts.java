@@ -0,0 +1,70 @@
+package com.mrerenk.slimeannihilator.common.rules;
+
+import org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason;
+
+/**
+ * Counts how the candidate (shadow) policy's verdicts compare with the live
+ * policy's in one world, per spawn reason. Only used on the main thread.
+ */
+public final class ShadowCounts {
+
+    /** Both policies allowed the spawn */
+    public static final int AGREE_ALLOW = 0;
+    /** Both policies prevented the spawn */
+    public static final int AGREE_DENY = 1;
+    /** The candidate would have prevented a spawn the live policy allowed */
+    public static final int CANDIDATE_DENIES = 2;
+    /** The candidate would have allowed a spawn the live policy prevented */
+    public static final int CANDIDATE_ALLOWS = 3;
+
+    private static final int OUTCOMES = 4;
+    private static final SpawnReason[] REASONS = SpawnReason.values();
+
+    private final long[] counts = new long[REASONS.length * OUTCOMES];
+
+    public void record(
+        SpawnReason reason,
+        boolean livePrevent,
+        boolean candidatePrevent
+    ) {
+        int outcome;
+        if (livePrevent == candidatePrevent) {
+            outcome = livePrevent ? AGREE_DENY : AGREE_ALLOW;
+        } else {
+            outcome = candidatePrevent ? CANDIDATE_DENIES : CANDIDATE_ALLOWS;
+        }
+        counts[reason.ordinal() * OUTCOMES + outcome]++;
+    }
+
+    public long get(SpawnReason reason, int outcome) {
+        return counts[reason.ordinal() * OUTCOMES + outcome];
+    }
+
+    /**
+     * Gets the number of spawns of a reason evaluated by both policies
+     */
+    public long getEvaluated(SpawnReason reason) {
+        long evaluated = 0;
+        for (int outcome = 0; outcome < OUTCOMES; outcome++) {
+            evaluated += get(reason, outcome);
+        }
+        return evaluated;
+    }
+
+    /**
+     * Gets an outcome's count summed over all spawn reasons
+     */
+    public long getTotal(int outcome) {
+        long total = 0;
+        for (SpawnReason reason : REASONS) {
+            total += get(reason, outcome);
+        }
+        return total;
+    }
+
+    public void clear() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = 0;
+        }
+    }
+}
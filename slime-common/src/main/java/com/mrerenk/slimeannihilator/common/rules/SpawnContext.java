@@ -0,0 +1,136 @@
+package com.mrerenk.slimeannihilator.common.rules;
+
+import com.mrerenk.slimeannihilator.common.chunk.ChunkContextCache;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Biome;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Slime;
+
+/**
+ * Location-dependent facts about a spawn, read by rules with positional
+ * conditions. Biome and slime-chunk flag come from the per-chunk
+ * {@link ChunkContextCache}; light level is read from the block. Lookups are
+ * only done when a rule asks for them and are remembered for the rest of the
+ * evaluation. Instances are reused between spawns and are not thread-safe.
+ */
+public class SpawnContext {
+
+    private final ChunkContextCache chunkContextCache;
+
+    private World world;
+    private Location location;
+    private boolean hasLocation;
+    private int blockX;
+    private int blockY;
+    private int blockZ;
+    private int size;
+
+    private int chunkContext;
+    private int lightLevel;
+    private boolean lightLevelLoaded;
+
+    public SpawnContext(ChunkContextCache chunkContextCache) {
+        this.chunkContextCache = chunkContextCache;
+    }
+
+    /**
+     * Prepares the context for a spawn at a location
+     *
+     * @param entity the spawning entity, used for its slime size (may be null)
+     */
+    public SpawnContext reset(Location location, Entity entity) {
+        this.world = location.getWorld();
+        this.location = location;
+        this.hasLocation = true;
+        this.blockX = location.getBlockX();
+        this.blockY = location.getBlockY();
+        this.blockZ = location.getBlockZ();
+        this.size = entity instanceof Slime ? ((Slime) entity).getSize() : 0;
+        clearLookups();
+        return this;
+    }
+
+    /**
+     * Prepares the context for a world-wide question without a spawn
+     * location. Rules with positional conditions never match such a context.
+     */
+    public SpawnContext resetWithoutLocation(World world) {
+        this.world = world;
+        this.location = null;
+        this.hasLocation = false;
+        this.size = 0;
+        clearLookups();
+        return this;
+    }
+
+    private void clearLookups() {
+        this.chunkContext = 0;
+        this.lightLevelLoaded = false;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public boolean hasLocation() {
+        return hasLocation;
+    }
+
+    public int getBlockX() {
+        return blockX;
+    }
+
+    public int getBlockY() {
+        return blockY;
+    }
+
+    public int getBlockZ() {
+        return blockZ;
+    }
+
+    public int getChunkX() {
+        return blockX >> 4;
+    }
+
+    public int getChunkZ() {
+        return blockZ >> 4;
+    }
+
+    /**
+     * Gets the slime size of the spawning entity, or 0 if unknown
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the biome of the spawn chunk, sampled at its centre
+     */
+    public Biome getBiome() {
+        return ChunkContextCache.biomeOf(chunkContext());
+    }
+
+    public int getLightLevel() {
+        if (!lightLevelLoaded) {
+            lightLevel = location.getBlock().getLightLevel();
+            lightLevelLoaded = true;
+        }
+        return lightLevel;
+    }
+
+    public boolean isSlimeChunk() {
+        return ChunkContextCache.isSlimeChunk(chunkContext());
+    }
+
+    private int chunkContext() {
+        if (chunkContext == 0) {
+            chunkContext = chunkContextCache.getContext(
+                world,
+                getChunkX(),
+                getChunkZ()
+            );
+        }
+        return chunkContext;
+    }
+}
@@ -0,0 +1,211 @@
+package com.mrerenk.slimeannihilator.common.rules;
+
+import com.mrerenk.slimeannihilator.common.config.SlimeConfig;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.bukkit.World;
+import org.bukkit.entity.EntityType;
+import org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason;
+
+/**
+ * Compiles the configured spawn settings and rules into a
+ * {@link CompiledSpawnPolicy} for a world.
+ *
+ * <p>The hierarchy is: world exemptions, manual disable/enable, config
+ * rules in order, then the built-in spawn method and flat world settings.
+ */
+public class SpawnPolicyCompiler {
+
+    private static final SpawnVerdict EXEMPT = SpawnVerdict.allow(
+        "exempt",
+        "world is exempt from slime management"
+    );
+    private static final SpawnVerdict MANUALLY_DISABLED = SpawnVerdict.deny(
+        "manual-disable",
+        "spawning manually disabled"
+    );
+    private static final SpawnVerdict MANUALLY_ENABLED = SpawnVerdict.allow(
+        "manual-enable",
+        "spawning manually enabled, overriding global settings"
+    );
+    private static final SpawnVerdict EGG_DENIED = SpawnVerdict.deny(
+        "egg-spawning",
+        "egg spawning disabled"
+    );
+    private static final SpawnVerdict EGG_ALLOWED = SpawnVerdict.allow(
+        "egg-spawning",
+        "egg spawning enabled"
+    );
+    private static final SpawnVerdict COMMAND_DENIED = SpawnVerdict.deny(
+        "command-spawning",
+        "command spawning disabled"
+    );
+    private static final SpawnVerdict COMMAND_ALLOWED = SpawnVerdict.allow(
+        "command-spawning",
+        "command spawning enabled"
+    );
+    private static final SpawnVerdict CUSTOM_DENIED = SpawnVerdict.deny(
+        "custom-spawning",
+        "custom spawning disabled"
+    );
+    private static final SpawnVerdict CUSTOM_ALLOWED = SpawnVerdict.allow(
+        "custom-spawning",
+        "custom spawning enabled"
+    );
+    private static final SpawnVerdict FLAT_WORLD = SpawnVerdict.deny(
+        "flat-world",
+        "natural spawning blocked in flat world"
+    );
+    private static final SpawnVerdict DEFAULT = SpawnVerdict.allow(
+        "default",
+        "no rule applies"
+    );
+
+    private static final SpawnRule OUTSIDE_SLIME_CHUNK = new SpawnRule.Builder(
+        "outside-slime-chunk"
+    )
+        .reasons(EnumSet.of(SpawnReason.NATURAL))
+        .slimeChunk(false)
+        .build();
+    private static final SpawnVerdict OUTSIDE_SLIME_CHUNK_VERDICT =
+        SpawnVerdict.allow(
+            "outside-slime-chunk",
+            "natural spawn outside slime chunk"
+        );
+
+    private final SlimeConfig config;
+
+    public SpawnPolicyCompiler(SlimeConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * Compiles the policy of an entity type in a world
+     *
+     * @param flat whether the world has been classified as flat
+     */
+    public CompiledSpawnPolicy compile(
+        World world,
+        EntityType type,
+        boolean flat
+    ) {
+        return compile(world, type, flat, config.getSpawnRules());
+    }
+
+    /**
+     * Compiles the policy of an entity type in a world with other spawn rules
+     * in place of the configured ones, e.g. a candidate policy
+     */
+    public CompiledSpawnPolicy compile(
+        World world,
+        EntityType type,
+        boolean flat,
+        List<SpawnRule> spawnRules
+    ) {
+        String worldName = world.getName();
+        if (config.isWorldExempt(worldName)) {
+            return CompiledSpawnPolicy.constant(EXEMPT);
+        }
+        if (config.isWorldSpawningDisabled(worldName)) {
+            return CompiledSpawnPolicy.constant(MANUALLY_DISABLED);
+        }
+        if (config.isWorldSpawningEnabled(worldName)) {
+            return CompiledSpawnPolicy.constant(MANUALLY_ENABLED);
+        }
+
+        List<SpawnRule> worldRules = new ArrayList<>();
+        Map<SpawnRule, SpawnVerdict> ruleVerdicts = new IdentityHashMap<>();
+        for (SpawnRule rule : spawnRules) {
+            if (
+                rule.appliesToWorld(worldName) &&
+                rule.appliesToEntityType(type)
+            ) {
+                worldRules.add(rule);
+                ruleVerdicts.put(rule, rule.toVerdict());
+            }
+        }
+
+        SpawnReason[] reasons = SpawnReason.values();
+        CompiledSpawnPolicy.Entry[] entries =
+            new CompiledSpawnPolicy.Entry[reasons.length];
+        List<SpawnRule> rules = new ArrayList<>();
+        List<SpawnVerdict> verdicts = new ArrayList<>();
+
+        for (SpawnReason reason : reasons) {
+            rules.clear();
+            verdicts.clear();
+            SpawnVerdict fallback = null;
+
+            for (SpawnRule rule : worldRules) {
+                if (!rule.appliesToReason(reason)) {
+                    continue;
+                }
+                if (!rule.isPositional()) {
+                    // Everything after an unconditional rule is unreachable
+                    fallback = ruleVerdicts.get(rule);
+                    break;
+                }
+                rules.add(rule);
+                verdicts.add(ruleVerdicts.get(rule));
+            }
+
+            if (fallback == null) {
+                fallback = addBuiltIn(world, flat, reason, rules, verdicts);
+            }
+
+            entries[reason.ordinal()] = new CompiledSpawnPolicy.Entry(
+                rules.toArray(new SpawnRule[0]),
+                verdicts.toArray(new SpawnVerdict[0]),
+                fallback
+            );
+        }
+
+        return new CompiledSpawnPolicy(entries);
+    }
+
+    /**
+     * Appends the built-in conditional rules for a reason and returns the
+     * built-in fallback verdict
+     */
+    private SpawnVerdict addBuiltIn(
+        World world,
+        boolean flat,
+        SpawnReason reason,
+        List<SpawnRule> rules,
+        List<SpawnVerdict> verdicts
+    ) {
+        // Specific spawn methods override flat world restrictions
+        switch (reason) {
+            case SPAWNER_EGG:
+                return config.isPreventEggSpawning() ? EGG_DENIED : EGG_ALLOWED;
+            case COMMAND:
+                return config.isPreventCommandSpawning()
+                    ? COMMAND_DENIED
+                    : COMMAND_ALLOWED;
+            case CUSTOM:
+                return config.isPreventCustomSpawning()
+                    ? CUSTOM_DENIED
+                    : CUSTOM_ALLOWED;
+            default:
+                break;
+        }
+
+        if (!flat || !config.isPreventSpawningInFlatWorlds()) {
+            return DEFAULT;
+        }
+
+        // Natural spawns outside slime chunks can only be swamp spawns
+        if (
+            reason == SpawnReason.NATURAL &&
+            config.isAllowNaturalOutsideSlimeChunks() &&
+            world.getEnvironment() == World.Environment.NORMAL
+        ) {
+            rules.add(OUTSIDE_SLIME_CHUNK);
+            verdicts.add(OUTSIDE_SLIME_CHUNK_VERDICT);
+        }
+        return FLAT_WORLD;
+    }
+}
@@ -0,0 +1,406 @@
+package com.mrerenk.slimeannihilator.common.rules;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import org.bukkit.block.Biome;
+import org.bukkit.entity.EntityType;
+import org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason;
+
+/**
+ * A single declarative spawn rule from the {@code rules} section of the
+ * config. World and spawn reason conditions are resolved when a policy is
+ * compiled; the remaining conditions depend on the spawn position and are
+ * checked against a {@link SpawnContext}. Entity type conditions are also
+ * resolved at compile time, as policies are compiled per type.
+ */
+public final class SpawnRule {
+
+    private static final int MAX_SLIME_SIZE = 127;
+
+    private final String id;
+    private final boolean deny;
+    private final Set<String> worlds;
+    private final EnumSet<EntityType> entityTypes;
+    private final EnumSet<SpawnReason> reasons;
+    private final boolean[] biomes;
+    private final int minY;
+    private final int maxY;
+    private final int minLight;
+    private final int maxLight;
+    private final boolean[] sizes;
+    private final int minChunkX;
+    private final int maxChunkX;
+    private final int minChunkZ;
+    private final int maxChunkZ;
+    private final Boolean slimeChunk;
+    private final boolean positional;
+    private final boolean perSpawn;
+
+    private SpawnRule(Builder builder) {
+        this.id = builder.id;
+        this.deny = builder.deny;
+        this.worlds = builder.worlds;
+        this.entityTypes = builder.entityTypes;
+        this.reasons = builder.reasons;
+        this.biomes = builder.biomes;
+        this.minY = builder.minY;
+        this.maxY = builder.maxY;
+        this.minLight = builder.minLight;
+        this.maxLight = builder.maxLight;
+        this.sizes = builder.sizes;
+        this.minChunkX = builder.minChunkX;
+        this.maxChunkX = builder.maxChunkX;
+        this.minChunkZ = builder.minChunkZ;
+        this.maxChunkZ = builder.maxChunkZ;
+        this.slimeChunk = builder.slimeChunk;
+        this.positional =
+            biomes != null ||
+            minY != Integer.MIN_VALUE ||
+            maxY != Integer.MAX_VALUE ||
+            minLight > 0 ||
+            maxLight < 15 ||
+            sizes != null ||
+            minChunkX != Integer.MIN_VALUE ||
+            maxChunkX != Integer.MAX_VALUE ||
+            minChunkZ != Integer.MIN_VALUE ||
+            maxChunkZ != Integer.MAX_VALUE ||
+            slimeChunk != null;
+        this.perSpawn = sizes != null || minLight > 0 || maxLight < 15;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public boolean isDeny() {
+        return deny;
+    }
+
+    public boolean appliesToWorld(String worldName) {
+        return worlds == null || worlds.contains(worldName);
+    }
+
+    public boolean appliesToEntityType(EntityType type) {
+        return entityTypes == null || entityTypes.contains(type);
+    }
+
+    public boolean appliesToReason(SpawnReason reason) {
+        return reasons == null || reasons.contains(reason);
+    }
+
+    /**
+     * Whether the rule has conditions that depend on the spawn position. Rules
+     * without them match every spawn in their worlds and reasons.
+     */
+    public boolean isPositional() {
+        return positional;
+    }
+
+    /**
+     * Whether the rule has conditions that can differ between spawns at the
+     * same block: slime size, which is random per entity, and light level,
+     * which changes with the time of day
+     */
+    public boolean hasPerSpawnConditions() {
+        return perSpawn;
+    }
+
+    /**
+     * Checks the positional conditions of this rule. World, entity type and
+     * spawn reason are assumed to have been matched at compile time.
+     */
+    public boolean matches(SpawnContext context) {
+        if (!positional) {
+            return true;
+        }
+        if (!context.hasLocation()) {
+            return false;
+        }
+
+        // Cheapest checks first, lookups last
+        int y = context.getBlockY();
+        if (y < minY || y > maxY) {
+            return false;
+        }
+        int chunkX = context.getChunkX();
+        int chunkZ = context.getChunkZ();
+        if (
+            chunkX < minChunkX ||
+            chunkX > maxChunkX ||
+            chunkZ < minChunkZ ||
+            chunkZ > maxChunkZ
+        ) {
+            return false;
+        }
+        if (sizes != null) {
+            int size = context.getSize();
+            if (size < 0 || size >= sizes.length || !sizes[size]) {
+                return false;
+            }
+        }
+        if (slimeChunk != null && context.isSlimeChunk() != slimeChunk) {
+            return false;
+        }
+        if (biomes != null && !biomes[context.getBiome().ordinal()]) {
+            return false;
+        }
+        if (minLight > 0 || maxLight < 15) {
+            int light = context.getLightLevel();
+            if (light < minLight || light > maxLight) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates a verdict for spawns this rule matched
+     */
+    public SpawnVerdict toVerdict() {
+        return new SpawnVerdict(
+            deny,
+            id,
+            deny ? "denied by config rule" : "allowed by config rule"
+        );
+    }
+
+    /**
+     * Parses a rule from one entry of the {@code rules} config list
+     *
+     * @throws IllegalArgumentException if the entry is malformed
+     */
+    public static SpawnRule parse(Map<?, ?> map, int index) {
+        Builder builder = new Builder(
+            map.containsKey("id")
+                ? String.valueOf(map.get("id"))
+                : "rule-" + (index + 1)
+        );
+
+        Object action = map.get("action");
+        if (action == null) {
+            throw new IllegalArgumentException("missing 'action'");
+        }
+        String actionName = String.valueOf(action).toLowerCase(Locale.ROOT);
+        if (actionName.equals("deny")) {
+            builder.deny(true);
+        } else if (!actionName.equals("allow")) {
+            throw new IllegalArgumentException(
+                "unknown action '" + action + "' (expected allow or deny)"
+            );
+        }
+
+        if (map.containsKey("worlds")) {
+            builder.worlds(new HashSet<>(stringList(map.get("worlds"))));
+        }
+        if (map.containsKey("entity-types")) {
+            EnumSet<EntityType> types = EnumSet.noneOf(EntityType.class);
+            for (String name : stringList(map.get("entity-types"))) {
+                types.add(parseEnum(EntityType.class, name, "entity type"));
+            }
+            builder.entityTypes(types);
+        }
+        if (map.containsKey("reasons")) {
+            EnumSet<SpawnReason> reasons = EnumSet.noneOf(SpawnReason.class);
+            for (String name : stringList(map.get("reasons"))) {
+                reasons.add(
+                    parseEnum(SpawnReason.class, name, "spawn reason")
+                );
+            }
+            builder.reasons(reasons);
+        }
+        if (map.containsKey("biomes")) {
+            Set<Biome> biomes = EnumSet.noneOf(Biome.class);
+            for (String name : stringList(map.get("biomes"))) {
+                biomes.add(parseEnum(Biome.class, name, "biome"));
+            }
+            builder.biomes(biomes);
+        }
+        if (map.containsKey("min-y")) {
+            builder.minY = intValue(map.get("min-y"), "min-y");
+        }
+        if (map.containsKey("max-y")) {
+            builder.maxY = intValue(map.get("max-y"), "max-y");
+        }
+        if (map.containsKey("min-light")) {
+            builder.minLight = intValue(map.get("min-light"), "min-light");
+        }
+        if (map.containsKey("max-light")) {
+            builder.maxLight = intValue(map.get("max-light"), "max-light");
+        }
+        if (map.containsKey("sizes")) {
+            Set<Integer> sizes = new HashSet<>();
+            for (Object size : listValue(map.get("sizes"))) {
+                sizes.add(intValue(size, "sizes"));
+            }
+            builder.sizes(sizes);
+        }
+        if (map.containsKey("chunk-x")) {
+            int[] range = range(map.get("chunk-x"), "chunk-x");
+            builder.minChunkX = range[0];
+            builder.maxChunkX = range[1];
+        }
+        if (map.containsKey("chunk-z")) {
+            int[] range = range(map.get("chunk-z"), "chunk-z");
+            builder.minChunkZ = range[0];
+            builder.maxChunkZ = range[1];
+        }
+        if (map.containsKey("slime-chunk")) {
+            builder.slimeChunk(
+                booleanValue(map.get("slime-chunk"), "slime-chunk")
+            );
+        }
+
+        return builder.build();
+    }
+
+    private static List<?> listValue(Object value) {
+        if (value instanceof List) {
+            return (List<?>) value;
+        }
+        return Collections.singletonList(value);
+    }
+
+    private static List<String> stringList(Object value) {
+        List<String> strings = new ArrayList<>();
+        for (Object element : listValue(value)) {
+            strings.add(String.valueOf(element));
+        }
+        return strings;
+    }
+
+    private static int intValue(Object value, String key) {
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        try {
+            return Integer.parseInt(String.valueOf(value).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(
+                "'" + key + "' must be a number, got '" + value + "'"
+            );
+        }
+    }
+
+    private static boolean booleanValue(Object value, String key) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        String text = String.valueOf(value).trim();
+        if (text.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (text.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException(
+            "'" + key + "' must be true or false, got '" + value + "'"
+        );
+    }
+
+    private static int[] range(Object value, String key) {
+        List<?> bounds = listValue(value);
+        if (bounds.size() != 2) {
+            throw new IllegalArgumentException(
+                "'" + key + "' must be a [min, max] pair"
+            );
+        }
+        int min = intValue(bounds.get(0), key);
+        int max = intValue(bounds.get(1), key);
+        return new int[] { Math.min(min, max), Math.max(min, max) };
+    }
+
+    private static <E extends Enum<E>> E parseEnum(
+        Class<E> type,
+        String name,
+        String description
+    ) {
+        try {
+            return Enum.valueOf(type, name.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(
+                "unknown " + description + " '" + name + "'"
+            );
+        }
+    }
+
+    /**
+     * Builds rules in code, used for the built-in conditional rules
+     */
+    public static final class Builder {
+
+        private final String id;
+        private boolean deny;
+        private Set<String> worlds;
+        private EnumSet<EntityType> entityTypes;
+        private EnumSet<SpawnReason> reasons;
+        private boolean[] biomes;
+        private int minY = Integer.MIN_VALUE;
+        private int maxY = Integer.MAX_VALUE;
+        private int minLight = 0;
+        private int maxLight = 15;
+        private boolean[] sizes;
+        private int minChunkX = Integer.MIN_VALUE;
+        private int maxChunkX = Integer.MAX_VALUE;
+        private int minChunkZ = Integer.MIN_VALUE;
+        private int maxChunkZ = Integer.MAX_VALUE;
+        private Boolean slimeChunk;
+
+        public Builder(String id) {
+            this.id = id;
+        }
+
+        public Builder deny(boolean deny) {
+            this.deny = deny;
+            return this;
+        }
+
+        public Builder worlds(Set<String> worlds) {
+            this.worlds = worlds;
+            return this;
+        }
+
+        public Builder entityTypes(EnumSet<EntityType> entityTypes) {
+            this.entityTypes = entityTypes;
+            return this;
+        }
+
+        public Builder reasons(EnumSet<SpawnReason> reasons) {
+            this.reasons = reasons;
+            return this;
+        }
+
+        public Builder biomes(Collection<Biome> biomes) {
+            this.biomes = new boolean[Biome.values().length];
+            for (Biome biome : biomes) {
+                this.biomes[biome.ordinal()] = true;
+            }
+            return this;
+        }
+
+        public Builder sizes(Collection<Integer> sizes) {
+            this.sizes = new boolean[MAX_SLIME_SIZE + 1];
+            for (int size : sizes) {
+                if (size >= 0 && size <= MAX_SLIME_SIZE) {
+                    this.sizes[size] = true;
+                }
+            }
+            return this;
+        }
+
+        public Builder slimeChunk(Boolean slimeChunk) {
+            this.slimeChunk = slimeChunk;
+            return this;
+        }
+
+        public SpawnRule build() {
+            return new SpawnRule(this);
+        }
+    }
+}
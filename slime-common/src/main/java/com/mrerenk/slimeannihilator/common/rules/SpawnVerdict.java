@@ -0,0 +1,56 @@
+package com.mrerenk.slimeannihilator.common.rules;
+
+/**
+ * Outcome of evaluating the spawn policy for a spawn. Verdicts are created
+ * once when a policy is compiled and shared by every spawn they apply to.
+ */
+public final class SpawnVerdict {
+
+    private final boolean prevent;
+    private final String ruleId;
+    private final String explanation;
+
+    public SpawnVerdict(boolean prevent, String ruleId, String explanation) {
+        this.prevent = prevent;
+        this.ruleId = ruleId;
+        this.explanation = explanation;
+    }
+
+    public static SpawnVerdict allow(String ruleId, String explanation) {
+        return new SpawnVerdict(false, ruleId, explanation);
+    }
+
+    public static SpawnVerdict deny(String ruleId, String explanation) {
+        return new SpawnVerdict(true, ruleId, explanation);
+    }
+
+    public boolean isPrevent() {
+        return prevent;
+    }
+
+    /**
+     * Gets the id of the rule that produced this verdict
+     */
+    public String getRuleId() {
+        return ruleId;
+    }
+
+    /**
+     * Gets a human readable explanation of why the rule applied
+     */
+    public String getExplanation() {
+        return explanation;
+    }
+
+    @Override
+    public String toString() {
+        return (
+            (prevent ? "DENY" : "ALLOW") +
+            " by " +
+            ruleId +
+            " (" +
+            explanation +
+            ")"
+        );
+    }
+}
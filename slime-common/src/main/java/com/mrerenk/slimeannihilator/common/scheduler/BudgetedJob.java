@@ -0,0 +1,22 @@
+package com.mrerenk.slimeannihilator.common.scheduler;
+
+/**
+ * A unit of main-thread work that can be split across ticks
+ */
+public interface BudgetedJob {
+
+    /**
+     * Does as much work as fits before the deadline
+     *
+     * @param deadlineNanos {@link System#nanoTime()} value to stop at
+     * @return true once the job is complete
+     */
+    boolean run(long deadlineNanos);
+
+    /**
+     * Called instead of any further runs when the scheduler stops with the
+     * job still queued. Jobs that hand out a future complete it here, with
+     * their partial result or exceptionally.
+     */
+    default void cancel() {}
+}
@@ -0,0 +1,177 @@
+package com.mrerenk.slimeannihilator.common.scheduler;
+
+import com.mrerenk.slimeannihilator.common.config.SlimeConfig;
+import java.util.ArrayDeque;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Runs cleanup work on the main thread within a per-tick time budget that
+ * shrinks as the server gets busier. The budget is the headroom between the
+ * current MSPT and the configured pause threshold, capped at the configured
+ * maximum, so cleanup never pushes a tick past the threshold. Above it, work
+ * pauses entirely until the server recovers.
+ *
+ * <p>On Paper the MSPT comes from the tick events. Elsewhere it is estimated
+ * from the time between runs of a repeating task: that cannot see how busy
+ * a tick is while the server keeps up, only that it falls behind, so ticks
+ * that run on time count as idle and late ticks count at their full length.
+ */
+public class LoadAwareScheduler {
+
+    private static final double TICK_MILLIS = 50.0;
+    // Ticks to measure before running any work, so startup lag is seen
+    private static final int WARMUP_TICKS = 20;
+    private static final String PAPER_TICK_EVENT =
+        "com.destroystokyo.paper.event.server.ServerTickEndEvent";
+
+    private final Plugin plugin;
+    private final SlimeConfig config;
+    private final TickMonitor monitor = new TickMonitor();
+    private final ArrayDeque<BudgetedJob> jobs = new ArrayDeque<>();
+
+    private BukkitTask task;
+    private boolean paperTimings;
+    private long lastRunNanos;
+    private boolean paused;
+
+    public LoadAwareScheduler(Plugin plugin, SlimeConfig config) {
+        this.plugin = plugin;
+        this.config = config;
+    }
+
+    public void start() {
+        if (task != null) {
+            return;
+        }
+        try {
+            Class.forName(PAPER_TICK_EVENT);
+            plugin
+                .getServer()
+                .getPluginManager()
+                .registerEvents(new PaperTickListener(monitor), plugin);
+            paperTimings = true;
+        } catch (ClassNotFoundException e) {
+            paperTimings = false;
+        }
+        task = plugin
+            .getServer()
+            .getScheduler()
+            .runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    /**
+     * Stops the scheduler. Queued jobs are cancelled, including any queued by
+     * the completion of another while stopping.
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        BudgetedJob job;
+        while ((job = jobs.poll()) != null) {
+            try {
+                job.cancel();
+            } catch (RuntimeException e) {
+                plugin
+                    .getLogger()
+                    .warning(
+                        "Could not cancel a queued job: " + e.getMessage()
+                    );
+            }
+        }
+    }
+
+    /**
+     * Queues a job to run in the tick budgets of upcoming ticks
+     */
+    public void submit(BudgetedJob job) {
+        jobs.add(job);
+    }
+
+    /**
+     * Scales a per-tick time budget to the current server load
+     *
+     * @param maxNanos the budget when the server is idle
+     * @return the budget for this tick, 0 when work should pause
+     */
+    public long scaleBudget(long maxNanos) {
+        if (monitor.getSamples() < WARMUP_TICKS) {
+            return 0;
+        }
+        double headroomMillis =
+            config.getThrottlePauseMspt() - monitor.getAverageMspt();
+        if (headroomMillis <= 0) {
+            return 0;
+        }
+        return Math.min(maxNanos, (long) (headroomMillis * 1_000_000));
+    }
+
+    public double getAverageMspt() {
+        return monitor.getAverageMspt();
+    }
+
+    /**
+     * Whether the MSPT comes from Paper's tick events rather than an estimate
+     */
+    public boolean hasPaperTimings() {
+        return paperTimings;
+    }
+
+    /**
+     * Whether queued work is currently held back by server load
+     */
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public int getPendingJobs() {
+        return jobs.size();
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+        if (!paperTimings) {
+            if (lastRunNanos != 0) {
+                double interval = (now - lastRunNanos) / 1_000_000.0;
+                monitor.recordTick(interval > TICK_MILLIS + 1 ? interval : 0);
+            }
+            lastRunNanos = now;
+        }
+
+        if (jobs.isEmpty()) {
+            paused = false;
+            return;
+        }
+
+        long budget = scaleBudget(config.getThrottleMaxTickBudgetNanos());
+        if (budget <= 0) {
+            if (!paused) {
+                debugLog(
+                    "Pausing cleanup work at " +
+                    String.format("%.1f", monitor.getAverageMspt()) +
+                    " MSPT (" +
+                    jobs.size() +
+                    " jobs pending)"
+                );
+            }
+            paused = true;
+            return;
+        }
+        paused = false;
+
+        long deadline = now + budget;
+        while (!jobs.isEmpty() && System.nanoTime() < deadline) {
+            if (jobs.peek().run(deadline)) {
+                jobs.poll();
+            }
+        }
+    }
+
+    private void debugLog(String message) {
+        if (config.isEnableDebugMessages()) {
+            plugin.getLogger().info("[DEBUG] " + message);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.mrerenk.slimeannihilator.common.scheduler;
+
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+
+/**
+ * Feeds exact tick durations into a {@link TickMonitor}. Only registered on
+ * Paper servers; this class must not be loaded elsewhere.
+ */
+class PaperTickListener implements Listener {
+
+    private final TickMonitor monitor;
+
+    PaperTickListener(TickMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onTickEnd(ServerTickEndEvent event) {
+        monitor.recordTick(event.getTickDuration());
+    }
+}
@@ -0,0 +1,33 @@
+package com.mrerenk.slimeannihilator.common.scheduler;
+
+/**
+ * Smoothed tick duration (MSPT) of the server. Fed by Paper's tick events
+ * where available and by {@link LoadAwareScheduler}'s fallback estimate
+ * otherwise. Only used on the main thread.
+ */
+public class TickMonitor {
+
+    // Weight of the newest tick, roughly a one-second moving window
+    private static final double ALPHA = 0.1;
+
+    private double averageMspt;
+    private long samples;
+
+    public void recordTick(double millis) {
+        averageMspt = samples == 0
+            ? millis
+            : averageMspt + ALPHA * (millis - averageMspt);
+        samples++;
+    }
+
+    public double getAverageMspt() {
+        return averageMspt;
+    }
+
+    /**
+     * Gets the number of ticks measured so far
+     */
+    public long getSamples() {
+        return samples;
+    }
+}
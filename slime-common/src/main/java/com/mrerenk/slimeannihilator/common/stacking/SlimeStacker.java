@@ -0,0 +1,352 @@
+package com.mrerenk.slimeannihilator.common.stacking;
+
+import com.mrerenk.slimeannihilator.common.SlimeManager;
+import com.mrerenk.slimeannihilator.common.config.SlimeConfig;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import org.bukkit.ChatColor;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.MagmaCube;
+import org.bukkit.entity.Slime;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.entity.EntityDeathEvent;
+import org.bukkit.event.entity.SlimeSplitEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Collapses co-located slimes of equal size into a single entity carrying a
+ * stack count. Merging runs in passes over loaded chunks, spread across ticks
+ * so that each tick only spends the configured time budget, scaled down as
+ * the server gets busier. Any managed slime-like type (slimes, magma cubes)
+ * is stacked, but only with entities of the same type.
+ */
+public class SlimeStacker implements Listener {
+
+    private static final String NAME_PREFIX = ChatColor.GREEN + "x";
+
+    private final Plugin plugin;
+    private final SlimeManager slimeManager;
+    private final SlimeConfig config;
+    private final NamespacedKey stackKey;
+    private final ArrayDeque<Chunk> pendingChunks = new ArrayDeque<>();
+
+    private BukkitTask task;
+    private int ticksUntilNextPass;
+    private int mergedThisPass;
+    private long passNanos;
+    private boolean unstacking;
+
+    public SlimeStacker(Plugin plugin, SlimeManager slimeManager) {
+        this.plugin = plugin;
+        this.slimeManager = slimeManager;
+        this.config = slimeManager.getConfig();
+        this.stackKey = new NamespacedKey(plugin, "stack_size");
+    }
+
+    /**
+     * Starts the merge task. The task is cheap while stacking is disabled, so
+     * toggling it through a config reload does not require a restart.
+     */
+    public void start() {
+        if (task != null) {
+            return;
+        }
+        ticksUntilNextPass = config.getStackingIntervalTicks();
+        task = plugin
+            .getServer()
+            .getScheduler()
+            .runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    /**
+     * Stops the merge task and drops any unfinished pass
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        pendingChunks.clear();
+    }
+
+    /**
+     * Whether a stack remainder is currently being spawned. Spawn listeners
+     * use this to let the remainder through regardless of spawn policy.
+     */
+    public boolean isUnstacking() {
+        return unstacking;
+    }
+
+    /**
+     * Gets the number of slimes an entity represents (1 for unstacked slimes)
+     */
+    public int getStackSize(Entity entity) {
+        Integer size = entity
+            .getPersistentDataContainer()
+            .get(stackKey, PersistentDataType.INTEGER);
+        return size == null ? 1 : size;
+    }
+
+    private void setStackSize(Slime slime, int size) {
+        if (size <= 1) {
+            slime.getPersistentDataContainer().remove(stackKey);
+            slime.setCustomName(null);
+            slime.setCustomNameVisible(false);
+            return;
+        }
+        slime
+            .getPersistentDataContainer()
+            .set(stackKey, PersistentDataType.INTEGER, size);
+        slime.setCustomName(NAME_PREFIX + size);
+        slime.setCustomNameVisible(true);
+    }
+
+    private void tick() {
+        if (!config.isStackingEnabled()) {
+            pendingChunks.clear();
+            return;
+        }
+
+        if (pendingChunks.isEmpty()) {
+            if (--ticksUntilNextPass > 0) {
+                return;
+            }
+            ticksUntilNextPass = config.getStackingIntervalTicks();
+            long start = System.nanoTime();
+            queueLoadedChunks();
+            mergedThisPass = 0;
+            passNanos = System.nanoTime() - start;
+        }
+
+        // Shrinks with server load and drops to 0 while the server lags
+        long budget = slimeManager
+            .getScheduler()
+            .scaleBudget(config.getStackingTickBudgetNanos());
+        if (budget <= 0) {
+            return;
+        }
+        long tickStart = System.nanoTime();
+        long deadline = tickStart + budget;
+        while (!pendingChunks.isEmpty() && System.nanoTime() < deadline) {
+            Chunk chunk = pendingChunks.poll();
+            if (chunk.isLoaded()) {
+                mergedThisPass += mergeChunk(chunk);
+            }
+        }
+        passNanos += System.nanoTime() - tickStart;
+
+        if (pendingChunks.isEmpty()) {
+            // Time summed over all ticks the pass was spread across
+            slimeManager.getMetrics().recordScan("stacking", passNanos);
+            slimeManager.getMetrics().recordStackMerges(mergedThisPass);
+            if (mergedThisPass > 0) {
+                debugLog("Stacking pass merged " + mergedThisPass + " slimes");
+            }
+            mergedThisPass = 0;
+        }
+    }
+
+    private void queueLoadedChunks() {
+        for (World world : plugin.getServer().getWorlds()) {
+            if (slimeManager.isWorldExempt(world)) {
+                continue;
+            }
+            pendingChunks.addAll(slimeManager.getSweepChunks(world));
+        }
+    }
+
+    /**
+     * Merges slimes of equal size within the stacking radius of each other.
+     * Returns the number of entities removed by merging.
+     */
+    private int mergeChunk(Chunk chunk) {
+        List<Slime> candidates = new ArrayList<>();
+        for (Entity entity : chunk.getEntities()) {
+            if (
+                !(entity instanceof Slime) ||
+                !slimeManager.isManaged(entity.getType()) ||
+                !entity.isValid()
+            ) {
+                continue;
+            }
+            Slime slime = (Slime) entity;
+            // Leave player-named and leashed slimes alone
+            if (slime.isLeashed() || isNamedByPlayer(slime)) {
+                continue;
+            }
+            if (
+                isStackLabel(slime.getCustomName()) && getStackSize(slime) == 1
+            ) {
+                // A stack label without a stack, copied from a split parent
+                setStackSize(slime, 1);
+            }
+            candidates.add(slime);
+        }
+
+        if (candidates.size() < 2) {
+            return 0;
+        }
+
+        double radiusSquared =
+            config.getStackingRadius() * config.getStackingRadius();
+        int maxStackSize = config.getStackingMaxStackSize();
+        boolean[] absorbed = new boolean[candidates.size()];
+        int merged = 0;
+
+        for (int i = 0; i < candidates.size(); i++) {
+            if (absorbed[i]) {
+                continue;
+            }
+            Slime anchor = candidates.get(i);
+            int stack = getStackSize(anchor);
+            if (stack >= maxStackSize) {
+                continue;
+            }
+
+            Location anchorLocation = anchor.getLocation();
+            int originalStack = stack;
+            for (int j = i + 1; j < candidates.size(); j++) {
+                if (absorbed[j]) {
+                    continue;
+                }
+                Slime other = candidates.get(j);
+                if (
+                    other.getType() != anchor.getType() ||
+                    other.getSize() != anchor.getSize() ||
+                    other.getLocation().distanceSquared(anchorLocation) >
+                    radiusSquared
+                ) {
+                    continue;
+                }
+                int otherStack = getStackSize(other);
+                if (stack + otherStack > maxStackSize) {
+                    continue;
+                }
+                stack += otherStack;
+                other.remove();
+                absorbed[j] = true;
+                merged++;
+            }
+
+            if (stack != originalStack) {
+                setStackSize(anchor, stack);
+            }
+        }
+
+        return merged;
+    }
+
+    private boolean isNamedByPlayer(Slime slime) {
+        String name = slime.getCustomName();
+        return (
+            name != null &&
+            !isStackLabel(name) &&
+            !slime
+                .getPersistentDataContainer()
+                .has(stackKey, PersistentDataType.INTEGER)
+        );
+    }
+
+    /**
+     * Checks if a custom name is a stack count set by this plugin
+     */
+    private static boolean isStackLabel(String name) {
+        if (
+            name == null ||
+            !name.startsWith(NAME_PREFIX) ||
+            name.length() == NAME_PREFIX.length()
+        ) {
+            return false;
+        }
+        for (int i = NAME_PREFIX.length(); i < name.length(); i++) {
+            if (!Character.isDigit(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Clears the stack label of a slime about to split. The children copy
+     * the parent's custom name but not its stack count, so they would
+     * otherwise show a wrong count and pass for player-named slimes.
+     */
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onSlimeSplit(SlimeSplitEvent event) {
+        Slime slime = event.getEntity();
+        if (isStackLabel(slime.getCustomName())) {
+            slime.setCustomName(null);
+            slime.setCustomNameVisible(false);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.HIGH)
+    public void onEntityDeath(EntityDeathEvent event) {
+        if (!(event.getEntity() instanceof Slime)) {
+            return;
+        }
+
+        Slime slime = (Slime) event.getEntity();
+        int stack = getStackSize(slime);
+        if (stack <= 1) {
+            return;
+        }
+
+        if (config.isStackingMultiplyLoot()) {
+            multiplyDrops(event.getDrops(), stack);
+            event.setDroppedExp(event.getDroppedExp() * stack);
+            return;
+        }
+
+        // Unstack one at a time: the killed slime dies (and splits) normally,
+        // the rest of the stack lives on as a new entity in its place
+        final int size = slime.getSize();
+        final int remainder = stack - 1;
+        Class<? extends Slime> apiClass = slime instanceof MagmaCube
+            ? MagmaCube.class
+            : Slime.class;
+        unstacking = true;
+        try {
+            slime
+                .getWorld()
+                .spawn(slime.getLocation(), apiClass, spawned -> {
+                    spawned.setSize(size);
+                    setStackSize(spawned, remainder);
+                });
+        } finally {
+            unstacking = false;
+        }
+    }
+
+    private void multiplyDrops(List<ItemStack> drops, int multiplier) {
+        List<ItemStack> multiplied = new ArrayList<>();
+        for (ItemStack drop : drops) {
+            int remaining = drop.getAmount() * multiplier;
+            int maxStackSize = Math.max(1, drop.getMaxStackSize());
+            while (remaining > 0) {
+                ItemStack part = drop.clone();
+                part.setAmount(Math.min(remaining, maxStackSize));
+                multiplied.add(part);
+                remaining -= part.getAmount();
+            }
+        }
+        drops.clear();
+        drops.addAll(multiplied);
+    }
+
+    private void debugLog(String message) {
+        if (config.isEnableDebugMessages()) {
+            plugin.getLogger().info("[DEBUG] " + message);
+        }
+    }
+}
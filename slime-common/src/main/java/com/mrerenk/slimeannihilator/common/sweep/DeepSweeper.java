@@ -0,0 +1,597 @@
+package com.mrerenk.slimeannihilator.common.sweep;
+
+import com.mrerenk.slimeannihilator.common.SlimeManager;
+import com.mrerenk.slimeannihilator.common.adapter.EntityAdapter;
+import com.mrerenk.slimeannihilator.common.config.SlimeConfig;
+import com.mrerenk.slimeannihilator.common.profiling.Profiler;
+import com.mrerenk.slimeannihilator.common.profiling.Profiling;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.bukkit.ChatColor;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.WorldBorder;
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Removes managed entities from every generated chunk of a world, not only
+ * the loaded ones. The chunks to visit come from the world's region files,
+ * clipped to the world border. Unloaded chunks are loaded with Paper's
+ * asynchronous chunk loading, never generating new ones, with at most
+ * sweep.max-in-flight loads pending; each is held by a plugin ticket until
+ * it has been swept and then left to unload. The synchronous part runs in
+ * a load-aware per-tick budget like other cleanup work. On servers where
+ * entities load separately from chunks, a chunk waits in the queue until
+ * its entities are loaded. Other plugins can veto a sweep as it starts or
+ * resumes through the PreSlimeRemoveEvent.
+ *
+ * <p>Progress is saved to {@code sweeps/<world uid>.yml} periodically and
+ * when the plugin disables, and a sweep resumes from there when its world
+ * is loaded again. Requires Paper.
+ */
+public class DeepSweeper implements Listener {
+
+    // Without region files, only a world border this small is swept
+    private static final double MAX_BORDER_SWEEP_BLOCKS = 100_000;
+    // Reported to profiling and to other plugins' removal events
+    private static final String TRIGGER = "sweep";
+    private static final Pattern REGION_FILE = Pattern.compile(
+        "r\\.(-?\\d+)\\.(-?\\d+)\\.mca"
+    );
+
+    private final Plugin plugin;
+    private final SlimeManager slimeManager;
+    private final SlimeConfig config;
+    private final EntityAdapter entityAdapter;
+    private final File directory;
+    private final boolean supported;
+    private final Map<UUID, Sweep> sweeps = new LinkedHashMap<>();
+
+    private BukkitTask task;
+    private long nextCheckpointAt;
+
+    public DeepSweeper(
+        Plugin plugin,
+        SlimeManager slimeManager,
+        EntityAdapter entityAdapter
+    ) {
+        this.plugin = plugin;
+        this.slimeManager = slimeManager;
+        this.config = slimeManager.getConfig();
+        this.entityAdapter = entityAdapter;
+        this.directory = new File(plugin.getDataFolder(), "sweeps");
+        this.supported = hasAsyncChunkLoading();
+    }
+
+    private static boolean hasAsyncChunkLoading() {
+        try {
+            World.class.getMethod(
+                "getChunkAtAsync",
+                int.class,
+                int.class,
+                boolean.class
+            );
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks if the server can load chunks asynchronously (Paper)
+     */
+    public boolean isSupported() {
+        return supported;
+    }
+
+    /**
+     * Starts the sweep task and resumes the sweeps of loaded worlds that
+     * were interrupted
+     */
+    public void start() {
+        if (task != null) {
+            return;
+        }
+        task = plugin
+            .getServer()
+            .getScheduler()
+            .runTaskTimer(plugin, this::tick, 1L, 1L);
+        if (supported) {
+            for (World world : plugin.getServer().getWorlds()) {
+                resume(world);
+            }
+        }
+    }
+
+    /**
+     * Stops all sweeps, saving their progress so they resume on the next
+     * start
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        for (Sweep sweep : sweeps.values()) {
+            writeCheckpoint(sweep);
+            release(sweep);
+        }
+        sweeps.clear();
+    }
+
+    /**
+     * Starts sweeping a world from its first region
+     *
+     * @param sender told when the sweep finishes, or null
+     * @throws IOException if the world's chunks cannot be listed
+     */
+    public Sweep start(World world, CommandSender sender) throws IOException {
+        if (!supported) {
+            throw new IllegalStateException("Deep sweeps require Paper");
+        }
+        if (sweeps.containsKey(world.getUID())) {
+            throw new IllegalStateException(
+                "World '" + world.getName() + "' is already being swept"
+            );
+        }
+        if (!slimeManager.callPreRemove(world, TRIGGER, null)) {
+            throw new IllegalStateException("cancelled by another plugin");
+        }
+        Sweep sweep = create(
+            world,
+            null,
+            0,
+            System.currentTimeMillis(),
+            sender
+        );
+        sweeps.put(world.getUID(), sweep);
+        writeCheckpoint(sweep);
+        plugin
+            .getLogger()
+            .info(
+                "Deep sweep of '" +
+                world.getName() +
+                "' started over " +
+                sweep.getRegionCount() +
+                " regions"
+            );
+        return sweep;
+    }
+
+    /**
+     * Stops a world's sweep and forgets its progress
+     *
+     * @return false if the world was not being swept
+     */
+    public boolean cancel(World world) {
+        Sweep sweep = sweeps.remove(world.getUID());
+        if (sweep == null) {
+            return false;
+        }
+        release(sweep);
+        deleteCheckpoint(world.getUID());
+        return true;
+    }
+
+    /**
+     * Gets the sweep of a world, or null
+     */
+    public Sweep getSweep(World world) {
+        return sweeps.get(world.getUID());
+    }
+
+    public Collection<Sweep> getSweeps() {
+        return Collections.unmodifiableCollection(sweeps.values());
+    }
+
+    /**
+     * Saves and drops the sweep of an unloaded world; it resumes when the
+     * world is loaded again
+     */
+    public void releaseWorld(UUID worldId) {
+        Sweep sweep = sweeps.remove(worldId);
+        if (sweep != null) {
+            writeCheckpoint(sweep);
+            release(sweep);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        if (supported) {
+            resume(event.getWorld());
+        }
+    }
+
+    private void resume(World world) {
+        File file = checkpointFile(world.getUID());
+        if (!file.isFile() || sweeps.containsKey(world.getUID())) {
+            return;
+        }
+        if (slimeManager.isWorldExempt(world)) {
+            plugin
+                .getLogger()
+                .info(
+                    "Not resuming the deep sweep of exempt world '" +
+                    world.getName() +
+                    "'"
+                );
+            return;
+        }
+        if (!slimeManager.callPreRemove(world, TRIGGER, null)) {
+            plugin
+                .getLogger()
+                .info(
+                    "Not resuming the deep sweep of '" +
+                    world.getName() +
+                    "': cancelled by another plugin"
+                );
+            return;
+        }
+        YamlConfiguration checkpoint = YamlConfiguration.loadConfiguration(
+            file
+        );
+        try {
+            Sweep sweep = create(
+                world,
+                new int[] {
+                    checkpoint.getInt("region-x"),
+                    checkpoint.getInt("region-z"),
+                },
+                checkpoint.getInt("chunk"),
+                checkpoint.getLong("started", System.currentTimeMillis()),
+                null
+            );
+            sweep.restoreCounters(
+                checkpoint.getLong("swept", 0),
+                checkpoint.getLong("removed", 0),
+                checkpoint.getLong("missing", 0)
+            );
+            sweeps.put(world.getUID(), sweep);
+            plugin
+                .getLogger()
+                .info(
+                    "Resuming deep sweep of '" +
+                    world.getName() +
+                    "' at " +
+                    Math.round(sweep.getProgress() * 100) +
+                    "%"
+                );
+        } catch (IOException e) {
+            plugin
+                .getLogger()
+                .warning(
+                    "Could not resume the deep sweep of '" +
+                    world.getName() +
+                    "': " +
+                    e.getMessage()
+                );
+        }
+    }
+
+    /**
+     * Lists the regions to sweep and positions a new sweep
+     *
+     * @param from region to resume at, or null to start from the beginning
+     * @param chunk index of the chunk within that region to resume at
+     */
+    private Sweep create(
+        World world,
+        int[] from,
+        int chunk,
+        long startedAt,
+        CommandSender sender
+    ) throws IOException {
+        int[] border = borderChunks(world.getWorldBorder());
+        List<int[]> regions = listRegions(world);
+        if (regions.isEmpty()) {
+            if (world.getWorldBorder().getSize() > MAX_BORDER_SWEEP_BLOCKS) {
+                throw new IOException(
+                    "no region files found and the world border is too large to sweep without them"
+                );
+            }
+            for (int x = border[0] >> 5; x <= border[2] >> 5; x++) {
+                for (int z = border[1] >> 5; z <= border[3] >> 5; z++) {
+                    regions.add(new int[] { x, z });
+                }
+            }
+        }
+        regions.sort(DeepSweeper::compareRegions);
+
+        int[] regionsX = new int[regions.size()];
+        int[] regionsZ = new int[regions.size()];
+        int cursor = regions.size() * Sweep.REGION_CHUNKS;
+        for (int i = regions.size() - 1; i >= 0; i--) {
+            regionsX[i] = regions.get(i)[0];
+            regionsZ[i] = regions.get(i)[1];
+            if (from == null) {
+                cursor = 0;
+                continue;
+            }
+            int order = compareRegions(regions.get(i), from);
+            if (order == 0) {
+                cursor = i * Sweep.REGION_CHUNKS + chunk;
+            } else if (order > 0) {
+                cursor = i * Sweep.REGION_CHUNKS;
+            }
+        }
+        return new Sweep(
+            world,
+            regionsX,
+            regionsZ,
+            border,
+            cursor,
+            startedAt,
+            sender
+        );
+    }
+
+    private static int compareRegions(int[] a, int[] b) {
+        return a[0] != b[0]
+            ? Integer.compare(a[0], b[0])
+            : Integer.compare(a[1], b[1]);
+    }
+
+    private static List<int[]> listRegions(World world) {
+        File folder;
+        switch (world.getEnvironment()) {
+            case NETHER:
+                folder = new File(world.getWorldFolder(), "DIM-1/region");
+                break;
+            case THE_END:
+                folder = new File(world.getWorldFolder(), "DIM1/region");
+                break;
+            default:
+                folder = new File(world.getWorldFolder(), "region");
+                break;
+        }
+        List<int[]> regions = new ArrayList<>();
+        String[] names = folder.list();
+        if (names == null) {
+            return regions;
+        }
+        for (String name : names) {
+            Matcher matcher = REGION_FILE.matcher(name);
+            if (matcher.matches()) {
+                regions.add(
+                    new int[] {
+                        Integer.parseInt(matcher.group(1)),
+                        Integer.parseInt(matcher.group(2)),
+                    }
+                );
+            }
+        }
+        return regions;
+    }
+
+    /**
+     * Gets the chunks inside the world border as min X, min Z, max X, max Z
+     */
+    private static int[] borderChunks(WorldBorder border) {
+        Location center = border.getCenter();
+        double radius = border.getSize() / 2;
+        return new int[] {
+            (int) Math.floor(center.getX() - radius) >> 4,
+            (int) Math.floor(center.getZ() - radius) >> 4,
+            ((int) Math.ceil(center.getX() + radius) - 1) >> 4,
+            ((int) Math.ceil(center.getZ() + radius) - 1) >> 4,
+        };
+    }
+
+    private void tick() {
+        if (sweeps.isEmpty()) {
+            return;
+        }
+        long budget = slimeManager
+            .getScheduler()
+            .scaleBudget(config.getSweepTickBudgetNanos());
+        if (budget > 0) {
+            long share = budget / sweeps.size();
+            for (Sweep sweep : new ArrayList<>(sweeps.values())) {
+                advance(sweep, System.nanoTime() + share);
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        if (now >= nextCheckpointAt) {
+            nextCheckpointAt = now + config.getSweepCheckpointSeconds() * 1000L;
+            for (Sweep sweep : sweeps.values()) {
+                writeCheckpoint(sweep);
+            }
+        }
+    }
+
+    /**
+     * Sweeps loaded chunks and starts new loads until the deadline
+     */
+    private void advance(Sweep sweep, long deadlineNanos) {
+        World world = sweep.getWorld();
+        Profiler profiler = Profiling.get();
+        Object scan = profiler.beginScan();
+        int chunks = 0;
+        int removed = 0;
+
+        // Each queued chunk is looked at once per tick at most, so chunks
+        // still waiting for their entities are not polled in a loop
+        int queued = sweep.getReadyCount();
+        for (int i = 0; i < queued && System.nanoTime() < deadlineNanos; i++) {
+            Sweep.Loaded loaded = sweep.pollReady();
+            if (
+                loaded.chunk.isLoaded() &&
+                !entityAdapter.areEntitiesLoaded(loaded.chunk)
+            ) {
+                sweep.defer(loaded);
+                continue;
+            }
+            removed += sweepChunk(sweep, loaded);
+            chunks++;
+        }
+
+        int maxInFlight = config.getSweepMaxInFlight();
+        while (
+            sweep.getInFlight() < maxInFlight &&
+            System.nanoTime() < deadlineNanos
+        ) {
+            int position = sweep.next();
+            if (position < 0) {
+                break;
+            }
+            int x = sweep.chunkX(position);
+            int z = sweep.chunkZ(position);
+            if (world.isChunkLoaded(x, z)) {
+                sweep.ready(position, world.getChunkAt(x, z), false);
+                continue;
+            }
+            sweep.loading();
+            // Paper completes the future on the main thread
+            world
+                .getChunkAtAsync(x, z, false)
+                .whenComplete((chunk, error) -> loaded(sweep, position, chunk));
+        }
+
+        slimeManager.getMetrics().recordRemovals(world, removed);
+        slimeManager.callRemovedBatch(world, TRIGGER, chunks, removed);
+        profiler.endScan(scan, world, TRIGGER, chunks, removed);
+        if (sweep.isFinished()) {
+            finish(sweep);
+        }
+    }
+
+    private void loaded(Sweep sweep, int position, Chunk chunk) {
+        if (sweep.isCancelled()) {
+            return;
+        }
+        if (chunk != null) {
+            sweep
+                .getWorld()
+                .addPluginChunkTicket(chunk.getX(), chunk.getZ(), plugin);
+        }
+        sweep.ready(position, chunk, true);
+    }
+
+    private int sweepChunk(Sweep sweep, Sweep.Loaded loaded) {
+        Chunk chunk = loaded.chunk;
+        int removed = chunk.isLoaded()
+            ? slimeManager.removeManagedEntities(chunk)
+            : 0;
+        if (loaded.loadedBySweep) {
+            sweep
+                .getWorld()
+                .removePluginChunkTicket(chunk.getX(), chunk.getZ(), plugin);
+        }
+        sweep.done(loaded, removed);
+        return removed;
+    }
+
+    /**
+     * Cancels a sweep and releases the tickets of its loaded chunks
+     */
+    private void release(Sweep sweep) {
+        for (Sweep.Loaded loaded : sweep.getReady()) {
+            if (loaded.loadedBySweep) {
+                sweep
+                    .getWorld()
+                    .removePluginChunkTicket(
+                        loaded.chunk.getX(),
+                        loaded.chunk.getZ(),
+                        plugin
+                    );
+            }
+        }
+        sweep.cancel();
+    }
+
+    private void finish(Sweep sweep) {
+        World world = sweep.getWorld();
+        sweeps.remove(world.getUID());
+        deleteCheckpoint(world.getUID());
+        String message =
+            "Deep sweep of '" +
+            world.getName() +
+            "' finished: removed " +
+            sweep.getRemoved() +
+            " slimes from " +
+            sweep.getSwept() +
+            " chunks in " +
+            (System.currentTimeMillis() - sweep.getStartedAt()) / 60000 +
+            " minutes";
+        plugin.getLogger().info(message);
+        if (sweep.getSender() != null) {
+            sweep.getSender().sendMessage(ChatColor.GREEN + message);
+        }
+    }
+
+    private File checkpointFile(UUID worldId) {
+        return new File(directory, worldId + ".yml");
+    }
+
+    private void writeCheckpoint(Sweep sweep) {
+        int position = sweep.getResumePosition();
+        if (position >= sweep.getRegionCount() * Sweep.REGION_CHUNKS) {
+            return;
+        }
+        YamlConfiguration checkpoint = new YamlConfiguration();
+        checkpoint.set("world", sweep.getWorld().getName());
+        checkpoint.set("started", sweep.getStartedAt());
+        checkpoint.set("region-x", sweep.getRegionX(position));
+        checkpoint.set("region-z", sweep.getRegionZ(position));
+        checkpoint.set("chunk", position % Sweep.REGION_CHUNKS);
+        checkpoint.set("swept", sweep.getSwept());
+        checkpoint.set("removed", sweep.getRemoved());
+        checkpoint.set("missing", sweep.getMissing());
+
+        File file = checkpointFile(sweep.getWorld().getUID());
+        File temporary = new File(directory, file.getName() + ".tmp");
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("could not create " + directory);
+            }
+            Files.write(
+                temporary.toPath(),
+                checkpoint.saveToString().getBytes(StandardCharsets.UTF_8)
+            );
+            Files.move(
+                temporary.toPath(),
+                file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE
+            );
+        } catch (IOException e) {
+            plugin
+                .getLogger()
+                .warning(
+                    "Could not save deep sweep progress of '" +
+                    sweep.getWorld().getName() +
+                    "': " +
+                    e.getMessage()
+                );
+        }
+    }
+
+    private void deleteCheckpoint(UUID worldId) {
+        File file = checkpointFile(worldId);
+        if (file.exists() && !file.delete()) {
+            plugin.getLogger().warning("Could not delete " + file.getName());
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.mrerenk.slimeannihilator.common.sweep;
+
+import java.util.ArrayDeque;
+import java.util.TreeSet;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
+
+/**
+ * Progress of a deep sweep through one world. Chunks are visited region by
+ * region, in the order of the region coordinates, and row by row within a
+ * region. A chunk is identified by its position in that order: region index
+ * times 1024 plus its index within the region. Only used on the main thread.
+ */
+public final class Sweep {
+
+    static final int REGION_CHUNKS = 1024;
+
+    private final World world;
+    private final int[] regionsX;
+    private final int[] regionsZ;
+    private final int minChunkX;
+    private final int maxChunkX;
+    private final int minChunkZ;
+    private final int maxChunkZ;
+    private final long startedAt;
+    // Who started the sweep, if it was started in this session
+    private final CommandSender sender;
+
+    private int cursor;
+    // Positions handed out but not yet processed, for the checkpoint
+    private final TreeSet<Integer> outstanding = new TreeSet<>();
+    private final ArrayDeque<Loaded> ready = new ArrayDeque<>();
+    private int inFlight;
+    private boolean cancelled;
+
+    private long swept;
+    private long removed;
+    private long missing;
+
+    /**
+     * @param regionsX region X coordinates, sorted by X then Z
+     * @param regionsZ the matching region Z coordinates
+     * @param cursor position to start from
+     */
+    Sweep(
+        World world,
+        int[] regionsX,
+        int[] regionsZ,
+        int[] borderChunks,
+        int cursor,
+        long startedAt,
+        CommandSender sender
+    ) {
+        this.world = world;
+        this.regionsX = regionsX;
+        this.regionsZ = regionsZ;
+        this.minChunkX = borderChunks[0];
+        this.minChunkZ = borderChunks[1];
+        this.maxChunkX = borderChunks[2];
+        this.maxChunkZ = borderChunks[3];
+        this.cursor = cursor;
+        this.startedAt = startedAt;
+        this.sender = sender;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    CommandSender getSender() {
+        return sender;
+    }
+
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public int getRegionCount() {
+        return regionsX.length;
+    }
+
+    /**
+     * Hands out the next chunk inside the world border
+     *
+     * @return its position, or -1 once every chunk has been handed out
+     */
+    int next() {
+        int end = regionsX.length * REGION_CHUNKS;
+        while (cursor < end) {
+            int position = cursor++;
+            int x = chunkX(position);
+            int z = chunkZ(position);
+            if (
+                x >= minChunkX &&
+                x <= maxChunkX &&
+                z >= minChunkZ &&
+                z <= maxChunkZ
+            ) {
+                outstanding.add(position);
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    int chunkX(int position) {
+        int local = position % REGION_CHUNKS;
+        return (regionsX[position / REGION_CHUNKS] << 5) + (local & 31);
+    }
+
+    int chunkZ(int position) {
+        int local = position % REGION_CHUNKS;
+        return (regionsZ[position / REGION_CHUNKS] << 5) + (local >> 5);
+    }
+
+    /**
+     * Notes that a chunk is being loaded for the sweep
+     */
+    void loading() {
+        inFlight++;
+    }
+
+    /**
+     * Queues a chunk for processing
+     *
+     * @param chunk the chunk, or null if it was never generated
+     * @param loadedBySweep whether the sweep loaded it and holds a ticket
+     *     on it
+     */
+    void ready(int position, Chunk chunk, boolean loadedBySweep) {
+        if (loadedBySweep) {
+            inFlight--;
+        }
+        if (chunk == null) {
+            missing++;
+            outstanding.remove(position);
+            return;
+        }
+        ready.add(new Loaded(position, chunk, loadedBySweep));
+    }
+
+    Loaded pollReady() {
+        return ready.poll();
+    }
+
+    /**
+     * Puts a chunk back at the end of the queue, to be processed later
+     */
+    void defer(Loaded loaded) {
+        ready.add(loaded);
+    }
+
+    int getReadyCount() {
+        return ready.size();
+    }
+
+    /**
+     * Gets the chunks loaded but not yet processed
+     */
+    Iterable<Loaded> getReady() {
+        return ready;
+    }
+
+    /**
+     * Records that a chunk has been swept
+     */
+    void done(Loaded loaded, int removedHere) {
+        outstanding.remove(loaded.position);
+        swept++;
+        removed += removedHere;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Checks if every chunk has been handed out and processed
+     */
+    boolean isFinished() {
+        return (
+            cursor >= regionsX.length * REGION_CHUNKS &&
+            inFlight == 0 &&
+            ready.isEmpty()
+        );
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Stops the sweep and drops the chunks waiting to be processed. The
+     * caller releases their chunk tickets; loads still in flight are
+     * released as they complete.
+     */
+    void cancel() {
+        cancelled = true;
+        ready.clear();
+    }
+
+    /**
+     * Gets the position a restarted sweep should resume from: the first
+     * chunk not yet processed. Chunks after it that were already processed
+     * are swept again, which is harmless.
+     */
+    int getResumePosition() {
+        return outstanding.isEmpty() ? cursor : outstanding.first();
+    }
+
+    /**
+     * Gets the fraction of chunk positions handed out so far
+     */
+    public double getProgress() {
+        int end = regionsX.length * REGION_CHUNKS;
+        return end == 0 ? 1 : (double) getResumePosition() / end;
+    }
+
+    /**
+     * Gets the X coordinate of the region of a position before the end
+     */
+    int getRegionX(int position) {
+        return regionsX[position / REGION_CHUNKS];
+    }
+
+    int getRegionZ(int position) {
+        return regionsZ[position / REGION_CHUNKS];
+    }
+
+    public long getSwept() {
+        return swept;
+    }
+
+    public long getRemoved() {
+        return removed;
+    }
+
+    public long getMissing() {
+        return missing;
+    }
+
+    /**
+     * Restores the counters of a resumed sweep
+     */
+    void restoreCounters(long swept, long removed, long missing) {
+        this.swept = swept;
+        this.removed = removed;
+        this.missing = missing;
+    }
+
+    /**
+     * A chunk waiting to be swept
+     */
+    static final class Loaded {
+
+        final int position;
+        final Chunk chunk;
+        final boolean loadedBySweep;
+
+        private Loaded(int position, Chunk chunk, boolean loadedBySweep) {
+            this.position = position;
+            this.chunk = chunk;
+            this.loadedBySweep = loadedBySweep;
+        }
+    }
+}
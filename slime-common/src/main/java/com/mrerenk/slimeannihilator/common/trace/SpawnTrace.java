@@ -0,0 +1,280 @@
+package com.mrerenk.slimeannihilator.common.trace;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import org.bukkit.World;
+import org.bukkit.block.Biome;
+import org.bukkit.entity.EntityType;
+import org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason;
+
+/**
+ * A spawn trace written by {@link SpawnTraceRecorder}, loaded into memory.
+ * Records are fixed-width; the worlds they refer to are stored once in a
+ * table after the last record.
+ *
+ * <p>Header layout: magic, version, record size, record count (ints), then
+ * the offset of the world table and the capture start time (longs). The
+ * world table is only written when a capture stops, so a trace cut short by
+ * a crash has no table and cannot be read. Entity types, spawn reasons and
+ * biomes are stored as ordinals, so a trace should be replayed against the
+ * server version it was captured on.
+ */
+public class SpawnTrace {
+
+    public static final int RECORD_SIZE = 24;
+
+    static final int MAGIC = 0x534C4D54; // "SLMT"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int HEADER_RECORDS = 12;
+    static final int HEADER_WORLD_TABLE = 16;
+    static final int HEADER_STARTED = 24;
+
+    // Record layout
+    static final int TICK = 0;
+    static final int WORLD_INDEX = 4;
+    static final int REASON = 6;
+    static final int ENTITY_TYPE = 7;
+    static final int BLOCK_X = 8;
+    static final int BLOCK_Y = 12;
+    static final int BLOCK_Z = 16;
+    static final int SIZE = 20;
+    // Light level in the low nibble, flags above it
+    static final int LIGHT_FLAGS = 21;
+    static final int BIOME = 22;
+
+    static final int LIGHT_MASK = 0x0F;
+    static final int FLAG_SPAWNER = 0x10;
+
+    private static final SpawnReason[] REASONS = SpawnReason.values();
+    private static final EntityType[] TYPES = EntityType.values();
+    private static final Biome[] BIOMES = Biome.values();
+
+    private final ByteBuffer records;
+    private final int size;
+    private final long startedAt;
+    private final List<TraceWorld> worlds;
+
+    private SpawnTrace(
+        ByteBuffer records,
+        int size,
+        long startedAt,
+        List<TraceWorld> worlds
+    ) {
+        this.records = records;
+        this.size = size;
+        this.startedAt = startedAt;
+        this.worlds = worlds;
+    }
+
+    /**
+     * Reads a trace file
+     *
+     * @throws IOException if the file cannot be read or is not a complete
+     *     trace
+     */
+    public static SpawnTrace read(File file) throws IOException {
+        try (
+            RandomAccessFile raf = new RandomAccessFile(file, "r");
+            FileChannel channel = raf.getChannel()
+        ) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(channel, header, 0);
+            if (
+                header.getInt(0) != MAGIC ||
+                header.getInt(4) != VERSION ||
+                header.getInt(8) != RECORD_SIZE
+            ) {
+                throw new IOException(file + " is not a spawn trace");
+            }
+            int size = header.getInt(HEADER_RECORDS);
+            long worldTable = header.getLong(HEADER_WORLD_TABLE);
+            if (worldTable == 0) {
+                throw new IOException(
+                    file + " was not closed by the recorder and is incomplete"
+                );
+            }
+
+            ByteBuffer records = ByteBuffer.allocate(size * RECORD_SIZE);
+            readFully(channel, records, HEADER_SIZE);
+
+            ByteBuffer table = ByteBuffer.allocate(
+                (int) (channel.size() - worldTable)
+            );
+            readFully(channel, table, worldTable);
+            DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(table.array())
+            );
+            int count = in.readInt();
+            List<TraceWorld> worlds = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                worlds.add(
+                    new TraceWorld(
+                        in.readUTF(),
+                        new UUID(in.readLong(), in.readLong()),
+                        World.Environment.valueOf(in.readUTF()),
+                        in.readLong(),
+                        in.readBoolean()
+                    )
+                );
+            }
+            return new SpawnTrace(
+                records,
+                size,
+                header.getLong(HEADER_STARTED),
+                Collections.unmodifiableList(worlds)
+            );
+        }
+    }
+
+    private static void readFully(
+        FileChannel channel,
+        ByteBuffer buffer,
+        long position
+    ) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Spawn trace is truncated");
+            }
+            position += read;
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Gets the number of records
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets when the capture started, in epoch milliseconds
+     */
+    public long getStartedAt() {
+        return startedAt;
+    }
+
+    public List<TraceWorld> getWorlds() {
+        return worlds;
+    }
+
+    /**
+     * Gets the server tick of a record, counted from the start of the
+     * capture
+     */
+    public int getTick(int index) {
+        return records.getInt(index * RECORD_SIZE + TICK);
+    }
+
+    public TraceWorld getWorld(int index) {
+        return worlds.get(records.getShort(index * RECORD_SIZE + WORLD_INDEX));
+    }
+
+    public SpawnReason getReason(int index) {
+        return REASONS[records.get(index * RECORD_SIZE + REASON) & 0xFF];
+    }
+
+    public EntityType getEntityType(int index) {
+        return TYPES[records.get(index * RECORD_SIZE + ENTITY_TYPE) & 0xFF];
+    }
+
+    public int getBlockX(int index) {
+        return records.getInt(index * RECORD_SIZE + BLOCK_X);
+    }
+
+    public int getBlockY(int index) {
+        return records.getInt(index * RECORD_SIZE + BLOCK_Y);
+    }
+
+    public int getBlockZ(int index) {
+        return records.getInt(index * RECORD_SIZE + BLOCK_Z);
+    }
+
+    /**
+     * Gets the slime size of the spawning entity, or 0 if it had none
+     */
+    public int getSize(int index) {
+        return records.get(index * RECORD_SIZE + SIZE) & 0xFF;
+    }
+
+    public int getLightLevel(int index) {
+        return records.get(index * RECORD_SIZE + LIGHT_FLAGS) & LIGHT_MASK;
+    }
+
+    /**
+     * Gets the biome of the spawn chunk, sampled as the plugin samples it
+     */
+    public Biome getBiome(int index) {
+        return BIOMES[records.getShort(index * RECORD_SIZE + BIOME)];
+    }
+
+    /**
+     * Checks if a record is a spawn from a spawner block. Its position is
+     * that of the spawner.
+     */
+    public boolean isFromSpawner(int index) {
+        return (
+            (records.get(index * RECORD_SIZE + LIGHT_FLAGS) & FLAG_SPAWNER) != 0
+        );
+    }
+
+    /**
+     * A world that appears in a trace, as it was when first seen
+     */
+    public static class TraceWorld {
+
+        private final String name;
+        private final UUID id;
+        private final World.Environment environment;
+        private final long seed;
+        private final boolean flat;
+
+        public TraceWorld(
+            String name,
+            UUID id,
+            World.Environment environment,
+            long seed,
+            boolean flat
+        ) {
+            this.name = name;
+            this.id = id;
+            this.environment = environment;
+            this.seed = seed;
+            this.flat = flat;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public World.Environment getEnvironment() {
+            return environment;
+        }
+
+        public long getSeed() {
+            return seed;
+        }
+
+        /**
+         * Checks if the plugin considered the world flat during the capture
+         */
+        public boolean isFlat() {
+            return flat;
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.mrerenk.slimeannihilator.common.trace;
+
+import com.mrerenk.slimeannihilator.common.SlimeManager;
+import com.mrerenk.slimeannihilator.common.config.SlimeConfig;
+import com.mrerenk.slimeannihilator.common.rules.SpawnContext;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.bukkit.World;
+import org.bukkit.entity.EntityType;
+import org.bukkit.event.entity.CreatureSpawnEvent.SpawnReason;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Captures the spawns seen by the spawn listener into a {@link SpawnTrace}
+ * file, so a spawn storm can be replayed later by the replay harness.
+ * Records are collected in a buffer that is written out whenever it fills;
+ * while no capture is running, recording a spawn is a single field check.
+ * Only used on the main thread.
+ */
+public class SpawnTraceRecorder {
+
+    private static final int BUFFER_RECORDS = 4096;
+
+    private final Plugin plugin;
+    private final SlimeConfig config;
+    private final SlimeManager slimeManager;
+    private final File directory;
+
+    private FileChannel channel;
+    private File file;
+    private ByteBuffer buffer;
+    private BukkitTask tickTask;
+    private int tick;
+    private int durationTicks;
+    private int records;
+    private long startedAt;
+
+    private final Map<UUID, Integer> worldIndexes = new HashMap<>();
+    // Copied when first seen, so a world unloaded during the capture is not
+    // held on to
+    private final List<SpawnTrace.TraceWorld> worlds = new ArrayList<>();
+    private UUID lastWorldId;
+    private int lastWorldIndex;
+
+    public SpawnTraceRecorder(
+        Plugin plugin,
+        SlimeConfig config,
+        SlimeManager slimeManager
+    ) {
+        this.plugin = plugin;
+        this.config = config;
+        this.slimeManager = slimeManager;
+        this.directory = new File(plugin.getDataFolder(), "traces");
+    }
+
+    public boolean isRecording() {
+        return buffer != null;
+    }
+
+    /**
+     * Gets the file of the running capture, or null
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Gets the number of spawns captured so far
+     */
+    public int getRecords() {
+        return records;
+    }
+
+    /**
+     * Gets the number of ticks the running capture has been going for
+     */
+    public int getTick() {
+        return tick;
+    }
+
+    /**
+     * Starts a capture into a new file in the traces folder. It stops by
+     * itself after the given time or once trace.max-records spawns have been
+     * captured.
+     *
+     * @return the trace file
+     */
+    public File start(int seconds) throws IOException {
+        if (isRecording()) {
+            throw new IllegalStateException("A capture is already running");
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("could not create " + directory);
+        }
+        startedAt = System.currentTimeMillis();
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss").format(
+            new Date(startedAt)
+        );
+        file = new File(directory, "trace-" + stamp + ".bin");
+        channel = new RandomAccessFile(file, "rw").getChannel();
+        channel.truncate(0);
+        // The header is completed when the capture stops
+        channel.write(ByteBuffer.allocate(SpawnTrace.HEADER_SIZE), 0);
+        channel.position(SpawnTrace.HEADER_SIZE);
+
+        buffer = ByteBuffer.allocate(BUFFER_RECORDS * SpawnTrace.RECORD_SIZE);
+        tick = 0;
+        durationTicks = seconds * 20;
+        records = 0;
+        tickTask = plugin
+            .getServer()
+            .getScheduler()
+            .runTaskTimer(
+                plugin,
+                () -> {
+                    if (++tick >= durationTicks) {
+                        stop();
+                    }
+                },
+                1L,
+                1L
+            );
+        plugin
+            .getLogger()
+            .info(
+                "Capturing spawns to " +
+                file.getName() +
+                " for " +
+                seconds +
+                " seconds"
+            );
+        return file;
+    }
+
+    /**
+     * Stops the running capture and completes its file
+     *
+     * @return the number of spawns captured, or -1 if no capture was running
+     */
+    public int stop() {
+        if (!isRecording()) {
+            return -1;
+        }
+        if (tickTask != null) {
+            tickTask.cancel();
+            tickTask = null;
+        }
+        try {
+            flush();
+            long worldTable = channel.position();
+            channel.write(ByteBuffer.wrap(worldTable()));
+
+            ByteBuffer header = ByteBuffer.allocate(SpawnTrace.HEADER_SIZE);
+            header.putInt(0, SpawnTrace.MAGIC);
+            header.putInt(4, SpawnTrace.VERSION);
+            header.putInt(8, SpawnTrace.RECORD_SIZE);
+            header.putInt(SpawnTrace.HEADER_RECORDS, records);
+            header.putLong(SpawnTrace.HEADER_WORLD_TABLE, worldTable);
+            header.putLong(SpawnTrace.HEADER_STARTED, startedAt);
+            channel.write(header, 0);
+            plugin
+                .getLogger()
+                .info(
+                    "Captured " +
+                    records +
+                    " spawns over " +
+                    tick +
+                    " ticks to " +
+                    file.getName()
+                );
+        } catch (IOException e) {
+            plugin
+                .getLogger()
+                .severe("Could not complete spawn trace: " + e.getMessage());
+        } finally {
+            close();
+        }
+        return records;
+    }
+
+    private void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            plugin
+                .getLogger()
+                .warning("Could not close spawn trace: " + e.getMessage());
+        }
+        channel = null;
+        buffer = null;
+        worldIndexes.clear();
+        worlds.clear();
+        lastWorldId = null;
+    }
+
+    /**
+     * Captures a spawn that is about to be decided. Does nothing while no
+     * capture is running.
+     *
+     * @param context reset to the spawn location, or to the spawner block for
+     *     spawner spawns
+     */
+    public void record(
+        SpawnContext context,
+        EntityType type,
+        SpawnReason reason,
+        boolean fromSpawner
+    ) {
+        ByteBuffer out = buffer;
+        if (out == null) {
+            return;
+        }
+
+        int offset = out.position();
+        out.putInt(offset + SpawnTrace.TICK, tick);
+        out.putShort(
+            offset + SpawnTrace.WORLD_INDEX,
+            (short) worldIndex(context.getWorld())
+        );
+        out.put(offset + SpawnTrace.REASON, (byte) reason.ordinal());
+        out.put(offset + SpawnTrace.ENTITY_TYPE, (byte) type.ordinal());
+        out.putInt(offset + SpawnTrace.BLOCK_X, context.getBlockX());
+        out.putInt(offset + SpawnTrace.BLOCK_Y, context.getBlockY());
+        out.putInt(offset + SpawnTrace.BLOCK_Z, context.getBlockZ());
+        out.put(offset + SpawnTrace.SIZE, (byte) context.getSize());
+        out.put(
+            offset + SpawnTrace.LIGHT_FLAGS,
+            (byte) (
+                context.getLightLevel() |
+                (fromSpawner ? SpawnTrace.FLAG_SPAWNER : 0)
+            )
+        );
+        out.putShort(
+            offset + SpawnTrace.BIOME,
+            (short) context.getBiome().ordinal()
+        );
+        out.position(offset + SpawnTrace.RECORD_SIZE);
+        records++;
+
+        try {
+            if (!out.hasRemaining()) {
+                flush();
+            }
+        } catch (IOException e) {
+            plugin
+                .getLogger()
+                .severe("Could not write spawn trace: " + e.getMessage());
+            stop();
+            return;
+        }
+        if (records >= config.getTraceMaxRecords()) {
+            plugin
+                .getLogger()
+                .info("Spawn trace reached trace.max-records, stopping");
+            stop();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private int worldIndex(World world) {
+        UUID worldId = world.getUID();
+        if (worldId.equals(lastWorldId)) {
+            return lastWorldIndex;
+        }
+        Integer index = worldIndexes.get(worldId);
+        if (index == null) {
+            index = worlds.size();
+            worlds.add(
+                new SpawnTrace.TraceWorld(
+                    world.getName(),
+                    worldId,
+                    world.getEnvironment(),
+                    world.getSeed(),
+                    slimeManager.isFlatWorld(world)
+                )
+            );
+            worldIndexes.put(worldId, index);
+        }
+        lastWorldId = worldId;
+        lastWorldIndex = index;
+        return index;
+    }
+
+    private byte[] worldTable() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(worlds.size());
+        for (SpawnTrace.TraceWorld world : worlds) {
+            out.writeUTF(world.getName());
+            out.writeLong(world.getId().getMostSignificantBits());
+            out.writeLong(world.getId().getLeastSignificantBits());
+            out.writeUTF(world.getEnvironment().name());
+            out.writeLong(world.getSeed());
+            out.writeBoolean(world.isFlat());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+}
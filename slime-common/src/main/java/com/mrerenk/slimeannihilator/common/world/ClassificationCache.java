@@ -0,0 +1,460 @@
+package com.mrerenk.slimeannihilator.common.world;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.bukkit.World;
+import org.bukkit.generator.ChunkGenerator;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Remembers across restarts how each world was classified by flat world
+ * detection, keyed by world UID. An entry is only reused while the world's
+ * generator fingerprint is unchanged, so a world given a new generator,
+ * environment or name is detected again. Worlds listed in flat-worlds are
+ * not cached; the config decides those directly.
+ *
+ * <p>The file is a header (magic, version, entry count) followed by
+ * fixed-width entries, read in one go when the plugin enables and
+ * rewritten whole when entries were added or pruned. Only used on the main
+ * thread; writes after startup are deferred to a writer thread.
+ */
+public class ClassificationCache {
+
+    // Part of every fingerprint; bump it when detection changes so that
+    // old classifications are redone
+    private static final int DETECTION_VERSION = 1;
+
+    // Delay of a deferred save, which later changes are folded into
+    private static final long SAVE_DELAY_TICKS = 100L;
+
+    private static final int MAGIC = 0x534C4D43; // "SLMC"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+    // UID, fingerprint, timestamp, then method, flat and confidence bytes
+    private static final int ENTRY_SIZE = 35;
+
+    private static final DetectionMethod[] METHODS = DetectionMethod.values();
+
+    private final Plugin plugin;
+    private final File file;
+    private final Map<UUID, Classification> entries = new HashMap<>();
+    // Writes the file and reads world folders off the main thread, in order
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(
+        task -> {
+            Thread thread = new Thread(
+                task,
+                "SlimeAnnihilator-Classifications"
+            );
+            thread.setDaemon(true);
+            return thread;
+        }
+    );
+    private boolean dirty;
+    private volatile boolean writeFailed;
+    private BukkitTask saveTask;
+    private boolean pruning;
+
+    public ClassificationCache(Plugin plugin) {
+        this.plugin = plugin;
+        this.file = new File(plugin.getDataFolder(), "classifications.dat");
+    }
+
+    /**
+     * Reads the saved classifications. A missing file is an empty cache; an
+     * unreadable one is ignored and replaced on the next save.
+     */
+    public void load() {
+        entries.clear();
+        dirty = false;
+        if (!file.isFile()) {
+            return;
+        }
+        try {
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+            if (
+                in.remaining() < HEADER_SIZE ||
+                in.getInt() != MAGIC ||
+                in.getInt() != VERSION
+            ) {
+                throw new IOException("not a classification cache");
+            }
+            int count = in.getInt();
+            if (in.remaining() != count * ENTRY_SIZE) {
+                throw new IOException("truncated");
+            }
+            for (int i = 0; i < count; i++) {
+                UUID worldId = new UUID(in.getLong(), in.getLong());
+                long fingerprint = in.getLong();
+                long classifiedAt = in.getLong();
+                int method = in.get();
+                boolean flat = in.get() != 0;
+                int confidence = in.get();
+                if (method >= 0 && method < METHODS.length) {
+                    entries.put(
+                        worldId,
+                        new Classification(
+                            flat,
+                            METHODS[method],
+                            confidence,
+                            fingerprint,
+                            classifiedAt
+                        )
+                    );
+                }
+            }
+        } catch (IOException e) {
+            entries.clear();
+            plugin
+                .getLogger()
+                .warning(
+                    "Ignoring world classification cache: " + e.getMessage()
+                );
+        }
+    }
+
+    /**
+     * Writes the cache on the calling thread if classifications were added or
+     * pruned since it was last read or written
+     */
+    public void save() {
+        if (!dirty && !writeFailed) {
+            return;
+        }
+        byte[] data = encode();
+        dirty = false;
+        writeFailed = !write(data);
+    }
+
+    /**
+     * Writes the cache on the writer thread a few seconds from now if it has
+     * changes. Calls in the meantime are folded into the same write, so a
+     * burst of world loads rewrites the file once.
+     */
+    public void saveLater() {
+        if (!dirty || saveTask != null) {
+            return;
+        }
+        saveTask = plugin
+            .getServer()
+            .getScheduler()
+            .runTaskLater(
+                plugin,
+                () -> {
+                    saveTask = null;
+                    if (dirty) {
+                        byte[] data = encode();
+                        dirty = false;
+                        writer.execute(() -> writeFailed = !write(data));
+                    }
+                },
+                SAVE_DELAY_TICKS
+            );
+    }
+
+    /**
+     * Waits for pending writes and writes any remaining changes. Called when
+     * the plugin disables.
+     */
+    public void close() {
+        if (saveTask != null) {
+            saveTask.cancel();
+            saveTask = null;
+        }
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        save();
+    }
+
+    private byte[] encode() {
+        ByteBuffer out = ByteBuffer.allocate(
+            HEADER_SIZE + entries.size() * ENTRY_SIZE
+        );
+        out.putInt(MAGIC);
+        out.putInt(VERSION);
+        out.putInt(entries.size());
+        for (Map.Entry<UUID, Classification> entry : entries.entrySet()) {
+            Classification classification = entry.getValue();
+            out.putLong(entry.getKey().getMostSignificantBits());
+            out.putLong(entry.getKey().getLeastSignificantBits());
+            out.putLong(classification.fingerprint);
+            out.putLong(classification.classifiedAt);
+            out.put((byte) classification.method.ordinal());
+            out.put((byte) (classification.flat ? 1 : 0));
+            out.put((byte) classification.confidence);
+        }
+        return out.array();
+    }
+
+    /**
+     * Replaces the file with new contents
+     *
+     * @return false if the file could not be written
+     */
+    private boolean write(byte[] data) {
+        File directory = file.getParentFile();
+        File temporary = new File(directory, file.getName() + ".tmp");
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs()) {
+                throw new IOException("could not create " + directory);
+            }
+            Files.write(temporary.toPath(), data);
+            Files.move(
+                temporary.toPath(),
+                file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE
+            );
+            return true;
+        } catch (IOException e) {
+            plugin
+                .getLogger()
+                .warning(
+                    "Could not save world classification cache: " +
+                    e.getMessage()
+                );
+            return false;
+        }
+    }
+
+    /**
+     * Gets the saved classification of a world, or null if there is none or
+     * it was made for a different fingerprint
+     */
+    public Classification get(World world, long fingerprint) {
+        Classification classification = entries.get(world.getUID());
+        if (
+            classification == null || classification.fingerprint != fingerprint
+        ) {
+            return null;
+        }
+        return classification;
+    }
+
+    /**
+     * Stores the classification of a world, to be written on the next save
+     */
+    public void put(World world, Classification classification) {
+        entries.put(world.getUID(), classification);
+        dirty = true;
+    }
+
+    /**
+     * Drops the classifications of worlds that no longer exist, to be written
+     * on the next save. A world exists while it is loaded or while a folder
+     * in the world container holds its {@code uid.dat}. Nothing is dropped
+     * if the world container cannot be listed.
+     */
+    public void pruneMissingWorlds() {
+        Set<UUID> unloaded = unloadedEntries();
+        if (unloaded.isEmpty()) {
+            return;
+        }
+        Set<UUID> missing = findMissing(
+            plugin.getServer().getWorldContainer(),
+            unloaded
+        );
+        if (missing != null && entries.keySet().removeAll(missing)) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Like {@link #pruneMissingWorlds()}, but reads the world folders on the
+     * writer thread and saves the result later. Run periodically, so entries
+     * of deleted worlds do not pile up while the server runs.
+     */
+    public void pruneMissingWorldsLater() {
+        if (pruning) {
+            return;
+        }
+        Set<UUID> unloaded = unloadedEntries();
+        if (unloaded.isEmpty()) {
+            return;
+        }
+        File container = plugin.getServer().getWorldContainer();
+        pruning = true;
+        writer.execute(() -> {
+            Set<UUID> missing = findMissing(container, unloaded);
+            if (!plugin.isEnabled()) {
+                return;
+            }
+            plugin
+                .getServer()
+                .getScheduler()
+                .runTask(plugin, () -> {
+                    pruning = false;
+                    if (missing == null) {
+                        return;
+                    }
+                    // Skip worlds that were loaded again in the meantime
+                    for (World world : plugin.getServer().getWorlds()) {
+                        missing.remove(world.getUID());
+                    }
+                    if (entries.keySet().removeAll(missing)) {
+                        dirty = true;
+                        saveLater();
+                    }
+                });
+        });
+    }
+
+    private Set<UUID> unloadedEntries() {
+        Set<UUID> unloaded = new HashSet<>(entries.keySet());
+        for (World world : plugin.getServer().getWorlds()) {
+            unloaded.remove(world.getUID());
+        }
+        return unloaded;
+    }
+
+    /**
+     * Finds which of some worlds have no folder in the world container
+     *
+     * @return the missing worlds, or null if the container cannot be listed
+     */
+    private static Set<UUID> findMissing(File container, Set<UUID> worldIds) {
+        File[] folders = container.listFiles(File::isDirectory);
+        if (folders == null) {
+            return null;
+        }
+        Set<UUID> missing = new HashSet<>(worldIds);
+        for (File folder : folders) {
+            UUID worldId = readUid(new File(folder, "uid.dat"));
+            if (worldId != null) {
+                missing.remove(worldId);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Reads the UID a world folder's {@code uid.dat} holds, or null
+     */
+    private static UUID readUid(File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+            return in.remaining() < 16
+                ? null
+                : new UUID(in.getLong(), in.getLong());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Gets the number of worlds with a saved classification
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Hashes what flat world detection looks at: the generator class, the
+     * environment and the world name
+     */
+    public static long fingerprint(World world) {
+        ChunkGenerator generator = world.getGenerator();
+        String key =
+            DETECTION_VERSION +
+            "|" +
+            (generator != null ? generator.getClass().getName() : "") +
+            "|" +
+            world.getEnvironment().name() +
+            "|" +
+            world.getName();
+        // 64-bit FNV-1a
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * How a world's classification was reached
+     */
+    public enum DetectionMethod {
+        /** The generator's class name says flat or void */
+        GENERATOR,
+        /** The world name suggests a flat or build world */
+        NAME,
+        /** Nothing suggested a flat world */
+        NONE,
+    }
+
+    /**
+     * The result of flat world detection for one world
+     */
+    public static final class Classification {
+
+        private final boolean flat;
+        private final DetectionMethod method;
+        private final int confidence;
+        private final long fingerprint;
+        private final long classifiedAt;
+
+        /**
+         * @param confidence how sure the method is, in percent
+         * @param classifiedAt when detection ran, in epoch milliseconds
+         */
+        public Classification(
+            boolean flat,
+            DetectionMethod method,
+            int confidence,
+            long fingerprint,
+            long classifiedAt
+        ) {
+            this.flat = flat;
+            this.method = method;
+            this.confidence = confidence;
+            this.fingerprint = fingerprint;
+            this.classifiedAt = classifiedAt;
+        }
+
+        public boolean isFlat() {
+            return flat;
+        }
+
+        public DetectionMethod getMethod() {
+            return method;
+        }
+
+        /**
+         * Gets how sure the detection method is, in percent
+         */
+        public int getConfidence() {
+            return confidence;
+        }
+
+        public long getFingerprint() {
+            return fingerprint;
+        }
+
+        /**
+         * Gets when detection ran, in epoch milliseconds
+         */
+        public long getClassifiedAt() {
+            return classifiedAt;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.mrerenk.slimeannihilator.common.world;
+
+import com.mrerenk.slimeannihilator.common.rules.SpawnVerdict;
+import java.util.HashMap;
+import java.util.Map;
+import org.bukkit.entity.EntityType;
+
+/**
+ * Spawn verdicts of the spawner blocks in one world, keyed by block
+ * position. A spawner whose spawn is cancelled retries every few ticks, so
+ * caching its verdict turns each retry into one hash lookup. The cache is
+ * bounded and simply starts over when full; spawners that are still active
+ * repopulate it on their next attempt.
+ */
+public final class SpawnerVerdictCache {
+
+    private static final int MAX_ENTRIES = 4096;
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    /**
+     * Gets the cached verdict for a spawner, or null if there is none for the
+     * entity type it currently spawns
+     */
+    public SpawnVerdict get(int x, int y, int z, EntityType type) {
+        Entry entry = entries.get(blockKey(x, y, z));
+        return entry != null && entry.type == type ? entry.verdict : null;
+    }
+
+    public void put(
+        int x,
+        int y,
+        int z,
+        EntityType type,
+        SpawnVerdict verdict
+    ) {
+        if (entries.size() >= MAX_ENTRIES) {
+            entries.clear();
+        }
+        entries.put(blockKey(x, y, z), new Entry(type, verdict));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Packs a block position into a long: 26 bits each for x and z, 12 for y
+     */
+    static long blockKey(int x, int y, int z) {
+        return (
+            ((long) (x & 0x3FFFFFF) << 38) |
+            ((long) (z & 0x3FFFFFF) << 12) |
+            (y & 0xFFF)
+        );
+    }
+
+    private static final class Entry {
+
+        private final EntityType type;
+        private final SpawnVerdict verdict;
+
+        private Entry(EntityType type, SpawnVerdict verdict) {
+            this.type = type;
+            this.verdict = verdict;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.mrerenk.slimeannihilator.common.world;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Indexes the loaded worlds by UID and by name, kept up to date from world
+ * load and unload events. Names are held in a trie of their lowercased
+ * characters, so resolving a name costs its length and completing a prefix
+ * only visits the worlds that match, however many worlds are loaded.
+ *
+ * <p>Name lookups are case-insensitive: an exact match wins, otherwise the
+ * one world whose name differs only in case. Only used on the main thread.
+ */
+public class WorldIndex implements Listener {
+
+    private static final Comparator<World> BY_NAME = Comparator.comparing(
+        World::getName
+    );
+
+    private final Plugin plugin;
+    private final Map<UUID, World> worlds = new HashMap<>();
+    private final Node root = new Node();
+
+    public WorldIndex(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Indexes the worlds that are already loaded. Worlds loaded later are
+     * added by {@link #onWorldLoad}.
+     */
+    public void start() {
+        for (World world : plugin.getServer().getWorlds()) {
+            add(world);
+        }
+    }
+
+    /**
+     * Gets a loaded world by UID, or null
+     */
+    public World getWorld(UUID id) {
+        return worlds.get(id);
+    }
+
+    /**
+     * Gets a loaded world by name, ignoring case unless several worlds share
+     * the name in different cases, or null
+     */
+    public World getWorld(String name) {
+        Node node = root.find(lower(name));
+        if (node == null || node.worlds == null) {
+            return null;
+        }
+        for (World world : node.worlds) {
+            if (world.getName().equals(name)) {
+                return world;
+            }
+        }
+        return node.worlds.size() == 1 ? node.worlds.get(0) : null;
+    }
+
+    /**
+     * Gets the loaded worlds whose names start with a prefix, in
+     * alphabetical order. Case is ignored for both.
+     */
+    public List<World> getWorlds(String prefix) {
+        Node node = root.find(lower(prefix));
+        if (node == null) {
+            return Collections.emptyList();
+        }
+        List<World> matches = new ArrayList<>();
+        node.collect(matches, Integer.MAX_VALUE);
+        return matches;
+    }
+
+    /**
+     * Gets the names of the first {@code limit} loaded worlds, in
+     * alphabetical order, that start with a prefix. Case is ignored for both.
+     */
+    public List<String> complete(String prefix, int limit) {
+        Node node = root.find(lower(prefix));
+        if (node == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        List<World> matches = new ArrayList<>();
+        node.collect(matches, limit);
+        List<String> names = new ArrayList<>(matches.size());
+        for (World world : matches) {
+            names.add(world.getName());
+        }
+        return names;
+    }
+
+    public int size() {
+        return worlds.size();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        add(event.getWorld());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        remove(event.getWorld());
+    }
+
+    private void add(World world) {
+        if (worlds.putIfAbsent(world.getUID(), world) != null) {
+            return;
+        }
+        Node node = root;
+        String key = lower(world.getName());
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childFor(key.charAt(i));
+        }
+        if (node.worlds == null) {
+            node.worlds = new ArrayList<>(1);
+        }
+        node.worlds.add(world);
+        node.worlds.sort(BY_NAME);
+    }
+
+    private void remove(World world) {
+        World indexed = worlds.remove(world.getUID());
+        if (indexed == null) {
+            return;
+        }
+        String key = lower(indexed.getName());
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].child(key.charAt(i));
+        }
+        Node node = path[key.length()];
+        node.worlds.remove(indexed);
+        if (node.worlds.isEmpty()) {
+            node.worlds = null;
+        }
+        // Prune the nodes that no longer lead to any world
+        for (int i = key.length(); i > 0 && path[i].isEmpty(); i--) {
+            path[i - 1].removeChild(key.charAt(i - 1));
+        }
+    }
+
+    private static String lower(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A trie node. Children are kept in arrays sorted by character, so
+     * lookups are a binary search and traversal visits names in alphabetical
+     * order.
+     */
+    private static final class Node {
+
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private int childCount;
+        // Worlds whose lowercased name ends here, or null; usually one
+        private List<World> worlds;
+
+        private Node child(char key) {
+            int index = Arrays.binarySearch(keys, 0, childCount, key);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private Node find(String path) {
+            Node node = this;
+            for (int i = 0; i < path.length() && node != null; i++) {
+                node = node.child(path.charAt(i));
+            }
+            return node;
+        }
+
+        private Node childFor(char key) {
+            int index = Arrays.binarySearch(keys, 0, childCount, key);
+            if (index >= 0) {
+                return children[index];
+            }
+            index = -index - 1;
+            if (childCount == keys.length) {
+                int capacity = Math.max(2, childCount * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, index, keys, index + 1, childCount - index);
+            System.arraycopy(
+                children,
+                index,
+                children,
+                index + 1,
+                childCount - index
+            );
+            Node child = new Node();
+            keys[index] = key;
+            children[index] = child;
+            childCount++;
+            return child;
+        }
+
+        private void removeChild(char key) {
+            int index = Arrays.binarySearch(keys, 0, childCount, key);
+            if (index < 0) {
+                return;
+            }
+            childCount--;
+            System.arraycopy(keys, index + 1, keys, index, childCount - index);
+            System.arraycopy(
+                children,
+                index + 1,
+                children,
+                index,
+                childCount - index
+            );
+            children[childCount] = null;
+        }
+
+        private boolean isEmpty() {
+            return worlds == null && childCount == 0;
+        }
+
+        /**
+         * Adds the worlds at and below this node in alphabetical order until
+         * {@code into} holds {@code limit} worlds
+         *
+         * @return whether the limit was reached
+         */
+        private boolean collect(List<World> into, int limit) {
+            if (worlds != null) {
+                for (World world : worlds) {
+                    if (into.size() >= limit) {
+                        return true;
+                    }
+                    into.add(world);
+                }
+            }
+            for (int i = 0; i < childCount; i++) {
+                if (children[i].collect(into, limit)) {
+                    return true;
+                }
+            }
+            return into.size() >= limit;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.mrerenk.slimeannihilator.common.world;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Holds the {@link WorldState} of every world the plugin has seen, keyed by
+ * world UID so that a new world reusing a name never inherits old state.
+ * States are released when their world unloads; a periodic sweep also
+ * releases worlds that disappeared without an unload event. Components
+ * with per-world caches of their own register a release listener, so there
+ * is a single place where world state ends.
+ */
+public class WorldRegistry implements Listener {
+
+    private static final long SWEEP_INTERVAL_TICKS = 1200L;
+
+    private final Plugin plugin;
+    // Concurrent so that metrics threads can list worlds without locking
+    private final Map<UUID, WorldState> states = new ConcurrentHashMap<>();
+    private final List<Consumer<WorldState>> releaseListeners =
+        new ArrayList<>();
+    private final List<Runnable> sweepListeners = new ArrayList<>();
+
+    private BukkitTask sweepTask;
+    private WorldState lastState;
+
+    public WorldRegistry(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public void start() {
+        if (sweepTask != null) {
+            return;
+        }
+        sweepTask = plugin
+            .getServer()
+            .getScheduler()
+            .runTaskTimer(
+                plugin,
+                this::sweep,
+                SWEEP_INTERVAL_TICKS,
+                SWEEP_INTERVAL_TICKS
+            );
+    }
+
+    public void stop() {
+        if (sweepTask != null) {
+            sweepTask.cancel();
+            sweepTask = null;
+        }
+    }
+
+    /**
+     * Registers a callback run on the main thread whenever a world's state is
+     * released
+     */
+    public void addReleaseListener(Consumer<WorldState> listener) {
+        releaseListeners.add(listener);
+    }
+
+    /**
+     * Registers a callback run on the main thread after every periodic sweep,
+     * for housekeeping of per-world data that outlives world states
+     */
+    public void addSweepListener(Runnable listener) {
+        sweepListeners.add(listener);
+    }
+
+    /**
+     * Gets the state of a loaded world, creating it on first use
+     */
+    public WorldState get(World world) {
+        WorldState state = lastState;
+        UUID id = world.getUID();
+        if (state != null && state.getId().equals(id)) {
+            return state;
+        }
+        state = states.get(id);
+        if (state == null) {
+            state = new WorldState(id, world.getName());
+            states.put(id, state);
+        }
+        lastState = state;
+        return state;
+    }
+
+    /**
+     * Gets the state of a world if it exists
+     */
+    public WorldState find(UUID id) {
+        return states.get(id);
+    }
+
+    /**
+     * Gets the states of all tracked worlds. Safe to read from any thread.
+     */
+    public Collection<WorldState> getStates() {
+        return Collections.unmodifiableCollection(states.values());
+    }
+
+    public int size() {
+        return states.size();
+    }
+
+    /**
+     * Releases the state of a world and notifies release listeners
+     */
+    public void release(UUID id) {
+        WorldState state = states.remove(id);
+        if (state == null) {
+            return;
+        }
+        if (lastState == state) {
+            lastState = null;
+        }
+        for (Consumer<WorldState> listener : releaseListeners) {
+            listener.accept(state);
+        }
+    }
+
+    /**
+     * Releases worlds that are no longer loaded
+     */
+    public void sweep() {
+        List<UUID> gone = new ArrayList<>();
+        for (WorldState state : states.values()) {
+            if (plugin.getServer().getWorld(state.getId()) == null) {
+                gone.add(state.getId());
+            }
+        }
+        for (UUID id : gone) {
+            release(id);
+        }
+        for (Runnable listener : sweepListeners) {
+            listener.run();
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        if (!event.isCancelled()) {
+            release(event.getWorld().getUID());
+        }
+    }
+}
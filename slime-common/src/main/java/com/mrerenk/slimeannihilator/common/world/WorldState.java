@@ -0,0 +1,177 @@
+package com.mrerenk.slimeannihilator.common.world;
+
+import com.mrerenk.slimeannihilator.common.anomaly.PopulationGrowth;
+import com.mrerenk.slimeannihilator.common.rules.CompiledSpawnPolicy;
+import com.mrerenk.slimeannihilator.common.rules.ShadowCounts;
+import java.util.UUID;
+import org.bukkit.entity.EntityType;
+
+/**
+ * Runtime state of one loaded world. Everything here is derived or
+ * transient and is dropped with the state when the world unloads; settings
+ * that persist across restarts stay in the config, keyed by world name.
+ * Only used on the main thread.
+ */
+public final class WorldState {
+
+    private final UUID id;
+    private final String name;
+    private final long createdAt;
+
+    private boolean initialized;
+    private int classificationRevision = -1;
+    private boolean flat;
+    private int policyRevision = -1;
+    private CompiledSpawnPolicy[] policies;
+    private int spawnerRevision = -1;
+    private SpawnerVerdictCache spawnerVerdicts;
+    private int shadowPolicyRevision = -1;
+    private CompiledSpawnPolicy[] shadowPolicies;
+    private int shadowCountsRevision = -1;
+    private ShadowCounts shadowCounts;
+    private PopulationGrowth growth;
+
+    WorldState(UUID id, String name) {
+        this.id = id;
+        this.name = name;
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets when this state was created (epoch millis)
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Marks the world as initialized, returning false if it already was
+     */
+    public boolean markInitialized() {
+        if (initialized) {
+            return false;
+        }
+        initialized = true;
+        return true;
+    }
+
+    /**
+     * Drops the cached classification, compiled policies and spawner
+     * verdicts, e.g. after the world was added to or removed from a world
+     * list
+     */
+    public void invalidate() {
+        classificationRevision = -1;
+        policies = null;
+        spawnerRevision = -1;
+        shadowPolicies = null;
+    }
+
+    /**
+     * Gets the cached flat-world classification, or null if it was made
+     * under an older configuration revision
+     */
+    public Boolean getFlat(int revision) {
+        return classificationRevision == revision ? flat : null;
+    }
+
+    public void setFlat(boolean flat, int revision) {
+        this.flat = flat;
+        this.classificationRevision = revision;
+    }
+
+    /**
+     * Gets the compiled spawn policy of an entity type, or null if it has not
+     * been compiled under the given configuration revision
+     */
+    public CompiledSpawnPolicy getPolicy(EntityType type, int revision) {
+        if (policyRevision != revision || policies == null) {
+            return null;
+        }
+        return policies[type.ordinal()];
+    }
+
+    public void putPolicy(
+        EntityType type,
+        CompiledSpawnPolicy policy,
+        int revision
+    ) {
+        if (policyRevision != revision || policies == null) {
+            policies = new CompiledSpawnPolicy[EntityType.values().length];
+            policyRevision = revision;
+        }
+        policies[type.ordinal()] = policy;
+    }
+
+    /**
+     * Gets the compiled candidate policy of an entity type, or null if it has
+     * not been compiled under the given configuration revision
+     */
+    public CompiledSpawnPolicy getShadowPolicy(EntityType type, int revision) {
+        if (shadowPolicyRevision != revision || shadowPolicies == null) {
+            return null;
+        }
+        return shadowPolicies[type.ordinal()];
+    }
+
+    public void putShadowPolicy(
+        EntityType type,
+        CompiledSpawnPolicy policy,
+        int revision
+    ) {
+        if (shadowPolicyRevision != revision || shadowPolicies == null) {
+            shadowPolicies =
+                new CompiledSpawnPolicy[EntityType.values().length];
+            shadowPolicyRevision = revision;
+        }
+        shadowPolicies[type.ordinal()] = policy;
+    }
+
+    /**
+     * Gets the shadow agreement counters, reset first if they were counted
+     * under an older shadow configuration
+     */
+    public ShadowCounts getShadowCounts(int shadowRevision) {
+        if (shadowCounts == null) {
+            shadowCounts = new ShadowCounts();
+        }
+        if (shadowCountsRevision != shadowRevision) {
+            shadowCounts.clear();
+            shadowCountsRevision = shadowRevision;
+        }
+        return shadowCounts;
+    }
+
+    /**
+     * Gets the spawner verdict cache, emptied first if its verdicts were
+     * made under an older configuration revision
+     */
+    public SpawnerVerdictCache getSpawnerVerdicts(int revision) {
+        if (spawnerVerdicts == null) {
+            spawnerVerdicts = new SpawnerVerdictCache();
+        }
+        if (spawnerRevision != revision) {
+            spawnerVerdicts.clear();
+            spawnerRevision = revision;
+        }
+        return spawnerVerdicts;
+    }
+
+    /**
+     * Gets the population growth rates watched for anomalies
+     */
+    public PopulationGrowth getGrowth() {
+        if (growth == null) {
+            growth = new PopulationGrowth();
+        }
+        return growth;
+    }
+}
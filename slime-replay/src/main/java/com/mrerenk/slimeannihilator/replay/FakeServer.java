@@ -0,0 +1,298 @@
+package com.mrerenk.slimeannihilator.replay;
+
+import com.mrerenk.slimeannihilator.common.chunk.ChunkContextCache;
+import com.mrerenk.slimeannihilator.common.trace.SpawnTrace;
+import java.io.File;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+import org.bukkit.Location;
+import org.bukkit.Server;
+import org.bukkit.World;
+import org.bukkit.block.Biome;
+import org.bukkit.block.Block;
+import org.bukkit.block.CreatureSpawner;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.generator.ChunkGenerator;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Just enough of a server for the plugin's spawn path to run outside
+ * Minecraft. The Bukkit interfaces are implemented with dynamic proxies that
+ * answer the calls the spawn path makes; any other call fails, so a change
+ * that starts relying on more of the API shows up as an error in the harness
+ * rather than as a silently wrong measurement.
+ *
+ * <p>Worlds are rebuilt from the trace's world table. Every chunk counts as
+ * loaded, biomes come from the records of each chunk and the light level is
+ * whatever the record being replayed saw.
+ */
+final class FakeServer {
+
+    private final Map<UUID, FakeWorld> worlds = new LinkedHashMap<>();
+    private final Logger logger = Logger.getLogger("SlimeAnnihilator");
+    private final Server server;
+    private final Plugin plugin;
+
+    FakeServer(SpawnTrace trace, FileConfiguration config, File dataFolder) {
+        for (SpawnTrace.TraceWorld world : trace.getWorlds()) {
+            worlds.put(world.getId(), new FakeWorld(world));
+        }
+        for (int i = 0; i < trace.size(); i++) {
+            FakeWorld world = worlds.get(trace.getWorld(i).getId());
+            world.biomes.put(
+                ChunkContextCache.chunkKey(
+                    trace.getBlockX(i) >> 4,
+                    trace.getBlockZ(i) >> 4
+                ),
+                trace.getBiome(i)
+            );
+        }
+
+        List<World> worldList = new ArrayList<>();
+        for (FakeWorld world : worlds.values()) {
+            worldList.add(world.world);
+        }
+        this.server = proxy(Server.class, (self, method, args) -> {
+            switch (method.getName()) {
+                case "getWorld":
+                    return args[0] instanceof UUID
+                        ? worldOrNull(worlds.get(args[0]))
+                        : worldNamed((String) args[0]);
+                case "getWorlds":
+                    return worldList;
+                case "getLogger":
+                    return logger;
+                case "isPrimaryThread":
+                    return true;
+                default:
+                    return unsupported(self, method, args);
+            }
+        });
+        this.plugin = proxy(Plugin.class, (self, method, args) -> {
+            switch (method.getName()) {
+                case "getServer":
+                    return server;
+                case "getLogger":
+                    return logger;
+                case "getConfig":
+                    return config;
+                case "getDataFolder":
+                    return dataFolder;
+                case "getName":
+                    return "SlimeAnnihilator";
+                case "isEnabled":
+                    return true;
+                case "saveDefaultConfig":
+                case "reloadConfig":
+                case "saveConfig":
+                    return null;
+                default:
+                    return unsupported(self, method, args);
+            }
+        });
+    }
+
+    Plugin getPlugin() {
+        return plugin;
+    }
+
+    World getWorld(SpawnTrace.TraceWorld world) {
+        return worlds.get(world.getId()).world;
+    }
+
+    /**
+     * Sets the light level every block of a world reports, for the record
+     * about to be replayed
+     */
+    void setLightLevel(World world, int lightLevel) {
+        worlds.get(world.getUID()).lightLevel = lightLevel;
+    }
+
+    /**
+     * Creates an entity of a type at a location. Slimes and magma cubes have
+     * the given size.
+     */
+    LivingEntity newEntity(Location location, EntityType type, int size) {
+        Class<?> entityClass = type.getEntityClass();
+        if (
+            entityClass == null ||
+            !entityClass.isInterface() ||
+            !LivingEntity.class.isAssignableFrom(entityClass)
+        ) {
+            entityClass = LivingEntity.class;
+        }
+        UUID id = UUID.randomUUID();
+        return (LivingEntity) proxy(entityClass, (self, method, args) -> {
+            switch (method.getName()) {
+                case "getType":
+                    return type;
+                case "getLocation":
+                    // The server hands out a copy as well
+                    return location.clone();
+                case "getWorld":
+                    return location.getWorld();
+                case "getSize":
+                    return size;
+                case "getUniqueId":
+                    return id;
+                case "isValid":
+                    return true;
+                case "isDead":
+                    return false;
+                default:
+                    return unsupported(self, method, args);
+            }
+        });
+    }
+
+    /**
+     * Creates a spawner block at a location that spawns a type
+     */
+    CreatureSpawner newSpawner(Location location, EntityType type) {
+        int[] delay = { 20 };
+        return proxy(CreatureSpawner.class, (self, method, args) -> {
+            switch (method.getName()) {
+                case "getLocation":
+                    return location.clone();
+                case "getWorld":
+                    return location.getWorld();
+                case "getX":
+                    return location.getBlockX();
+                case "getY":
+                    return location.getBlockY();
+                case "getZ":
+                    return location.getBlockZ();
+                case "getSpawnedType":
+                    return type;
+                case "getDelay":
+                    return delay[0];
+                case "setDelay":
+                    delay[0] = (Integer) args[0];
+                    return null;
+                case "update":
+                    return true;
+                default:
+                    return unsupported(self, method, args);
+            }
+        });
+    }
+
+    private World worldNamed(String name) {
+        for (FakeWorld world : worlds.values()) {
+            if (world.trace.getName().equals(name)) {
+                return world.world;
+            }
+        }
+        return null;
+    }
+
+    private static World worldOrNull(FakeWorld world) {
+        return world == null ? null : world.world;
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(
+            Proxy.newProxyInstance(
+                FakeServer.class.getClassLoader(),
+                new Class<?>[] { type },
+                handler
+            )
+        );
+    }
+
+    /**
+     * Answers the Object methods and fails for everything else
+     */
+    private static Object unsupported(
+        Object self,
+        Method method,
+        Object[] args
+    ) {
+        switch (method.getName()) {
+            case "equals":
+                return self == args[0];
+            case "hashCode":
+                return System.identityHashCode(self);
+            case "toString":
+                return (
+                    "Fake" + self.getClass().getInterfaces()[0].getSimpleName()
+                );
+            default:
+                throw new UnsupportedOperationException(
+                    "The replay harness does not implement " +
+                    method.getDeclaringClass().getSimpleName() +
+                    "." +
+                    method.getName()
+                );
+        }
+    }
+
+    /**
+     * Generator of worlds that were flat during the capture. Its name is
+     * what the plugin's flat world detection looks for.
+     */
+    private static final class FlatReplayGenerator extends ChunkGenerator {}
+
+    private final class FakeWorld {
+
+        private final SpawnTrace.TraceWorld trace;
+        private final Map<Long, Biome> biomes = new HashMap<>();
+        private final ChunkGenerator generator;
+        private final World world;
+        private final Block block;
+        private int lightLevel;
+
+        private FakeWorld(SpawnTrace.TraceWorld trace) {
+            this.trace = trace;
+            this.generator = trace.isFlat() ? new FlatReplayGenerator() : null;
+            this.block = proxy(Block.class, (self, method, args) -> {
+                if (method.getName().equals("getLightLevel")) {
+                    return (byte) lightLevel;
+                }
+                return unsupported(self, method, args);
+            });
+            this.world = proxy(World.class, (self, method, args) -> {
+                switch (method.getName()) {
+                    case "getName":
+                        return trace.getName();
+                    case "getUID":
+                        return trace.getId();
+                    case "getEnvironment":
+                        return trace.getEnvironment();
+                    case "getSeed":
+                        return trace.getSeed();
+                    case "getGenerator":
+                        return generator;
+                    case "isChunkLoaded":
+                        return true;
+                    case "getBiome":
+                        Biome biome = biomes.get(
+                            ChunkContextCache.chunkKey(
+                                (Integer) args[0] >> 4,
+                                (Integer) args[args.length - 1] >> 4
+                            )
+                        );
+                        return biome != null ? biome : Biome.PLAINS;
+                    case "getBlockAt":
+                        return block;
+                    case "getMinHeight":
+                        return 0;
+                    case "getMaxHeight":
+                        return 256;
+                    default:
+                        return unsupported(self, method, args);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.mrerenk.slimeannihilator.replay;
+
+import com.mrerenk.slimeannihilator.common.SlimeManager;
+import com.mrerenk.slimeannihilator.common.SlimeSpawnListener;
+import com.mrerenk.slimeannihilator.common.audit.SpawnAuditLog;
+import com.mrerenk.slimeannihilator.common.config.SlimeConfig;
+import com.mrerenk.slimeannihilator.common.stacking.SlimeStacker;
+import com.mrerenk.slimeannihilator.common.trace.SpawnTrace;
+import com.mrerenk.slimeannihilator.common.trace.SpawnTraceRecorder;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.CreatureSpawner;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.LivingEntity;
+import org.bukkit.event.entity.CreatureSpawnEvent;
+import org.bukkit.event.entity.SpawnerSpawnEvent;
+
+/**
+ * Replays a trace through the plugin's spawn listener under one policy
+ * configuration. The events are built once up front, so the measured passes
+ * only run the listener. A spawner spawn is replayed as the server fires it:
+ * a spawner event and, if that is allowed, the creature spawn event that
+ * follows.
+ */
+final class PolicyReplay {
+
+    private final String name;
+    private final SpawnTrace trace;
+    private final FakeServer server;
+    private final SpawnAuditLog auditLog;
+    private final SlimeSpawnListener listener;
+
+    private final World[] worlds;
+    private final int[] lightLevels;
+    private final CreatureSpawnEvent[] spawnEvents;
+    private final SpawnerSpawnEvent[] spawnerEvents;
+
+    PolicyReplay(
+        String name,
+        SpawnTrace trace,
+        FileConfiguration policy,
+        File dataFolder
+    ) {
+        this.name = name;
+        this.trace = trace;
+        this.server = new FakeServer(trace, policy, dataFolder);
+        SlimeConfig config = new SlimeConfig(server.getPlugin());
+        SlimeManager slimeManager = new SlimeManager(
+            server.getPlugin(),
+            config
+        );
+        this.auditLog = new SpawnAuditLog(server.getPlugin(), config);
+        auditLog.applyConfig();
+        this.listener = new SlimeSpawnListener(
+            slimeManager,
+            new SlimeStacker(server.getPlugin(), slimeManager),
+            auditLog,
+            new SpawnTraceRecorder(server.getPlugin(), config, slimeManager)
+        );
+
+        int size = trace.size();
+        worlds = new World[size];
+        lightLevels = new int[size];
+        spawnEvents = new CreatureSpawnEvent[size];
+        spawnerEvents = new SpawnerSpawnEvent[size];
+        for (int i = 0; i < size; i++) {
+            World world = server.getWorld(trace.getWorld(i));
+            Location location = new Location(
+                world,
+                trace.getBlockX(i) + 0.5,
+                trace.getBlockY(i),
+                trace.getBlockZ(i) + 0.5
+            );
+            EntityType type = trace.getEntityType(i);
+            LivingEntity entity = server.newEntity(
+                location,
+                type,
+                trace.getSize(i)
+            );
+            worlds[i] = world;
+            lightLevels[i] = trace.getLightLevel(i);
+            spawnEvents[i] = new CreatureSpawnEvent(entity, trace.getReason(i));
+            if (trace.isFromSpawner(i)) {
+                CreatureSpawner spawner = server.newSpawner(location, type);
+                spawnerEvents[i] = new SpawnerSpawnEvent(entity, spawner);
+            }
+        }
+    }
+
+    /**
+     * Runs the warmup passes, then measures the timed passes
+     */
+    Result run(int warmup, int iterations) {
+        for (int i = 0; i < warmup; i++) {
+            replay(null, 0);
+        }
+
+        int size = trace.size();
+        long[] latencies = new long[size * iterations];
+        com.sun.management.ThreadMXBean allocations = allocationCounter();
+        long threadId = Thread.currentThread().getId();
+
+        long allocatedBefore = allocations != null
+            ? allocations.getThreadAllocatedBytes(threadId)
+            : 0;
+        long start = System.nanoTime();
+        long prevented = 0;
+        for (int i = 0; i < iterations; i++) {
+            prevented = replay(latencies, i * size);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocations != null
+            ? allocations.getThreadAllocatedBytes(threadId) - allocatedBefore
+            : -1;
+        auditLog.close();
+
+        Arrays.sort(latencies);
+        return new Result(
+            name,
+            size,
+            prevented,
+            (double) latencies.length * 1_000_000_000L / elapsed,
+            latencies,
+            allocated < 0 ? -1 : (double) allocated / latencies.length,
+            allocated < 0 ? -1 : allocated * 1000.0 / elapsed
+        );
+    }
+
+    /**
+     * Gets the JVM's per-thread allocation counter, or null if this JVM does
+     * not have one
+     */
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean counter =
+            (com.sun.management.ThreadMXBean) threads;
+        return counter.isThreadAllocatedMemoryEnabled() ? counter : null;
+    }
+
+    /**
+     * Replays every record once
+     *
+     * @param latencies where to store the time taken per record, or null for
+     *     warmup passes
+     * @param offset index in latencies of the first record's time
+     * @return the number of spawns the plugin prevented
+     */
+    private long replay(long[] latencies, int offset) {
+        long prevented = 0;
+        for (int i = 0; i < spawnEvents.length; i++) {
+            spawnEvents[i].setCancelled(false);
+            if (spawnerEvents[i] != null) {
+                spawnerEvents[i].setCancelled(false);
+            }
+        }
+
+        for (int i = 0; i < spawnEvents.length; i++) {
+            long start = System.nanoTime();
+            server.setLightLevel(worlds[i], lightLevels[i]);
+            if (dispatch(i)) {
+                prevented++;
+            }
+            if (latencies != null) {
+                latencies[offset + i] = System.nanoTime() - start;
+            }
+        }
+        return prevented;
+    }
+
+    private boolean dispatch(int index) {
+        SpawnerSpawnEvent spawnerEvent = spawnerEvents[index];
+        if (spawnerEvent != null) {
+            listener.onSpawnerSpawn(spawnerEvent);
+            if (spawnerEvent.isCancelled()) {
+                return true;
+            }
+        }
+        CreatureSpawnEvent event = spawnEvents[index];
+        listener.onCreatureSpawn(event);
+        return event.isCancelled();
+    }
+
+    /**
+     * Measurements of one policy configuration
+     */
+    static final class Result {
+
+        private final String name;
+        private final int events;
+        private final long prevented;
+        private final double eventsPerSecond;
+        private final long[] sortedLatencies;
+        private final double bytesPerEvent;
+        private final double megabytesPerSecond;
+
+        private Result(
+            String name,
+            int events,
+            long prevented,
+            double eventsPerSecond,
+            long[] sortedLatencies,
+            double bytesPerEvent,
+            double megabytesPerSecond
+        ) {
+            this.name = name;
+            this.events = events;
+            this.prevented = prevented;
+            this.eventsPerSecond = eventsPerSecond;
+            this.sortedLatencies = sortedLatencies;
+            this.bytesPerEvent = bytesPerEvent;
+            this.megabytesPerSecond = megabytesPerSecond;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        int getEvents() {
+            return events;
+        }
+
+        long getPrevented() {
+            return prevented;
+        }
+
+        double getEventsPerSecond() {
+            return eventsPerSecond;
+        }
+
+        /**
+         * Gets a latency percentile in nanoseconds
+         *
+         * @param percentile between 0 and 100
+         */
+        long getLatency(double percentile) {
+            int count = sortedLatencies.length;
+            int rank = (int) Math.ceil(percentile / 100 * count);
+            return sortedLatencies[Math.min(Math.max(rank, 1), count) - 1];
+        }
+
+        /**
+         * Gets the bytes allocated per replayed record, or -1 if the JVM
+         * cannot measure it
+         */
+        double getBytesPerEvent() {
+            return bytesPerEvent;
+        }
+
+        /**
+         * Gets the allocation rate in MB per second, or -1 if the JVM cannot
+         * measure it
+         */
+        double getMegabytesPerSecond() {
+            return megabytesPerSecond;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.mrerenk.slimeannihilator.replay;
+
+import com.mrerenk.slimeannihilator.common.trace.SpawnTrace;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+/**
+ * Replays a spawn trace captured with /slimes trace through the plugin's
+ * spawn listener at full speed, once per policy configuration, and reports
+ * throughput, latency percentiles and allocation rate for each.
+ *
+ * <pre>
+ * ./gradlew :slime-replay:run --args="trace.bin [policy.yml ...] [--warmup N] [--iterations N]"
+ * </pre>
+ *
+ * Each policy file is layered over the plugin's default config.yml, so it
+ * only needs the settings it changes. Without policy files the defaults
+ * are replayed. Relative paths are resolved against the slime-replay
+ * directory when run through Gradle.
+ */
+public final class ReplayHarness {
+
+    private static final int DEFAULT_WARMUP = 5;
+    private static final int DEFAULT_ITERATIONS = 10;
+
+    private ReplayHarness() {}
+
+    public static void main(String[] args) throws IOException {
+        File traceFile = null;
+        List<File> policies = new ArrayList<>();
+        int warmup = DEFAULT_WARMUP;
+        int iterations = DEFAULT_ITERATIONS;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--warmup") && i + 1 < args.length) {
+                warmup = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--iterations") && i + 1 < args.length) {
+                iterations = Math.max(1, Integer.parseInt(args[++i]));
+            } else if (traceFile == null) {
+                traceFile = new File(args[i]);
+            } else {
+                policies.add(new File(args[i]));
+            }
+        }
+        if (traceFile == null) {
+            System.err.println(
+                "Usage: ReplayHarness <trace.bin> [policy.yml ...] [--warmup N] [--iterations N]"
+            );
+            System.exit(2);
+            return;
+        }
+
+        SpawnTrace trace = SpawnTrace.read(traceFile);
+        if (trace.size() == 0) {
+            System.err.println(traceFile + " contains no spawns");
+            System.exit(1);
+            return;
+        }
+        printTrace(traceFile, trace);
+
+        YamlConfiguration defaults = loadDefaults();
+        List<PolicyReplay.Result> results = new ArrayList<>();
+        if (policies.isEmpty()) {
+            results.add(
+                replay("default", trace, defaults, warmup, iterations)
+            );
+        }
+        for (File policyFile : policies) {
+            YamlConfiguration policy = YamlConfiguration.loadConfiguration(
+                policyFile
+            );
+            policy.setDefaults(defaults);
+            policy.options().copyDefaults(true);
+            results.add(
+                replay(policyFile.getName(), trace, policy, warmup, iterations)
+            );
+        }
+        printResults(results, iterations);
+    }
+
+    private static PolicyReplay.Result replay(
+        String name,
+        SpawnTrace trace,
+        YamlConfiguration policy,
+        int warmup,
+        int iterations
+    ) throws IOException {
+        Path dataFolder = Files.createTempDirectory("slime-replay");
+        try {
+            System.out.println("Replaying with " + name + "...");
+            PolicyReplay replay = new PolicyReplay(
+                name,
+                trace,
+                policy,
+                dataFolder.toFile()
+            );
+            return replay.run(warmup, iterations);
+        } finally {
+            delete(dataFolder);
+        }
+    }
+
+    private static YamlConfiguration loadDefaults() throws IOException {
+        try (
+            InputStream in = ReplayHarness.class.getResourceAsStream(
+                "/config.yml"
+            )
+        ) {
+            if (in == null) {
+                throw new IOException("The plugin's config.yml is missing");
+            }
+            return YamlConfiguration.loadConfiguration(
+                new InputStreamReader(in, StandardCharsets.UTF_8)
+            );
+        }
+    }
+
+    private static void printTrace(File file, SpawnTrace trace) {
+        int ticks = trace.getTick(trace.size() - 1) + 1;
+        int peak = 0;
+        int inTick = 0;
+        for (int i = 0; i < trace.size(); i++) {
+            inTick = i > 0 && trace.getTick(i) == trace.getTick(i - 1)
+                ? inTick + 1
+                : 1;
+            peak = Math.max(peak, inTick);
+        }
+        System.out.println(
+            file.getName() +
+            ": " +
+            trace.size() +
+            " spawns in " +
+            trace.getWorlds().size() +
+            " worlds over " +
+            ticks +
+            " ticks (peak " +
+            peak +
+            " in one tick)"
+        );
+    }
+
+    private static void printResults(
+        List<PolicyReplay.Result> results,
+        int iterations
+    ) {
+        System.out.println();
+        System.out.println(
+            String.format(
+                "%-24s %12s %8s %8s %8s %8s %9s %10s %9s %10s",
+                "policy",
+                "events/s",
+                "p50 ns",
+                "p90 ns",
+                "p99 ns",
+                "p99.9 ns",
+                "max ns",
+                "B/event",
+                "MB/s",
+                "prevented"
+            )
+        );
+        for (PolicyReplay.Result result : results) {
+            System.out.println(
+                String.format(
+                    "%-24s %12.0f %8d %8d %8d %8d %9d %10s %9s %10s",
+                    result.getName(),
+                    result.getEventsPerSecond(),
+                    result.getLatency(50),
+                    result.getLatency(90),
+                    result.getLatency(99),
+                    result.getLatency(99.9),
+                    result.getLatency(100),
+                    rate(result.getBytesPerEvent()),
+                    rate(result.getMegabytesPerSecond()),
+                    result.getPrevented() + "/" + result.getEvents()
+                )
+            );
+        }
+        System.out.println();
+        System.out.println(
+            "Latencies cover " +
+            iterations +
+            " passes per policy and include the fake world's own calls."
+        );
+    }
+
+    private static String rate(double value) {
+        return value < 0 ? "n/a" : String.format("%.1f", value);
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths
+                .sorted(Comparator.reverseOrder())
+                .forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -1,9 +1,27 @@
 package com.mrerenk.slimeAnnihilator;
 
+import com.mrerenk.slimeannihilator.common.LoadedEntityCleaner;
 import com.mrerenk.slimeannihilator.common.SlimeManager;
 import com.mrerenk.slimeannihilator.common.SlimeSpawnListener;
+import com.mrerenk.slimeannihilator.common.WorldLifecycleListener;
+import com.mrerenk.slimeannihilator.common.adapter.EntityAdapter;
+import com.mrerenk.slimeannihilator.common.adapter.EntityAdapters;
+import com.mrerenk.slimeannihilator.common.api.SlimeIndex;
+import com.mrerenk.slimeannihilator.common.anomaly.PopulationWatchdog;
+import com.mrerenk.slimeannihilator.common.audit.SpawnAuditLog;
 import com.mrerenk.slimeannihilator.common.commands.SlimeCommand;
+import com.mrerenk.slimeannihilator.common.config.ConfigWatcher;
 import com.mrerenk.slimeannihilator.common.config.SlimeConfig;
+import com.mrerenk.slimeannihilator.common.history.PopulationHistory;
+import com.mrerenk.slimeannihilator.common.metrics.MetricsServer;
+import com.mrerenk.slimeannihilator.common.pending.PendingOperations;
+import com.mrerenk.slimeannihilator.common.profiling.Profiling;
+import com.mrerenk.slimeannihilator.common.stacking.SlimeStacker;
+import com.mrerenk.slimeannihilator.common.sweep.DeepSweeper;
+import com.mrerenk.slimeannihilator.common.trace.SpawnTraceRecorder;
+import com.mrerenk.slimeannihilator.common.world.ClassificationCache;
+import com.mrerenk.slimeannihilator.common.world.WorldIndex;
+import com.mrerenk.slimeannihilator.common.world.WorldRegistry;
 import java.util.Objects;
 import org.bukkit.plugin.java.JavaPlugin;
 
@@ -11,9 +29,20 @@ public final class SlimeAnnihilator extends JavaPlugin {
 
     private SlimeManager slimeManager;
     private SlimeConfig slimeConfig;
+    private SlimeStacker slimeStacker;
+    private SpawnAuditLog auditLog;
+    private SpawnTraceRecorder traceRecorder;
+    private PopulationHistory populationHistory;
+    private PopulationWatchdog populationWatchdog;
+    private DeepSweeper deepSweeper;
+    private SlimeIndex slimeIndex;
+    private MetricsServer metricsServer;
+    private PendingOperations pendingOperations;
+    private ConfigWatcher configWatcher;
 
     @Override
     public void onEnable() {
+        long enableNanos = System.nanoTime();
         getLogger().info("SlimeAnnihilator is starting up...");
 
         // Initialize configuration
@@ -22,50 +51,190 @@ public final class SlimeAnnihilator extends JavaPlugin {
         // Initialize the slime manager
         slimeManager = new SlimeManager(this, slimeConfig);
 
+        // Read the world classifications saved on earlier starts
+        slimeManager.getClassificationCache().load();
+
+        // Pick how entities are loaded on this server version
+        EntityAdapter entityAdapter = EntityAdapters.load();
+        getLogger().info("Using entity adapter for " + entityAdapter.getName());
+
+        // Index loaded worlds for name lookups and tab completion
+        WorldIndex worldIndex = slimeManager.getWorldIndex();
+        worldIndex.start();
+        getServer().getPluginManager().registerEvents(worldIndex, this);
+
+        // Start the scheduler that paces cleanup work to server load
+        slimeManager.getScheduler().start();
+
+        // Initialize slime stacking (idle unless enabled in config)
+        slimeStacker = new SlimeStacker(this, slimeManager);
+        slimeStacker.start();
+
+        // Open the spawn audit log (if enabled)
+        auditLog = new SpawnAuditLog(this, slimeConfig);
+        auditLog.applyConfig();
+
+        // Spawn trace capture, idle until /slimes trace start
+        traceRecorder = new SpawnTraceRecorder(this, slimeConfig, slimeManager);
+
+        // Offer counts and spawn verdicts to other plugins, and to history
+        // and metrics below
+        slimeIndex = new SlimeIndex(this, slimeManager);
+        slimeIndex.start();
+
+        // Start recording slime population history
+        populationHistory = new PopulationHistory(
+            this,
+            slimeManager,
+            slimeIndex
+        );
+        populationHistory.start();
+
+        // Watch for population explosions (if enabled)
+        populationWatchdog = new PopulationWatchdog(this, slimeManager);
+        populationWatchdog.start();
+
+        // Start the metrics endpoint (if enabled)
+        metricsServer = new MetricsServer(this, slimeManager, slimeIndex);
+        metricsServer.applyConfig();
+
+        // Apply edits to config.yml as they are saved (if enabled)
+        configWatcher = new ConfigWatcher(this, slimeConfig, change -> {
+            auditLog.applyConfig();
+            metricsServer.applyConfig();
+            configWatcher.applyConfig();
+        });
+        configWatcher.applyConfig();
+
+        // Expire operations awaiting /slimes confirm
+        pendingOperations = new PendingOperations(this, slimeConfig);
+        pendingOperations.start();
+
+        // Deep sweeps of unloaded chunks, resuming any that were interrupted
+        deepSweeper = new DeepSweeper(this, slimeManager, entityAdapter);
+        deepSweeper.start();
+
+        // Release per-world state when worlds unload
+        WorldRegistry worldRegistry = slimeManager.getWorldRegistry();
+        worldRegistry.addReleaseListener(state -> {
+            auditLog.releaseWorld(state.getId());
+            populationHistory.releaseWorld(state.getName());
+            pendingOperations.cancelWorld(state.getId());
+            deepSweeper.releaseWorld(state.getId());
+            slimeIndex.releaseWorld(state.getId());
+        });
+        // Forget the classifications of deleted worlds while running, and
+        // write any classification changes on the same schedule
+        ClassificationCache classifications =
+            slimeManager.getClassificationCache();
+        worldRegistry.addSweepListener(() -> {
+            classifications.pruneMissingWorldsLater();
+            classifications.saveLater();
+        });
+        worldRegistry.start();
+
         // Register event listeners
+        getServer().getPluginManager().registerEvents(worldRegistry, this);
+        getServer()
+            .getPluginManager()
+            .registerEvents(
+                new SlimeSpawnListener(
+                    slimeManager,
+                    slimeStacker,
+                    auditLog,
+                    traceRecorder
+                ),
+                this
+            );
+        getServer().getPluginManager().registerEvents(slimeStacker, this);
+        getServer().getPluginManager().registerEvents(populationWatchdog, this);
+        getServer().getPluginManager().registerEvents(deepSweeper, this);
         getServer()
             .getPluginManager()
-            .registerEvents(new SlimeSpawnListener(slimeManager), this);
+            .registerEvents(
+                entityAdapter.newEntityLoadListener(
+                    new LoadedEntityCleaner(slimeManager, slimeStacker)
+                ),
+                this
+            );
+        getServer()
+            .getPluginManager()
+            .registerEvents(slimeManager.getChunkContextCache(), this);
 
         // Register commands (removed adventure parameter)
-        SlimeCommand slimeCommand = new SlimeCommand(slimeManager, this);
+        SlimeCommand slimeCommand = new SlimeCommand(
+            slimeManager,
+            auditLog,
+            traceRecorder,
+            populationHistory,
+            metricsServer,
+            pendingOperations,
+            configWatcher,
+            deepSweeper,
+            this
+        );
         Objects.requireNonNull(getCommand("slimes")).setExecutor(slimeCommand);
         Objects.requireNonNull(getCommand("slimes")).setTabCompleter(
             slimeCommand
         );
 
-        // Remove slimes from flat worlds on startup (if enabled)
-        if (slimeConfig.isAutoRemoveOnStartup()) {
-            getLogger()
-                .info(
-                    "Auto-remove on startup is enabled. Scheduling world scan..."
-                );
-            getServer()
-                .getScheduler()
-                .runTaskLater(
-                    this,
-                    () -> {
-                        getLogger()
-                            .info(
-                                "Starting flat world scan and slime removal..."
-                            );
-                        slimeManager.removeSlimesFromFlatWorlds();
-                        getLogger()
-                            .info(
-                                "Auto-removal task completed for flat worlds!"
-                            );
-                    },
-                    20L
-                ); // Wait 1 second for worlds to load
-        } else {
+        // Set up each world as it loads, starting with those already loaded;
+        // flat worlds are cleaned up then if auto-remove is enabled
+        WorldLifecycleListener worldListener = new WorldLifecycleListener(
+            this,
+            slimeManager
+        );
+        getServer().getPluginManager().registerEvents(worldListener, this);
+        if (!slimeConfig.isAutoRemoveOnStartup()) {
             getLogger().info("Auto-remove on startup is disabled.");
         }
+        if (Profiling.isFlightRecorderEnabled()) {
+            getLogger().info("Java Flight Recorder events are available.");
+        }
+        worldListener.initializeLoadedWorlds(enableNanos);
 
         getLogger().info("SlimeAnnihilator has been enabled!");
     }
 
     @Override
     public void onDisable() {
+        if (slimeStacker != null) {
+            slimeStacker.stop();
+        }
+        if (slimeManager != null) {
+            slimeManager.getScheduler().stop();
+            slimeManager.getWorldRegistry().stop();
+            slimeManager.getClassificationCache().pruneMissingWorlds();
+            slimeManager.getClassificationCache().close();
+        }
+        if (metricsServer != null) {
+            metricsServer.stop();
+        }
+        if (pendingOperations != null) {
+            pendingOperations.stop();
+        }
+        if (configWatcher != null) {
+            configWatcher.stop();
+        }
+        if (populationHistory != null) {
+            populationHistory.stop();
+        }
+        if (deepSweeper != null) {
+            deepSweeper.stop();
+        }
+        if (slimeIndex != null) {
+            slimeIndex.stop();
+        }
+        if (populationWatchdog != null) {
+            populationWatchdog.stop();
+        }
+        if (traceRecorder != null) {
+            traceRecorder.stop();
+        }
+        if (auditLog != null) {
+            auditLog.close();
+        }
+
         // Save configuration on shutdown
         if (slimeConfig != null) {
             slimeConfig.saveConfig();